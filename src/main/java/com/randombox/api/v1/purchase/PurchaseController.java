@@ -1,16 +1,30 @@
 package com.randombox.api.v1.purchase;
 
+import com.randombox.api.v1.purchase.dto.PurchasePageResponse;
 import com.randombox.api.v1.purchase.dto.PurchaseQueueResponse;
 import com.randombox.api.v1.purchase.dto.PurchaseRequest;
 import com.randombox.api.v1.purchase.dto.PurchaseResponse;
+import com.randombox.api.v1.purchase.dto.PurchaseTicketResponse;
+import com.randombox.domain.purchase.AsyncPurchaseService;
 import com.randombox.domain.purchase.Purchase;
-import com.randombox.domain.purchase.PurchaseResult;
+import com.randombox.domain.purchase.PurchaseIdempotencyRecord;
+import com.randombox.domain.purchase.PurchaseIdempotencyService;
+import com.randombox.domain.purchase.PurchasePage;
+import com.randombox.domain.purchase.PurchaseResultSummary;
 import com.randombox.domain.purchase.PurchaseService;
+import com.randombox.domain.purchase.PurchaseTicket;
+import com.randombox.domain.queue.AdmissionTokenService;
+import com.randombox.domain.queue.WaitEstimate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,6 +33,11 @@ import java.util.stream.Collectors;
 public class PurchaseController {
 
     private final PurchaseService purchaseService;
+    private final AdmissionTokenService admissionTokenService;
+    private final AsyncPurchaseService asyncPurchaseService;
+    private final PurchaseIdempotencyService purchaseIdempotencyService;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     /**
      * 랜덤박스 구매 전 대기열 확인
@@ -32,14 +51,18 @@ public class PurchaseController {
             @PathVariable Long randomBoxId) {
         
         int position = purchaseService.checkQueuePosition(userId, randomBoxId);
-        int estimatedWaitTime = position * 30; // 한 사용자당 처리 시간을 30초로 가정
+        WaitEstimate waitEstimate = purchaseService.estimateWait(randomBoxId, position);
         
         PurchaseQueueResponse response = PurchaseQueueResponse.builder()
                 .userId(userId)
                 .randomBoxId(randomBoxId)
                 .position(position)
-                .estimatedWaitTimeSeconds(estimatedWaitTime)
+                .estimatedWaitTimeSeconds(waitEstimate.getSeconds())
+                .estimatedWaitTimeLowSeconds(waitEstimate.getLowSeconds())
+                .estimatedWaitTimeHighSeconds(waitEstimate.getHighSeconds())
                 .canPurchase(position == 0)
+                // 입장한 사용자는 이 토큰으로 대기열 확인 없이 구매 (다시 조회해도 입장 한 번에 같은 토큰)
+                .admissionToken(position == 0 ? admissionTokenService.issue(userId, randomBoxId) : null)
                 .build();
         
         return ResponseEntity.ok(response);
@@ -48,22 +71,210 @@ public class PurchaseController {
     /**
      * 랜덤박스 구매
      * @param request 구매 요청 정보
+     * @param idempotencyKey 멱등 키 (같은 키로 재시도하면 구매를 다시 실행하지 않고 처음 결과를 반환)
      * @return 구매 결과
      */
     @PostMapping
-    public ResponseEntity<?> purchaseRandomBox(@RequestBody PurchaseRequest request) {
-        // 대기열 확인
-        int position = purchaseService.checkQueuePosition(request.getUserId(), request.getRandomBoxId());
+    public ResponseEntity<?> purchaseRandomBox(
+            @RequestBody PurchaseRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        
+        if (idempotencyKey == null) {
+            return purchase(request);
+        }
+        return withIdempotency(request, idempotencyKey, () -> purchase(request));
+    }
+    
+    private ResponseEntity<?> purchase(PurchaseRequest request) {
+        ResponseEntity<PurchaseQueueResponse> rejected = checkAdmission(request);
+        if (rejected != null) {
+            return rejected;
+        }
+        
+        // 구매 진행
+        Purchase purchase = purchaseService.purchaseRandomBox(
+                request.getUserId(),
+                request.getRandomBoxId(),
+                request.getQuantity(),
+                request.getUserCouponId()
+        );
         
-        // 대기열의 첫 번째가 아니면 대기해야 함
+        return ResponseEntity.ok(toResponse(purchase));
+    }
+    
+    /**
+     * 랜덤박스 비동기 구매 (요청 접수 후 바로 반환, 결과는 요청 ID로 조회)
+     * @param request 구매 요청 정보
+     * @param idempotencyKey 멱등 키 (같은 키로 재시도하면 다시 접수하지 않고 처음 요청 정보를 반환)
+     * @return 접수된 요청 정보 (202)
+     */
+    @PostMapping("/async")
+    public ResponseEntity<?> purchaseRandomBoxAsync(
+            @RequestBody PurchaseRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        
+        if (idempotencyKey == null) {
+            return submitPurchase(request);
+        }
+        return withIdempotency(request, idempotencyKey, () -> submitPurchase(request));
+    }
+    
+    private ResponseEntity<?> submitPurchase(PurchaseRequest request) {
+        ResponseEntity<PurchaseQueueResponse> rejected = checkAdmission(request);
+        if (rejected != null) {
+            return rejected;
+        }
+        
+        int quantity = request.getQuantity() != null ? request.getQuantity() : 0;
+        PurchaseTicket ticket;
+        try {
+            ticket = asyncPurchaseService.submit(
+                    request.getUserId(),
+                    request.getRandomBoxId(),
+                    quantity,
+                    request.getUserCouponId()
+            );
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        
+        return ResponseEntity.accepted().body(PurchaseTicketResponse.of(ticket, null));
+    }
+    
+    /**
+     * 비동기 구매 결과 조회
+     * @param ticketId 요청 ID
+     * @return 처리 상태 (구매 완료 시 구매 결과 포함)
+     */
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<PurchaseTicketResponse> getPurchaseTicket(@PathVariable String ticketId) {
+        PurchaseTicket ticket = asyncPurchaseService.getTicket(ticketId);
+        
+        if (ticket == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        PurchaseResponse purchase = ticket.isCompleted()
+                ? toResponse(purchaseService.getPurchase(ticket.getPurchaseId()))
+                : null;
+        
+        return ResponseEntity.ok(PurchaseTicketResponse.of(ticket, purchase));
+    }
+    
+    /**
+     * 멱등 키로 중복 실행 방지
+     * 처음 받은 키만 구매를 실행하고, 구매되었거나 접수된 경우에만 결과를 기록한다.
+     * 거절되었거나 실패한 요청은 기록을 지워 같은 키로 다시 시도할 수 있게 한다.
+     * 같은 키로 내용(랜덤박스, 수량, 쿠폰)이 다른 요청을 보내면 처음 요청의 결과를 돌려주지 않고 422로 거절한다.
+     * @param request 구매 요청 정보
+     * @param idempotencyKey 멱등 키
+     * @param execution 구매 실행
+     * @return 구매 결과 (재시도 요청이면 처음 요청의 결과)
+     */
+    private ResponseEntity<?> withIdempotency(PurchaseRequest request, String idempotencyKey, Supplier<ResponseEntity<?>> execution) {
+        if (!purchaseIdempotencyService.isValidKey(idempotencyKey)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Long userId = request.getUserId();
+        String fingerprint = purchaseIdempotencyService.fingerprint(
+                request.getRandomBoxId(), request.getQuantity(), request.getUserCouponId());
+        PurchaseIdempotencyRecord acquired = purchaseIdempotencyService.acquire(userId, idempotencyKey, fingerprint);
+        if (!acquired.isAcquired()) {
+            PurchaseIdempotencyRecord record = acquired.isPending() && acquired.matches(fingerprint)
+                    ? purchaseIdempotencyService.await(userId, idempotencyKey)
+                    : acquired;
+            if (!record.matches(fingerprint)) {
+                return ResponseEntity.unprocessableEntity().build();
+            }
+            return replay(record);
+        }
+        
+        PurchaseIdempotencyRecord record = null;
+        try {
+            ResponseEntity<?> response = execution.get();
+            Object body = response.getBody();
+            if (body instanceof PurchaseResponse) {
+                record = PurchaseIdempotencyRecord.purchase(((PurchaseResponse) body).getId());
+            } else if (body instanceof PurchaseTicketResponse) {
+                record = PurchaseIdempotencyRecord.ticket(((PurchaseTicketResponse) body).getTicketId());
+            }
+            return response;
+        } finally {
+            if (record != null) {
+                purchaseIdempotencyService.complete(userId, idempotencyKey, acquired, record);
+            } else {
+                purchaseIdempotencyService.release(userId, idempotencyKey, acquired);
+            }
+        }
+    }
+    
+    private ResponseEntity<?> replay(PurchaseIdempotencyRecord record) {
+        if (record.isPending()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        
+        if (record.getPurchaseId() != null) {
+            return ResponseEntity.ok(toResponse(purchaseService.getPurchase(record.getPurchaseId())));
+        }
+        
+        PurchaseTicket ticket = asyncPurchaseService.getTicket(record.getTicketId());
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return ResponseEntity.accepted().body(PurchaseTicketResponse.of(ticket, null));
+    }
+    
+    /**
+     * 구매 가능 여부 확인 (품절, 입장 토큰, 대기열)
+     * @param request 구매 요청 정보
+     * @return 구매할 수 없으면 거절 응답, 구매할 수 있으면 null
+     */
+    private ResponseEntity<PurchaseQueueResponse> checkAdmission(PurchaseRequest request) {
+        // 품절된 랜덤박스는 대기열 확인 없이 바로 거절
+        if (purchaseService.isSoldOut(request.getRandomBoxId())) {
+            PurchaseQueueResponse response = PurchaseQueueResponse.builder()
+                    .userId(request.getUserId())
+                    .randomBoxId(request.getRandomBoxId())
+                    .canPurchase(false)
+                    .message("품절된 랜덤박스입니다.")
+                    .build();
+            
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        
+        // 입장 토큰이 있으면 노드 안에서 서명만 검증하고, 한 번만 쓸 수 있도록 사용 처리
+        int position = 0;
+        if (request.getAdmissionToken() != null) {
+            if (!admissionTokenService.verify(request.getAdmissionToken(), request.getUserId(), request.getRandomBoxId())
+                    || !admissionTokenService.consume(request.getAdmissionToken())) {
+                PurchaseQueueResponse response = PurchaseQueueResponse.builder()
+                        .userId(request.getUserId())
+                        .randomBoxId(request.getRandomBoxId())
+                        .canPurchase(false)
+                        .message("유효하지 않거나 이미 사용된 입장 토큰입니다.")
+                        .build();
+                
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            }
+        } else {
+            // 토큰이 없으면 대기열 확인
+            position = purchaseService.checkQueuePosition(request.getUserId(), request.getRandomBoxId());
+        }
+        
+        // 아직 입장하지 않았으면 대기해야 함
         if (position > 0) {
-            int estimatedWaitTime = position * 30; // 한 사용자당 처리 시간을 30초로 가정
+            WaitEstimate waitEstimate = purchaseService.estimateWait(request.getRandomBoxId(), position);
             
             PurchaseQueueResponse response = PurchaseQueueResponse.builder()
                     .userId(request.getUserId())
                     .randomBoxId(request.getRandomBoxId())
                     .position(position)
-                    .estimatedWaitTimeSeconds(estimatedWaitTime)
+                    .estimatedWaitTimeSeconds(waitEstimate.getSeconds())
+                    .estimatedWaitTimeLowSeconds(waitEstimate.getLowSeconds())
+                    .estimatedWaitTimeHighSeconds(waitEstimate.getHighSeconds())
                     .canPurchase(false)
                     .message("대기열에서 기다려야 합니다. 현재 순서: " + position)
                     .build();
@@ -71,84 +282,108 @@ public class PurchaseController {
             return ResponseEntity.accepted().body(response);
         }
         
-        // 구매 진행
-        Purchase purchase = purchaseService.purchaseRandomBox(
-                request.getUserId(),
-                request.getRandomBoxId(),
-                request.getQuantity(),
-                request.getUserCouponId()
-        );
-        
-        // 다음 사용자 구매 준비
-        purchaseService.prepareForPurchase(request.getRandomBoxId());
-        
+        return null;
+    }
+    
+    private PurchaseResponse toResponse(Purchase purchase) {
+        return toResponse(purchase, purchaseService.getPurchaseResultSummaries(List.of(purchase)).get(purchase.getId()));
+    }
+    
+    private PurchaseResponse toResponse(Purchase purchase, List<PurchaseResultSummary> results) {
         // PurchaseResponse 생성
         PurchaseResponse response = PurchaseResponse.from(purchase);
         
         // 구매 결과 목록 설정
-        List<PurchaseResult> results = purchaseService.getPurchaseResults(purchase.getId());
         List<PurchaseResponse.PurchaseResultResponse> resultResponses = results.stream()
                 .map(PurchaseResponse.PurchaseResultResponse::from)
                 .collect(Collectors.toList());
         response.setResults(resultResponses);
         
-        return ResponseEntity.ok(response);
+        return response;
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PurchaseResponse> getPurchase(@PathVariable Long id) {
         Purchase purchase = purchaseService.getPurchase(id);
-        
-        // PurchaseResponse 생성
-        PurchaseResponse response = PurchaseResponse.from(purchase);
-        
-        // 구매 결과 목록 설정
-        List<PurchaseResult> results = purchaseService.getPurchaseResults(purchase.getId());
-        List<PurchaseResponse.PurchaseResultResponse> resultResponses = results.stream()
-                .map(PurchaseResponse.PurchaseResultResponse::from)
-                .collect(Collectors.toList());
-        response.setResults(resultResponses);
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(toResponse(purchase));
     }
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<PurchaseResponse>> getUserPurchases(@PathVariable Long userId) {
+        // 구매(랜덤박스 포함) 한 번, 전체 구매 결과 한 번만 조회하고 메모리에서 구매별로 묶음
         List<Purchase> purchases = purchaseService.getUserPurchases(userId);
+        Map<Long, List<PurchaseResultSummary>> resultsByPurchaseId = purchaseService.getPurchaseResultSummaries(purchases);
+        
         List<PurchaseResponse> responses = purchases.stream()
-                .map(purchase -> {
-                    // PurchaseResponse 생성
-                    PurchaseResponse response = PurchaseResponse.from(purchase);
-                    
-                    // 구매 결과 목록 설정
-                    List<PurchaseResult> results = purchaseService.getPurchaseResults(purchase.getId());
-                    List<PurchaseResponse.PurchaseResultResponse> resultResponses = results.stream()
-                            .map(PurchaseResponse.PurchaseResultResponse::from)
-                            .collect(Collectors.toList());
-                    response.setResults(resultResponses);
-                    
-                    return response;
-                })
+                .map(purchase -> toResponse(purchase, resultsByPurchaseId.get(purchase.getId())))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * 사용자 구매 내역 페이지 조회 (최신순)
+     * @param userId 사용자 ID
+     * @param cursor 이전 응답의 nextCursor (첫 페이지면 생략)
+     * @param size 페이지 크기
+     * @return 구매 내역 페이지
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<PurchasePageResponse> getUserPurchasePage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        PurchasePage page;
+        try {
+            page = purchaseService.getUserPurchasePage(userId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(toPageResponse(page));
+    }
+
+    /**
+     * 기간별 구매 내역 페이지 조회 (최신순)
+     * @param startDate 시작 시각 (포함)
+     * @param endDate 종료 시각 (포함)
+     * @param cursor 이전 응답의 nextCursor (첫 페이지면 생략)
+     * @param size 페이지 크기
+     * @return 구매 내역 페이지
+     */
+    @GetMapping("/page")
+    public ResponseEntity<PurchasePageResponse> getPurchasePage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        PurchasePage page;
+        try {
+            page = purchaseService.getPurchasePage(startDate, endDate, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(toPageResponse(page));
+    }
+
+    private PurchasePageResponse toPageResponse(PurchasePage page) {
+        // 페이지의 구매 결과는 한 번에 조회
+        Map<Long, List<PurchaseResultSummary>> resultsByPurchaseId = purchaseService.getPurchaseResultSummaries(page.getPurchases());
+        
+        List<PurchaseResponse> responses = page.getPurchases().stream()
+                .map(purchase -> toResponse(purchase, resultsByPurchaseId.get(purchase.getId())))
+                .collect(Collectors.toList());
+        
+        return PurchasePageResponse.builder()
+                .purchases(responses)
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.hasNext())
+                .build();
+    }
+
     @DeleteMapping("/{userId}/{id}")
     public ResponseEntity<PurchaseResponse> cancelPurchase(
             @PathVariable Long userId,
             @PathVariable Long id) {
         Purchase canceledPurchase = purchaseService.cancelPurchase(userId, id);
-        
-        // PurchaseResponse 생성
-        PurchaseResponse response = PurchaseResponse.from(canceledPurchase);
-        
-        // 구매 결과 목록 설정
-        List<PurchaseResult> results = purchaseService.getPurchaseResults(canceledPurchase.getId());
-        List<PurchaseResponse.PurchaseResultResponse> resultResponses = results.stream()
-                .map(PurchaseResponse.PurchaseResultResponse::from)
-                .collect(Collectors.toList());
-        response.setResults(resultResponses);
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(toResponse(canceledPurchase));
     }
 }
@@ -0,0 +1,18 @@
+package com.randombox.api.v1.purchase.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchasePageResponse {
+    private List<PurchaseResponse> purchases;
+    private String nextCursor; // 다음 페이지 요청 시 cursor로 전달, 마지막 페이지면 null
+    private boolean hasNext;
+}
@@ -14,6 +14,9 @@ public class PurchaseQueueResponse {
     private Long randomBoxId;
     private int position;
     private int estimatedWaitTimeSeconds;
+    private int estimatedWaitTimeLowSeconds;
+    private int estimatedWaitTimeHighSeconds;
     private boolean canPurchase;
     private String message;
+    private String admissionToken;
 }
@@ -14,4 +14,5 @@ public class PurchaseRequest {
     private Long randomBoxId;
     private Integer quantity;
     private Long userCouponId;
+    private String admissionToken;
 }
@@ -2,6 +2,7 @@ package com.randombox.api.v1.purchase.dto;
 
 import com.randombox.domain.purchase.Purchase;
 import com.randombox.domain.purchase.PurchaseResult;
+import com.randombox.domain.purchase.PurchaseResultSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -60,6 +61,14 @@ public class PurchaseResponse {
         private String itemName;
         private String rarity;
 
+        public static PurchaseResultResponse from(PurchaseResultSummary result) {
+            return PurchaseResultResponse.builder()
+                    .id(result.getId())
+                    .itemName(result.getItemName())
+                    .rarity(result.getRarity().name())
+                    .build();
+        }
+
         public static PurchaseResultResponse from(PurchaseResult result) {
             return PurchaseResultResponse.builder()
                     .id(result.getId())
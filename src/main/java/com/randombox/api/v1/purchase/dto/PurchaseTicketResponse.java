@@ -0,0 +1,31 @@
+package com.randombox.api.v1.purchase.dto;
+
+import com.randombox.domain.purchase.PurchaseTicket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseTicketResponse {
+    private String ticketId;
+    private Long userId;
+    private Long randomBoxId;
+    private String status;
+    private String message;
+    private PurchaseResponse purchase; // 구매 완료 시에만 설정
+
+    public static PurchaseTicketResponse of(PurchaseTicket ticket, PurchaseResponse purchase) {
+        return PurchaseTicketResponse.builder()
+                .ticketId(ticket.getTicketId())
+                .userId(ticket.getUserId())
+                .randomBoxId(ticket.getRandomBoxId())
+                .status(ticket.getStatus().name())
+                .message(ticket.getMessage())
+                .purchase(purchase)
+                .build();
+    }
+}
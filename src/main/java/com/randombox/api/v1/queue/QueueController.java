@@ -1,10 +1,17 @@
 package com.randombox.api.v1.queue;
 
+import com.randombox.api.v1.queue.dto.QueueBulkJoinRequest;
+import com.randombox.api.v1.queue.dto.QueueBulkJoinResponse;
 import com.randombox.api.v1.queue.dto.QueueResponse;
 import com.randombox.domain.queue.QueueService;
+import com.randombox.domain.queue.WaitEstimate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -12,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 public class QueueController {
 
     private final QueueService queueService;
+    private final QueueEmitterRegistry queueEmitterRegistry;
 
     /**
      * 사용자를 대기열에 추가
@@ -25,20 +33,46 @@ public class QueueController {
             @PathVariable Long userId) {
         
         int position = queueService.addToQueue(randomBoxId, userId);
-        int estimatedWaitTime = queueService.getEstimatedWaitTime(randomBoxId, userId);
+        WaitEstimate waitEstimate = queueService.estimateWait(randomBoxId, position);
         long waitingCount = queueService.getWaitingCount(randomBoxId);
         
         QueueResponse response = QueueResponse.of(
                 userId,
                 randomBoxId,
                 position,
-                estimatedWaitTime,
+                waitEstimate,
                 waitingCount
         );
         
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 여러 사용자를 한 번에 대기열에 추가 (사전 등록 명단, 부하 테스트용)
+     * @param randomBoxId 랜덤박스 ID
+     * @param request 사용자 ID 목록 (요청 순서대로 대기 순번 부여)
+     * @return 사용자별 대기 번호
+     */
+    @PostMapping("/{randomBoxId}/users/bulk")
+    public ResponseEntity<QueueBulkJoinResponse> addAllToQueue(
+            @PathVariable Long randomBoxId,
+            @RequestBody QueueBulkJoinRequest request) {
+        
+        if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Map<Long, Integer> positions;
+        try {
+            positions = queueService.addAllToQueue(randomBoxId, request.getUserIds());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        long waitingCount = queueService.getWaitingCount(randomBoxId);
+        
+        return ResponseEntity.ok(QueueBulkJoinResponse.of(randomBoxId, positions, waitingCount));
+    }
+
     /**
      * 대기열에서 사용자 위치 조회
      * @param randomBoxId 랜덤박스 ID
@@ -56,20 +90,52 @@ public class QueueController {
             return ResponseEntity.notFound().build();
         }
         
-        int estimatedWaitTime = queueService.getEstimatedWaitTime(randomBoxId, userId);
+        WaitEstimate waitEstimate = queueService.estimateWait(randomBoxId, position);
         long waitingCount = queueService.getWaitingCount(randomBoxId);
         
         QueueResponse response = QueueResponse.of(
                 userId,
                 randomBoxId,
                 position,
-                estimatedWaitTime,
+                waitEstimate,
                 waitingCount
         );
         
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 대기 중인 사용자의 응답 (주기적으로 호출하지 않으면 대기열에서 제거될 수 있음)
+     * @param randomBoxId 랜덤박스 ID
+     * @param userId 사용자 ID
+     * @return 대기 중이면 200, 대기열에 없으면 404
+     */
+    @PostMapping("/{randomBoxId}/users/{userId}/heartbeat")
+    public ResponseEntity<Void> heartbeat(
+            @PathVariable Long randomBoxId,
+            @PathVariable Long userId) {
+        
+        if (queueService.heartbeat(randomBoxId, userId)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 대기열 위치 실시간 수신 (SSE)
+     * 입장 처리가 끝날 때마다 위치가 전송되며, 입장하면 admitted 이벤트 후 연결이 종료된다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param userId 사용자 ID
+     * @return SSE 연결
+     */
+    @GetMapping(value = "/{randomBoxId}/users/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQueueInfo(
+            @PathVariable Long randomBoxId,
+            @PathVariable Long userId) {
+        
+        return queueEmitterRegistry.register(randomBoxId, userId);
+    }
+
     /**
      * 대기열에서 사용자 제거
      * @param randomBoxId 랜덤박스 ID
@@ -0,0 +1,164 @@
+package com.randombox.api.v1.queue;
+
+import com.randombox.api.v1.queue.dto.QueueResponse;
+import com.randombox.domain.queue.QueueService;
+import com.randombox.domain.queue.QueueThroughput;
+import com.randombox.domain.queue.QueueThroughputEstimator;
+import com.randombox.domain.queue.QueueTickEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 대기열 위치를 SSE로 전송하는 연결 관리
+ * 입장 처리가 끝날 때마다 랜덤박스별로 연결된 사용자들의 위치를 한 번에 조회해 전송하므로
+ * 클라이언트가 각자 위치를 반복 조회할 필요가 없다.
+ * 입장 처리 이벤트는 노드마다 자기 스케줄러 주기에 발행되므로(락을 얻지 못한 노드도 발행), 어느 노드에 연결되어 있어도 위치를 받는다.
+ * 전송은 전용 스레드에서 처리해 느린 연결이 입장 스케줄러를 막지 않게 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueueEmitterRegistry {
+
+    private final QueueService queueService;
+    private final QueueThroughputEstimator throughputEstimator;
+
+    @Value("${randombox.queue.stream.timeout-ms:600000}")
+    private long timeoutMillis = 600000;
+
+    /**
+     * 위치 전송 스레드 수
+     */
+    @Value("${randombox.queue.stream.push-threads:2}")
+    private int pushThreads = 2;
+
+    // 랜덤박스별 사용자 연결 (사용자당 하나, 새로 연결하면 이전 연결은 종료)
+    private final Map<Long, Map<Long, SseEmitter>> emitters = new ConcurrentHashMap<>();
+    // 전송이 예약된 랜덤박스 (이전 전송이 끝나기 전에 온 이벤트는 합쳐서 한 번만 전송)
+    private final Set<Long> pendingPushes = ConcurrentHashMap.newKeySet();
+    private ExecutorService pushExecutor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        pushExecutor = Executors.newFixedThreadPool(pushThreads,
+                runnable -> new Thread(runnable, "queue-stream-" + sequence.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        pushExecutor.shutdown();
+        if (!pushExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+            pushExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 연결 등록 후 현재 위치 전송
+     * @param randomBoxId 랜덤박스 ID
+     * @param userId 사용자 ID
+     * @return SSE 연결
+     */
+    public SseEmitter register(Long randomBoxId, Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        // 마지막 연결이 끝나 랜덤박스 항목이 지워지는 것과 겹치지 않도록 항목 단위로 원자적으로 추가
+        AtomicReference<SseEmitter> previous = new AtomicReference<>();
+        emitters.compute(randomBoxId, (id, boxEmitters) -> {
+            Map<Long, SseEmitter> target = boxEmitters != null ? boxEmitters : new ConcurrentHashMap<>();
+            previous.set(target.put(userId, emitter));
+            return target;
+        });
+        if (previous.get() != null) {
+            previous.get().complete();
+        }
+        
+        // 판매가 끝난 랜덤박스의 빈 항목이 남지 않도록 마지막 연결이 끝나면 항목도 제거
+        Runnable remove = () -> emitters.computeIfPresent(randomBoxId, (id, boxEmitters) -> {
+            boxEmitters.remove(userId, emitter);
+            return boxEmitters.isEmpty() ? null : boxEmitters;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        
+        push(randomBoxId, Map.of(userId, emitter));
+        return emitter;
+    }
+
+    /**
+     * 입장 처리가 끝난 랜덤박스의 연결된 사용자들에게 위치 전송 예약
+     * @param event 입장 처리 이벤트
+     */
+    @EventListener
+    public void onQueueTick(QueueTickEvent event) {
+        Long randomBoxId = event.getRandomBoxId();
+        Map<Long, SseEmitter> boxEmitters = emitters.get(randomBoxId);
+        if (boxEmitters == null || boxEmitters.isEmpty() || !pendingPushes.add(randomBoxId)) {
+            return;
+        }
+        
+        try {
+            pushExecutor.execute(() -> {
+                // 전송 중에 온 이벤트는 다시 예약되도록 조회 전에 예약 표시를 지움
+                pendingPushes.remove(randomBoxId);
+                try {
+                    push(randomBoxId, boxEmitters);
+                } catch (Exception e) {
+                    log.error("랜덤박스 {} 대기열 위치 전송에 실패했습니다.", randomBoxId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            pendingPushes.remove(randomBoxId);
+        }
+    }
+
+    private void push(Long randomBoxId, Map<Long, SseEmitter> targets) {
+        Map<Long, Integer> positions = queueService.getPositions(randomBoxId, targets.keySet());
+        long waitingCount = queueService.getWaitingCount(randomBoxId);
+        // 처리 속도는 랜덤박스별로 한 번만 조회하고 사용자별 예상 시간은 메모리에서 계산
+        QueueThroughput throughput = throughputEstimator.getThroughput(randomBoxId);
+        
+        targets.forEach((userId, emitter) -> {
+            int position = positions.getOrDefault(userId, -1);
+            try {
+                if (position == QueueService.ADMITTED) {
+                    // 입장한 사용자는 구매 화면으로 이동하므로 연결 종료
+                    emitter.send(SseEmitter.event()
+                            .name("admitted")
+                            .data(QueueResponse.of(userId, randomBoxId, 0, 0, waitingCount)));
+                    emitter.complete();
+                } else if (position == -1) {
+                    emitter.send(SseEmitter.event().name("not-in-queue").data(userId));
+                    emitter.complete();
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .name("position")
+                            .data(QueueResponse.of(userId, randomBoxId, position,
+                                    throughput.estimate(position), waitingCount)));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 끊어진 연결은 정리
+                emitter.completeWithError(e);
+                log.debug("사용자 {}의 랜덤박스 {} 대기열 연결이 끊어졌습니다.", userId, randomBoxId);
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.randombox.api.v1.queue.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueBulkJoinRequest {
+    private List<Long> userIds;
+}
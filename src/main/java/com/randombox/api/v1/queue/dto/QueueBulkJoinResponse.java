@@ -0,0 +1,39 @@
+package com.randombox.api.v1.queue.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueBulkJoinResponse {
+    private Long randomBoxId;
+    private List<UserPosition> positions;
+    private long totalWaitingCount;
+    
+    public static QueueBulkJoinResponse of(Long randomBoxId, Map<Long, Integer> positions, long totalWaitingCount) {
+        List<UserPosition> userPositions = new ArrayList<>(positions.size());
+        positions.forEach((userId, position) -> userPositions.add(new UserPosition(userId, position)));
+        
+        return QueueBulkJoinResponse.builder()
+                .randomBoxId(randomBoxId)
+                .positions(userPositions)
+                .totalWaitingCount(totalWaitingCount)
+                .build();
+    }
+    
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserPosition {
+        private Long userId;
+        private int position;
+    }
+}
@@ -1,5 +1,6 @@
 package com.randombox.api.v1.queue.dto;
 
+import com.randombox.domain.queue.WaitEstimate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,6 +15,8 @@ public class QueueResponse {
     private Long randomBoxId;
     private int position;
     private int estimatedWaitTimeSeconds;
+    private int estimatedWaitTimeLowSeconds;
+    private int estimatedWaitTimeHighSeconds;
     private long totalWaitingCount;
     
     public static QueueResponse of(Long userId, Long randomBoxId, int position, int estimatedWaitTimeSeconds, long totalWaitingCount) {
@@ -22,6 +25,20 @@ public class QueueResponse {
                 .randomBoxId(randomBoxId)
                 .position(position)
                 .estimatedWaitTimeSeconds(estimatedWaitTimeSeconds)
+                .estimatedWaitTimeLowSeconds(estimatedWaitTimeSeconds)
+                .estimatedWaitTimeHighSeconds(estimatedWaitTimeSeconds)
+                .totalWaitingCount(totalWaitingCount)
+                .build();
+    }
+    
+    public static QueueResponse of(Long userId, Long randomBoxId, int position, WaitEstimate waitEstimate, long totalWaitingCount) {
+        return QueueResponse.builder()
+                .userId(userId)
+                .randomBoxId(randomBoxId)
+                .position(position)
+                .estimatedWaitTimeSeconds(waitEstimate.getSeconds())
+                .estimatedWaitTimeLowSeconds(waitEstimate.getLowSeconds())
+                .estimatedWaitTimeHighSeconds(waitEstimate.getHighSeconds())
                 .totalWaitingCount(totalWaitingCount)
                 .build();
     }
@@ -25,13 +25,19 @@ public class RandomBoxController {
 
     @PostMapping
     public ResponseEntity<RandomBoxResponse> createRandomBox(@RequestBody RandomBoxCreateRequest request) {
+        // 추첨 방식을 지정하지 않으면 확률 방식
+        RandomBox.DrawMode drawMode = request.getDrawMode() != null
+                ? RandomBox.DrawMode.valueOf(request.getDrawMode().toUpperCase())
+                : RandomBox.DrawMode.PROBABILITY;
+        
         RandomBox randomBox = randomBoxService.createRandomBox(
                 request.getName(),
                 request.getDescription(),
                 request.getPrice(),
                 request.getQuantity(),
                 request.getSalesStartTime(),
-                request.getSalesEndTime()
+                request.getSalesEndTime(),
+                drawMode
         );
         RandomBoxResponse response = RandomBoxResponse.from(randomBox);
         
@@ -91,7 +97,8 @@ public class RandomBoxController {
                 request.getName(),
                 description,
                 rarity,
-                probability
+                probability,
+                request.getStock()
         );
         
         RandomBox randomBox = randomBoxService.getRandomBox(randomBoxId);
@@ -18,4 +18,5 @@ public class RandomBoxCreateRequest {
     private Integer quantity;
     private LocalDateTime salesStartTime;
     private LocalDateTime salesEndTime;
+    private String drawMode;
 }
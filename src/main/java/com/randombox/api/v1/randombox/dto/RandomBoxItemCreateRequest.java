@@ -13,4 +13,5 @@ public class RandomBoxItemCreateRequest {
     private String name;
     private String rarity;
     private Double probability;
+    private Integer stock;
 }
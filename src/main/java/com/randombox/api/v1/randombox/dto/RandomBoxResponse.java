@@ -29,6 +29,7 @@ public class RandomBoxResponse {
     private Integer remainingQuantity;
     private LocalDateTime salesStartTime;
     private LocalDateTime salesEndTime;
+    private String drawMode;
     private List<RandomBoxItemResponse> items;
 
     public static RandomBoxResponse from(RandomBox randomBox) {
@@ -41,6 +42,7 @@ public class RandomBoxResponse {
                 .remainingQuantity(randomBox.getQuantity()) // 남은 수량은 그냥 quantity로 설정
                 .salesStartTime(randomBox.getSalesStartTime())
                 .salesEndTime(randomBox.getSalesEndTime())
+                .drawMode(randomBox.getDrawMode().name())
                 .items(Collections.emptyList()) // 컨트롤러에서 설정해야 함
                 .build();
     }
@@ -54,6 +56,7 @@ public class RandomBoxResponse {
         private String name;
         private String rarity;
         private Double probability;
+        private Integer stock;
 
         public static RandomBoxItemResponse from(RandomBoxItem item) {
             return RandomBoxItemResponse.builder()
@@ -61,6 +64,7 @@ public class RandomBoxResponse {
                     .name(item.getName())
                     .rarity(item.getRarity().name()) // Rarity 열거형을 문자열로 변환
                     .probability(item.getProbability().doubleValue()) // BigDecimal을 Double로 변환
+                    .stock(item.getStock())
                     .build();
         }
     }
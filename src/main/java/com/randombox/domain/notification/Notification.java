@@ -4,11 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 
 @Getter
 @Builder
+@Jacksonized // Redis에 JSON으로 저장한 알림을 빌더로 복원
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
@@ -1,13 +1,20 @@
 package com.randombox.domain.notification;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -16,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 public class NotificationService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
     private static final String NOTIFICATION_KEY_PREFIX = "randombox:notification:";
     private static final String NOTIFICATION_COUNT_KEY_PREFIX = "randombox:notification-count:";
     private static final int NOTIFICATION_EXPIRY_DAYS = 30;
@@ -52,29 +60,62 @@ public class NotificationService {
      * @return 알림 ID
      */
     private Long generateNotificationId(Long userId) {
-        String countKey = NOTIFICATION_COUNT_KEY_PREFIX + userId;
-        Long id = redisTemplate.opsForValue().increment(countKey);
-        
-        if (id == 1) {
-            redisTemplate.expire(countKey, NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
-        }
-        
-        return id;
+        // 만료 시간은 saveNotification에서 함께 갱신
+        return redisTemplate.opsForValue().increment(NOTIFICATION_COUNT_KEY_PREFIX + userId);
     }
     
     /**
-     * 알림 저장
+     * 알림 저장 (알림 본문, 목록 추가, 만료 시간 갱신을 한 번의 파이프라인으로 처리)
+     * 값 직렬화기가 문자열 전용이므로 알림은 JSON, 알림 ID는 문자열로 변환해 저장한다.
      * @param notification 알림
      */
     private void saveNotification(Notification notification) {
         String key = NOTIFICATION_KEY_PREFIX + notification.getUserId() + ":" + notification.getId();
-        redisTemplate.opsForValue().set(key, notification);
-        redisTemplate.expire(key, NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
-        
-        // 알림 목록에 추가
         String listKey = NOTIFICATION_KEY_PREFIX + notification.getUserId();
-        redisTemplate.opsForList().leftPush(listKey, notification.getId());
-        redisTemplate.expire(listKey, NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
+        String countKey = NOTIFICATION_COUNT_KEY_PREFIX + notification.getUserId();
+        String value = toJson(notification);
+        
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForValue().set(key, value, NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
+                
+                // 알림 목록에 추가
+                ops.opsForList().leftPush(listKey, String.valueOf(notification.getId()));
+                ops.expire(listKey, NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
+                ops.expire(countKey, NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * 저장된 알림 조회
+     * @param key 알림 키
+     * @return 알림, 없으면 null
+     */
+    private Notification findNotification(String key) {
+        Object value = redisTemplate.opsForValue().get(key);
+        if (value == null) {
+            return null;
+        }
+        
+        try {
+            return objectMapper.readValue(value.toString(), Notification.class);
+        } catch (JsonProcessingException e) {
+            log.warn("알림을 읽을 수 없습니다. 키: {}", key, e);
+            return null;
+        }
+    }
+    
+    private String toJson(Notification notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("알림을 저장할 수 없습니다.", e);
+        }
     }
     
     /**
@@ -93,11 +134,10 @@ public class NotificationService {
         List<Notification> notifications = new ArrayList<>();
         
         for (Object id : notificationIds) {
-            String key = NOTIFICATION_KEY_PREFIX + userId + ":" + id;
-            Object obj = redisTemplate.opsForValue().get(key);
+            Notification notification = findNotification(NOTIFICATION_KEY_PREFIX + userId + ":" + id);
             
-            if (obj instanceof Notification) {
-                notifications.add((Notification) obj);
+            if (notification != null) {
+                notifications.add(notification);
             }
         }
         
@@ -112,10 +152,9 @@ public class NotificationService {
      */
     public boolean markAsRead(Long userId, Long notificationId) {
         String key = NOTIFICATION_KEY_PREFIX + userId + ":" + notificationId;
-        Object obj = redisTemplate.opsForValue().get(key);
+        Notification notification = findNotification(key);
         
-        if (obj instanceof Notification) {
-            Notification notification = (Notification) obj;
+        if (notification != null) {
             notification = Notification.builder()
                     .id(notification.getId())
                     .userId(notification.getUserId())
@@ -126,8 +165,7 @@ public class NotificationService {
                     .createdAt(notification.getCreatedAt())
                     .build();
             
-            redisTemplate.opsForValue().set(key, notification);
-            redisTemplate.expire(key, NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
+            redisTemplate.opsForValue().set(key, toJson(notification), NOTIFICATION_EXPIRY_DAYS, TimeUnit.DAYS);
             
             log.info("사용자 {}의 알림 {}이 읽음 처리되었습니다.", userId, notificationId);
             
@@ -173,7 +211,7 @@ public class NotificationService {
         
         if (Boolean.TRUE.equals(deleted)) {
             String listKey = NOTIFICATION_KEY_PREFIX + userId;
-            redisTemplate.opsForList().remove(listKey, 0, notificationId);
+            redisTemplate.opsForList().remove(listKey, 0, String.valueOf(notificationId));
             
             log.info("사용자 {}의 알림 {}이 삭제되었습니다.", userId, notificationId);
             
@@ -197,6 +235,34 @@ public class NotificationService {
         return createNotification(userId, title, message, Notification.NotificationType.PURCHASE_SUCCESS);
     }
     
+    /**
+     * 구매 결과 알림 생성 (구매 한 건에 알림 하나)
+     * 같은 아이템을 여러 개 획득하면 개수로 묶어 표시한다.
+     * @param userId 사용자 ID
+     * @param randomBoxName 랜덤박스 이름
+     * @param itemNames 획득한 아이템 이름 목록
+     * @return 생성된 알림
+     */
+    public Notification sendPurchaseSummaryNotification(Long userId, String randomBoxName, List<String> itemNames) {
+        if (itemNames.size() == 1) {
+            return sendPurchaseSuccessNotification(userId, randomBoxName, itemNames.get(0));
+        }
+        
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String itemName : itemNames) {
+            counts.merge(itemName, 1, Integer::sum);
+        }
+        
+        List<String> items = new ArrayList<>(counts.size());
+        counts.forEach((itemName, count) -> items.add(count > 1 ? String.format("'%s' x%d", itemName, count) : String.format("'%s'", itemName)));
+        
+        String title = "구매 성공";
+        String message = String.format("'%s' 랜덤박스에서 아이템 %d개를 획득했습니다! %s",
+                randomBoxName, itemNames.size(), String.join(", ", items));
+        
+        return createNotification(userId, title, message, Notification.NotificationType.PURCHASE_SUCCESS);
+    }
+    
     /**
      * 대기열 준비 완료 알림 생성
      * @param userId 사용자 ID
@@ -0,0 +1,199 @@
+package com.randombox.domain.purchase;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 구매 요청을 노드 내부 대기열에 넣고 작업 스레드가 묶음 단위로 처리
+ * 요청 스레드는 접수 즉시 반환되며, 클라이언트는 요청 ID로 처리 결과를 조회한다.
+ * 구매 하나가 실패해도 다른 구매에 영향이 없도록 구매마다 별도 트랜잭션으로 처리하고,
+ * 처리 상태는 구매가 끝나는 즉시 저장해 묶음 중간에 노드가 멈춰도 끝난 구매의 결과는 남는다.
+ * 대기열은 노드 메모리에만 있으므로 정상 종료 시에는 남은 요청을 실패로 기록하지만,
+ * 비정상 종료 시에는 최대 queue-capacity건의 요청이 대기 상태로 남았다가 ticket-ttl-seconds 뒤에 만료된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncPurchaseService {
+
+    private final PurchaseService purchaseService;
+    private final PurchaseTicketStore purchaseTicketStore;
+
+    /**
+     * 구매 처리 작업 스레드 수
+     */
+    @Value("${randombox.purchase.async.worker-count:4}")
+    private int workerCount = 4;
+
+    /**
+     * 작업 스레드가 한 번에 꺼내 처리하는 최대 요청 수
+     */
+    @Value("${randombox.purchase.async.batch-size:20}")
+    private int batchSize = 20;
+
+    /**
+     * 처리 대기 중인 요청 최대 수 (넘으면 접수 거절)
+     */
+    @Value("${randombox.purchase.async.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    private BlockingQueue<PurchaseCommand> commands;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        commands = new LinkedBlockingQueue<>(queueCapacity);
+        AtomicInteger sequence = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount,
+                runnable -> new Thread(runnable, "purchase-worker-" + sequence.incrementAndGet()));
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    /**
+     * 종료 시 처리 중인 묶음은 마치고, 남은 요청은 실패로 기록
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        
+        List<PurchaseCommand> remaining = new ArrayList<>();
+        commands.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            List<PurchaseTicket> tickets = new ArrayList<>(remaining.size());
+            for (PurchaseCommand command : remaining) {
+                tickets.add(pendingTicket(command).fail("서버 점검으로 구매가 처리되지 않았습니다. 다시 시도해 주세요."));
+            }
+            purchaseTicketStore.saveAll(tickets);
+            log.warn("종료로 처리하지 못한 구매 요청 {}건을 실패로 기록했습니다.", remaining.size());
+        }
+    }
+
+    /**
+     * 구매 요청 접수
+     * @param userId 사용자 ID
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 구매 수량
+     * @param userCouponId 사용자 쿠폰 ID
+     * @return 접수된 요청 상태
+     */
+    public PurchaseTicket submit(Long userId, Long randomBoxId, int quantity, Long userCouponId) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("구매 수량은 1개 이상이어야 합니다.");
+        }
+        
+        PurchaseCommand command = PurchaseCommand.builder()
+                .ticketId(UUID.randomUUID().toString())
+                .userId(userId)
+                .randomBoxId(randomBoxId)
+                .quantity(quantity)
+                .userCouponId(userCouponId)
+                .build();
+        
+        // 작업 스레드가 결과를 쓰기 전에 대기 상태가 먼저 저장되도록 대기열에 넣기 전에 저장
+        PurchaseTicket ticket = pendingTicket(command);
+        purchaseTicketStore.save(ticket);
+        
+        if (!running || !commands.offer(command)) {
+            purchaseTicketStore.delete(command.getTicketId());
+            throw new IllegalStateException("구매 요청이 많아 접수할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        
+        return ticket;
+    }
+
+    /**
+     * 구매 요청 상태 조회
+     * @param ticketId 요청 ID
+     * @return 요청 상태, 없거나 만료되었으면 null
+     */
+    public PurchaseTicket getTicket(String ticketId) {
+        return purchaseTicketStore.find(ticketId);
+    }
+
+    private void runWorker() {
+        List<PurchaseCommand> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PurchaseCommand first = commands.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                
+                batch.add(first);
+                commands.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("구매 요청 묶음 처리에 실패했습니다.", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 구매 요청 묶음 처리 (구매마다 결과를 바로 저장)
+     * @param batch 구매 요청 목록
+     */
+    void process(List<PurchaseCommand> batch) {
+        for (PurchaseCommand command : batch) {
+            PurchaseTicket ticket = purchase(command);
+            try {
+                purchaseTicketStore.save(ticket);
+            } catch (RuntimeException e) {
+                // 구매는 이미 끝났으므로 나머지 요청은 계속 처리 (이 요청은 대기 상태로 남았다가 만료됨)
+                log.error("구매 요청 {} 처리 결과 저장에 실패했습니다. 상태: {}", command.getTicketId(), ticket.getStatus(), e);
+            }
+        }
+    }
+
+    private PurchaseTicket purchase(PurchaseCommand command) {
+        PurchaseTicket ticket = pendingTicket(command);
+        try {
+            Purchase purchase = purchaseService.purchaseRandomBox(
+                    command.getUserId(),
+                    command.getRandomBoxId(),
+                    command.getQuantity(),
+                    command.getUserCouponId());
+            return ticket.complete(purchase.getId());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ticket.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("구매 요청 {} 처리 중 오류가 발생했습니다.", command.getTicketId(), e);
+            return ticket.fail("구매 처리 중 오류가 발생했습니다.");
+        }
+    }
+
+    private static PurchaseTicket pendingTicket(PurchaseCommand command) {
+        return PurchaseTicket.builder()
+                .ticketId(command.getTicketId())
+                .userId(command.getUserId())
+                .randomBoxId(command.getRandomBoxId())
+                .status(PurchaseTicket.Status.PENDING)
+                .build();
+    }
+}
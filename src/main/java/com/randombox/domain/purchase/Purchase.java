@@ -11,7 +11,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "purchases")
+@Table(name = "purchases", indexes = {
+        // 구매 내역 커서 페이지 조회용 (사용자별, 기간별)
+        @Index(name = "idx_purchases_user_date_time_id", columnList = "user_id, purchaseDateTime, id"),
+        @Index(name = "idx_purchases_date_time_id", columnList = "purchaseDateTime, id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Purchase {
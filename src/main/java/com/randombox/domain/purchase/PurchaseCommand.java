@@ -0,0 +1,17 @@
+package com.randombox.domain.purchase;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 비동기로 처리할 구매 요청
+ */
+@Getter
+@Builder
+public class PurchaseCommand {
+    private final String ticketId;
+    private final Long userId;
+    private final Long randomBoxId;
+    private final int quantity;
+    private final Long userCouponId;
+}
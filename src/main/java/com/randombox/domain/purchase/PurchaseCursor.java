@@ -0,0 +1,63 @@
+package com.randombox.domain.purchase;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 구매 내역 페이지 커서
+ * 마지막으로 받은 구매의 (구매 시각, ID)를 담고, 다음 페이지는 이보다 앞선 구매부터 조회한다.
+ * 클라이언트에는 "{구매 시각},{ID}"를 URL-safe Base64로 인코딩한 문자열로 전달한다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PurchaseCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final char SEPARATOR = ',';
+
+    private final LocalDateTime purchaseDateTime;
+    private final Long id;
+
+    /**
+     * 구매 이후부터 조회하는 커서
+     * @param purchase 페이지의 마지막 구매
+     * @return 커서
+     */
+    public static PurchaseCursor after(Purchase purchase) {
+        return new PurchaseCursor(purchase.getPurchaseDateTime(), purchase.getId());
+    }
+
+    /**
+     * 인코딩된 커서 해석
+     * @param value 인코딩된 커서
+     * @return 커서
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+     */
+    public static PurchaseCursor decode(String value) {
+        try {
+            String decoded = new String(DECODER.decode(value), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("유효하지 않은 커서입니다.");
+            }
+            
+            return new PurchaseCursor(
+                    LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.valueOf(decoded.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException e) {
+            // NumberFormatException은 IllegalArgumentException이므로 그대로 전달
+            throw new IllegalArgumentException("유효하지 않은 커서입니다.", e);
+        }
+    }
+
+    public String encode() {
+        return ENCODER.encodeToString((purchaseDateTime.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,125 @@
+package com.randombox.domain.purchase;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * 멱등 키로 기록한 구매 요청 처리 상태
+ * Redis에는 "PENDING:{처리 권한 토큰}:{요청 지문}", "PURCHASE:{요청 지문}:{구매 ID}", "TICKET:{요청 지문}:{요청 ID}" 형태의 짧은 문자열로 저장한다.
+ * 요청 지문은 같은 키로 다른 내용의 요청을 보냈는지 확인하는 데 사용한다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PurchaseIdempotencyRecord {
+
+    private static final String PENDING_VALUE = "PENDING";
+    private static final String PENDING_PREFIX = "PENDING:";
+    private static final String PURCHASE_PREFIX = "PURCHASE:";
+    private static final String TICKET_PREFIX = "TICKET:";
+    private static final char SEPARATOR = ':';
+
+    /** 첫 요청이 처리 중 */
+    public static final PurchaseIdempotencyRecord PENDING = new PurchaseIdempotencyRecord(null, null, null, null);
+
+    private final Long purchaseId;
+    private final String ticketId;
+    /** 처리 권한 토큰 (이 요청이 처리 권한을 얻었을 때만 있음) */
+    private final String owner;
+    /** 처음 요청의 지문 (지문 없이 기록된 상태면 null) */
+    private final String fingerprint;
+
+    /**
+     * 동기 구매 완료
+     * @param purchaseId 구매 ID
+     * @return 처리 상태
+     */
+    public static PurchaseIdempotencyRecord purchase(Long purchaseId) {
+        return new PurchaseIdempotencyRecord(purchaseId, null, null, null);
+    }
+
+    /**
+     * 비동기 구매 접수 완료
+     * @param ticketId 요청 ID
+     * @return 처리 상태
+     */
+    public static PurchaseIdempotencyRecord ticket(String ticketId) {
+        return new PurchaseIdempotencyRecord(null, ticketId, null, null);
+    }
+
+    /**
+     * 처리 권한을 얻은 처리 중 상태
+     * @param owner 처리 권한 토큰
+     * @param fingerprint 요청 지문
+     * @return 처리 상태
+     */
+    static PurchaseIdempotencyRecord acquired(String owner, String fingerprint) {
+        return new PurchaseIdempotencyRecord(null, null, owner, fingerprint);
+    }
+
+    /**
+     * 요청 지문을 붙인 처리 상태
+     * @param fingerprint 요청 지문
+     * @return 처리 상태
+     */
+    PurchaseIdempotencyRecord withFingerprint(String fingerprint) {
+        return new PurchaseIdempotencyRecord(purchaseId, ticketId, owner, fingerprint);
+    }
+
+    public boolean isPending() {
+        return purchaseId == null && ticketId == null;
+    }
+
+    /**
+     * 이 요청이 처리 권한을 얻었는지 (다른 요청이 처리 중인 기록을 조회한 경우에는 false)
+     */
+    public boolean isAcquired() {
+        return owner != null;
+    }
+
+    /**
+     * 처음 요청과 같은 내용의 요청인지 (지문 없이 기록된 상태는 비교할 수 없으므로 같은 요청으로 취급)
+     * @param fingerprint 요청 지문
+     * @return 같은 내용이면 true
+     */
+    public boolean matches(String fingerprint) {
+        return this.fingerprint == null || Objects.equals(this.fingerprint, fingerprint);
+    }
+
+    String toValue() {
+        if (purchaseId != null) {
+            return PURCHASE_PREFIX + withSeparator(fingerprint) + purchaseId;
+        }
+        if (ticketId != null) {
+            return TICKET_PREFIX + withSeparator(fingerprint) + ticketId;
+        }
+        return owner != null ? PENDING_PREFIX + owner + (fingerprint != null ? SEPARATOR + fingerprint : "") : PENDING_VALUE;
+    }
+
+    static PurchaseIdempotencyRecord fromValue(String value) {
+        if (value.startsWith(PURCHASE_PREFIX)) {
+            String rest = value.substring(PURCHASE_PREFIX.length());
+            int index = rest.indexOf(SEPARATOR);
+            return purchase(Long.valueOf(rest.substring(index + 1)))
+                    .withFingerprint(index >= 0 ? rest.substring(0, index) : null);
+        }
+        if (value.startsWith(TICKET_PREFIX)) {
+            String rest = value.substring(TICKET_PREFIX.length());
+            int index = rest.indexOf(SEPARATOR);
+            return ticket(rest.substring(index + 1))
+                    .withFingerprint(index >= 0 ? rest.substring(0, index) : null);
+        }
+        if (value.startsWith(PENDING_PREFIX)) {
+            // 다른 요청의 처리 권한 토큰은 돌려주지 않고 요청 지문만 남김
+            int index = value.indexOf(SEPARATOR, PENDING_PREFIX.length());
+            return index >= 0 ? PENDING.withFingerprint(value.substring(index + 1)) : PENDING;
+        }
+        return PENDING;
+    }
+
+    private static String withSeparator(String fingerprint) {
+        return fingerprint != null ? fingerprint + SEPARATOR : "";
+    }
+}
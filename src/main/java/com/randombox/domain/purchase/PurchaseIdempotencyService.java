@@ -0,0 +1,194 @@
+package com.randombox.domain.purchase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotency-Key 헤더로 같은 구매 요청의 중복 실행을 막는 서비스
+ * 첫 요청만 처리 중(PENDING) 기록을 만들고 구매를 실행하며, 재시도 요청은 기록된 결과를 그대로 돌려받는다.
+ * 키는 사용자별로 구분하므로 다른 사용자가 같은 키를 보내도 결과를 볼 수 없다.
+ * 처리 중 기록에는 요청마다 다른 토큰을 넣어, 기록이 만료된 뒤 다른 요청이 처리 권한을 얻었으면
+ * 먼저 처리하던 요청이 그 기록을 덮어쓰거나 지우지 않게 한다.
+ * 처리 중 기록과 결과에는 요청 지문(랜덤박스 ID, 수량, 쿠폰의 해시)도 함께 남겨 같은 키로 다른 내용을 보낸 요청을 구분한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchaseIdempotencyService {
+
+    private static final String IDEMPOTENCY_KEY_PREFIX = "randombox:purchase:idempotency:";
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final int ACQUIRE_MAX_ATTEMPTS = 3;
+
+    /**
+     * 처리 권한 토큰이 같을 때만 결과 기록
+     * ARGV[1]: 처리 중 기록, ARGV[2]: 처리 결과, ARGV[3]: 보관 시간(초)
+     */
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) " +
+            "return 1",
+            Long.class);
+
+    /**
+     * 처리 권한 토큰이 같을 때만 처리 중 기록 삭제
+     * ARGV[1]: 처리 중 기록
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+            "return redis.call('DEL', KEYS[1])",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 처리 중 기록 유지 시간 (처리하던 노드가 종료되어도 이 시간이 지나면 다시 요청할 수 있음)
+     */
+    @Value("${randombox.purchase.idempotency.pending-ttl-seconds:60}")
+    private long pendingTtlSeconds = 60;
+
+    /**
+     * 처리 결과 보관 시간
+     */
+    @Value("${randombox.purchase.idempotency.ttl-seconds:600}")
+    private long ttlSeconds = 600;
+
+    /**
+     * 재시도 요청이 첫 요청의 결과를 기다리는 최대 시간
+     */
+    @Value("${randombox.purchase.idempotency.wait-ms:3000}")
+    private long waitMillis = 3000;
+
+    /**
+     * 멱등 키 형식 확인
+     * @param idempotencyKey 멱등 키
+     * @return 사용할 수 있으면 true
+     */
+    public boolean isValidKey(String idempotencyKey) {
+        return idempotencyKey != null && !idempotencyKey.isBlank() && idempotencyKey.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * 요청 지문 계산
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 수량
+     * @param userCouponId 사용자 쿠폰 ID
+     * @return 요청 지문 (SHA-256)
+     */
+    public String fingerprint(Long randomBoxId, Integer quantity, Long userCouponId) {
+        String request = randomBoxId + "|" + quantity + "|" + userCouponId;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("요청 지문을 계산할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 처리 권한 확보
+     * @param userId 사용자 ID
+     * @param idempotencyKey 멱등 키
+     * @param fingerprint 요청 지문 ({@link #fingerprint})
+     * @return 처음 받은 요청이면 처리 권한을 얻은 상태({@link PurchaseIdempotencyRecord#isAcquired()}),
+     *         이미 받은 요청이면 기존 처리 상태 (처음 요청과 내용이 같은지는 {@link PurchaseIdempotencyRecord#matches}로 확인)
+     */
+    public PurchaseIdempotencyRecord acquire(Long userId, String idempotencyKey, String fingerprint) {
+        String key = key(userId, idempotencyKey);
+        PurchaseIdempotencyRecord pending = PurchaseIdempotencyRecord.acquired(UUID.randomUUID().toString(), fingerprint);
+        
+        for (int attempt = 0; attempt < ACQUIRE_MAX_ATTEMPTS; attempt++) {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(key, pending.toValue(), pendingTtlSeconds, TimeUnit.SECONDS);
+            if (Boolean.TRUE.equals(acquired)) {
+                return pending;
+            }
+            
+            // 확인하는 사이 첫 요청이 실패해 기록이 지워졌으면 다시 시도
+            PurchaseIdempotencyRecord existing = find(key);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        
+        // 다른 요청들이 계속 처리 권한을 얻고 놓는 중이면 처리 중으로 응답
+        log.warn("사용자 {}의 멱등 키 {} 처리 권한을 {}번 시도했지만 얻지 못했습니다.", userId, idempotencyKey, ACQUIRE_MAX_ATTEMPTS);
+        return PurchaseIdempotencyRecord.PENDING;
+    }
+
+    /**
+     * 첫 요청의 처리가 끝날 때까지 대기
+     * @param userId 사용자 ID
+     * @param idempotencyKey 멱등 키
+     * @return 처리 상태 (대기 시간 안에 끝나지 않았거나 첫 요청이 실패했으면 {@link PurchaseIdempotencyRecord#PENDING})
+     */
+    public PurchaseIdempotencyRecord await(Long userId, String idempotencyKey) {
+        String key = key(userId, idempotencyKey);
+        long deadline = System.currentTimeMillis() + waitMillis;
+        
+        while (true) {
+            PurchaseIdempotencyRecord record = find(key);
+            if (record == null || !record.isPending() || System.currentTimeMillis() >= deadline) {
+                return record != null ? record : PurchaseIdempotencyRecord.PENDING;
+            }
+            
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return PurchaseIdempotencyRecord.PENDING;
+            }
+        }
+    }
+
+    /**
+     * 처리 결과를 처리 중 기록의 요청 지문과 함께 기록 (처리 중 기록이 만료되어 다른 요청이 처리 권한을 얻었으면 기록하지 않음)
+     * @param userId 사용자 ID
+     * @param idempotencyKey 멱등 키
+     * @param pending {@link #acquire}로 얻은 처리 권한
+     * @param record 처리 결과
+     * @return 기록 여부
+     */
+    public boolean complete(Long userId, String idempotencyKey, PurchaseIdempotencyRecord pending, PurchaseIdempotencyRecord record) {
+        Long result = redisTemplate.execute(COMPLETE_SCRIPT, Collections.singletonList(key(userId, idempotencyKey)),
+                pending.toValue(), record.withFingerprint(pending.getFingerprint()).toValue(), String.valueOf(ttlSeconds));
+        if (result == null || result == 0L) {
+            log.warn("사용자 {}의 멱등 키 {} 처리 중 기록이 만료되어 결과를 기록하지 못했습니다.", userId, idempotencyKey);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 처리 중 기록 삭제 (구매가 실행되지 않았거나 실패해 재시도를 허용, 다른 요청의 처리 중 기록은 지우지 않음)
+     * @param userId 사용자 ID
+     * @param idempotencyKey 멱등 키
+     * @param pending {@link #acquire}로 얻은 처리 권한
+     */
+    public void release(Long userId, String idempotencyKey, PurchaseIdempotencyRecord pending) {
+        redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key(userId, idempotencyKey)), pending.toValue());
+    }
+
+    private PurchaseIdempotencyRecord find(String key) {
+        Object value = redisTemplate.opsForValue().get(key);
+        return value != null ? PurchaseIdempotencyRecord.fromValue(value.toString()) : null;
+    }
+
+    private static String key(Long userId, String idempotencyKey) {
+        return IDEMPOTENCY_KEY_PREFIX + userId + ":" + idempotencyKey;
+    }
+}
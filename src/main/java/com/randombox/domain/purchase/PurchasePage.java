@@ -0,0 +1,21 @@
+package com.randombox.domain.purchase;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 커서 기반 구매 내역 페이지
+ */
+@Getter
+@RequiredArgsConstructor
+public class PurchasePage {
+
+    private final List<Purchase> purchases;
+    private final String nextCursor; // 마지막 페이지면 null
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.randombox.domain.purchase;
 
 import com.randombox.domain.user.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,30 @@ public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
     
     List<Purchase> findByUserOrderByPurchaseDateTimeDesc(User user);
     
+    // 구매 내역 응답에 쓰는 랜덤박스를 함께 조회 (구매마다 랜덤박스를 지연 로딩하지 않도록)
+    @Query("SELECT p FROM Purchase p JOIN FETCH p.randomBox WHERE p.user = :user ORDER BY p.purchaseDateTime DESC")
+    List<Purchase> findWithRandomBoxByUser(@Param("user") User user);
+    
+    // 커서 기반 페이지 조회 (pageable로 LIMIT만 지정, 다음 페이지는 (구매 시각, ID) 커서 이후부터)
+    @Query("SELECT p FROM Purchase p JOIN FETCH p.randomBox WHERE p.user = :user ORDER BY p.purchaseDateTime DESC, p.id DESC")
+    List<Purchase> findPageByUser(@Param("user") User user, Pageable pageable);
+    
+    @Query("SELECT p FROM Purchase p JOIN FETCH p.randomBox WHERE p.user = :user " +
+            "AND (p.purchaseDateTime < :cursorDateTime OR (p.purchaseDateTime = :cursorDateTime AND p.id < :cursorId)) " +
+            "ORDER BY p.purchaseDateTime DESC, p.id DESC")
+    List<Purchase> findPageByUserBefore(@Param("user") User user,
+                                        @Param("cursorDateTime") LocalDateTime cursorDateTime,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+    
+    @Query("SELECT p FROM Purchase p JOIN FETCH p.randomBox WHERE p.purchaseDateTime >= :startDate " +
+            "AND (p.purchaseDateTime < :cursorDateTime OR (p.purchaseDateTime = :cursorDateTime AND p.id < :cursorId)) " +
+            "ORDER BY p.purchaseDateTime DESC, p.id DESC")
+    List<Purchase> findPageByPurchaseDateTimeBefore(@Param("startDate") LocalDateTime startDate,
+                                                    @Param("cursorDateTime") LocalDateTime cursorDateTime,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+    
     @Query("SELECT p FROM Purchase p WHERE p.user.id = :userId AND p.status = 'COMPLETED' ORDER BY p.purchaseDateTime DESC")
     List<Purchase> findCompletedPurchasesByUserId(@Param("userId") Long userId);
     
@@ -6,12 +6,18 @@ import org.springframework.data.repository.query.Param;
 
 import com.randombox.domain.randombox.RandomBoxItem;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PurchaseResultRepository extends JpaRepository<PurchaseResult, Long> {
     
     List<PurchaseResult> findByPurchaseId(Long purchaseId);
     
+    // 여러 구매의 결과를 아이템 이름, 등급과 함께 한 번에 조회
+    @Query("SELECT new com.randombox.domain.purchase.PurchaseResultSummary(pr.purchase.id, pr.id, i.name, i.rarity) " +
+            "FROM PurchaseResult pr JOIN pr.randomBoxItem i WHERE pr.purchase.id IN :purchaseIds ORDER BY pr.id")
+    List<PurchaseResultSummary> findSummariesByPurchaseIdIn(@Param("purchaseIds") Collection<Long> purchaseIds);
+    
     @Query("SELECT pr FROM PurchaseResult pr WHERE pr.purchase.user.id = :userId")
     List<PurchaseResult> findByUserId(@Param("userId") Long userId);
     
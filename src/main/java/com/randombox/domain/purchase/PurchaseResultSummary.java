@@ -0,0 +1,17 @@
+package com.randombox.domain.purchase;
+
+import com.randombox.domain.randombox.RandomBoxItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 구매 내역 조회용 구매 결과 (엔티티 대신 필요한 컬럼만 조회)
+ */
+@Getter
+@AllArgsConstructor
+public class PurchaseResultSummary {
+    private Long purchaseId;
+    private Long id;
+    private String itemName;
+    private RandomBoxItem.Rarity rarity;
+}
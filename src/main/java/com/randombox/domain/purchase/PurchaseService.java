@@ -6,6 +6,8 @@ import com.randombox.domain.coupon.UserCouponRepository;
 import com.randombox.domain.notification.Notification;
 import com.randombox.domain.notification.NotificationService;
 import com.randombox.domain.queue.QueueService;
+import com.randombox.domain.queue.WaitEstimate;
+import com.randombox.domain.randombox.ItemDraws;
 import com.randombox.domain.randombox.RandomBox;
 import com.randombox.domain.randombox.RandomBoxInventoryService;
 import com.randombox.domain.randombox.RandomBoxItem;
@@ -13,14 +15,20 @@ import com.randombox.domain.randombox.RandomBoxRepository;
 import com.randombox.domain.randombox.RandomBoxService;
 import com.randombox.domain.user.User;
 import com.randombox.domain.user.UserRepository;
+import com.randombox.global.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -38,13 +46,30 @@ public class PurchaseService {
     private final QueueService queueService;
     private final NotificationService notificationService;
 
+    /**
+     * 구매 처리 중 재고 예약 유지 시간 (이 시간 안에 커밋되지 않으면 재고 자동 복구)
+     */
+    @Value("${randombox.inventory.reservation.ttl-seconds:60}")
+    private long reservationTtlSeconds = 60;
+
+    @Value("${randombox.purchase.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${randombox.purchase.page.max-size:100}")
+    private int maxPageSize = 100;
+
     /**
      * 랜덤박스 구매 전 대기열 확인
      * @param userId 사용자 ID
      * @param randomBoxId 랜덤박스 ID
-     * @return 대기열 위치 (0이면 바로 구매 가능)
+     * @return 대기열 위치 (0이면 입장한 상태로 바로 구매 가능, 아니면 1부터 시작하는 대기 번호)
      */
     public int checkQueuePosition(Long userId, Long randomBoxId) {
+        // 입장한 사용자는 바로 구매 가능
+        if (queueService.isActive(randomBoxId, userId)) {
+            return 0;
+        }
+        
         // 대기열에서 사용자 위치 확인
         int position = queueService.getPosition(randomBoxId, userId);
         
@@ -53,40 +78,37 @@ public class PurchaseService {
             position = queueService.addToQueue(randomBoxId, userId);
         }
         
-        // 첫 번째 위치면 바로 구매 가능
-        if (position == 0) {
-            return 0;
-        }
-        
-        // 대기열 위치 반환
-        return position;
+        // 입장은 QueueAdmissionScheduler가 처리하므로 대기열 맨 앞이어도 대기 번호 1
+        return position + 1;
     }
     
     /**
-     * 랜덤박스 구매 준비 (대기열 첫 번째 사용자에게 알림)
+     * 예상 대기 시간 계산 (측정된 처리 속도 기준)
+     * 대기 번호를 앞에 있는 인원으로 바꿔 대기열 API와 같은 사용자에게 같은 예상 시간을 준다.
      * @param randomBoxId 랜덤박스 ID
-     * @return 구매 가능한 사용자 ID
+     * @param position 대기 번호 ({@link #checkQueuePosition}의 반환값, 입장했으면 0)
+     * @return 예상 대기 시간
      */
-    public Long prepareForPurchase(Long randomBoxId) {
-        // 대기열에서 다음 사용자 가져오기
-        Long userId = queueService.getNextUser(randomBoxId);
-        
-        if (userId != null) {
-            // 랜덤박스 정보 조회
-            RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
-                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
-            
-            // 구매 준비 알림 전송
-            notificationService.sendQueueReadyNotification(userId, randomBox.getName());
-            
-            log.info("사용자 {}에게 랜덤박스 {} 구매 준비 알림을 전송했습니다.", userId, randomBoxId);
-        }
-        
-        return userId;
+    public WaitEstimate estimateWait(Long randomBoxId, int position) {
+        return queueService.estimateWait(randomBoxId, Math.max(position - 1, 0));
     }
-
+    
+    /**
+     * 품절 여부 확인 (노드 로컬 캐시만 조회하므로 DB나 Redis에 접근하지 않음)
+     * @param randomBoxId 랜덤박스 ID
+     * @return 품절 여부
+     */
+    public boolean isSoldOut(Long randomBoxId) {
+        return randomBoxInventoryService.isSoldOut(randomBoxId);
+    }
+    
     @Transactional
     public Purchase purchaseRandomBox(Long userId, Long randomBoxId, int quantity, Long userCouponId) {
+        // 품절된 랜덤박스는 DB 조회 전에 거절
+        if (randomBoxInventoryService.isSoldOut(randomBoxId)) {
+            throw new IllegalStateException("품절된 랜덤박스입니다.");
+        }
+        
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
 
@@ -96,54 +118,55 @@ public class PurchaseService {
         if (!randomBox.isOnSale()) {
             throw new IllegalStateException("현재 판매 중인 랜덤박스가 아닙니다.");
         }
-        
-        // Redis에서 재고 확인 및 감소
-        boolean inventoryDecreased = randomBoxInventoryService.decreaseInventory(randomBoxId, quantity);
-        if (!inventoryDecreased) {
-            throw new IllegalStateException("재고가 부족하거나 재고 감소에 실패했습니다.");
-        }
 
         int totalPrice = randomBox.getPrice() * quantity;
         
-        // 쿠폰 적용
+        // 쿠폰 검증 (재고를 잡기 전에 처리해 재고 점유 시간을 줄임)
+        UserCoupon userCoupon = null;
         if (userCouponId != null) {
-            UserCoupon userCoupon = userCouponRepository.findById(userCouponId)
+            userCoupon = userCouponRepository.findById(userCouponId)
                     .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 쿠폰입니다."));
             
             if (userCoupon.isUsed()) {
-                // 재고 복구
-                randomBoxInventoryService.increaseInventory(randomBoxId, quantity);
                 throw new IllegalStateException("이미 사용된 쿠폰입니다.");
             }
             
             if (!userCoupon.getUser().getId().equals(userId)) {
-                // 재고 복구
-                randomBoxInventoryService.increaseInventory(randomBoxId, quantity);
                 throw new IllegalArgumentException("해당 쿠폰을 사용할 권한이 없습니다.");
             }
             
             Coupon coupon = userCoupon.getCoupon();
             if (!coupon.isValid()) {
-                // 재고 복구
-                randomBoxInventoryService.increaseInventory(randomBoxId, quantity);
                 throw new IllegalStateException("유효하지 않은 쿠폰입니다.");
             }
             
             if (coupon.getMinPurchase() != null && totalPrice < coupon.getMinPurchase()) {
-                // 재고 복구
-                randomBoxInventoryService.increaseInventory(randomBoxId, quantity);
                 throw new IllegalStateException("최소 구매 금액을 만족하지 않습니다.");
             }
             
             int discountAmount = coupon.calculateDiscount(totalPrice);
             totalPrice -= discountAmount;
-            
+        }
+        
+        // Redis 재고 예약 (DB 재고는 InventoryWriteBehindFlusher가 주기적으로 반영)
+        String reservation = randomBoxInventoryService.reserve(randomBoxId, quantity, Duration.ofSeconds(reservationTtlSeconds));
+        if (reservation == null) {
+            throw new IllegalStateException("재고가 부족하거나 재고 감소에 실패했습니다.");
+        }
+        
+        // 커밋되면 예약 확정 후 입장 자리 반납, 롤백되면 즉시 재고 복구 (프로세스가 종료되면 예약 만료 시 복구)
+        TransactionUtils.afterCompletion(
+                () -> {
+                    randomBoxInventoryService.commit(reservation);
+                    queueService.deactivate(randomBoxId, userId);
+                },
+                () -> randomBoxInventoryService.release(reservation)
+        );
+        
+        if (userCoupon != null) {
             userCoupon.use();
         }
 
-        // 데이터베이스 재고 감소 (Redis와 동기화 용도)
-        randomBox.decreaseQuantity(quantity);
-
         Purchase purchase = Purchase.builder()
                 .user(user)
                 .randomBox(randomBox)
@@ -153,19 +176,31 @@ public class PurchaseService {
 
         Purchase savedPurchase = purchaseRepository.save(purchase);
         
-        // 랜덤 아이템 추첨 및 결과 저장
-        List<PurchaseResult> results = new ArrayList<>();
-        for (int i = 0; i < quantity; i++) {
-            RandomBoxItem randomItem = randomBoxService.drawRandomItem(randomBoxId);
-            PurchaseResult result = PurchaseResult.builder()
+        // 랜덤 아이템 추첨 (구매 수량만큼 한 번에) 및 결과 저장
+        ItemDraws draws = randomBoxService.drawMany(randomBoxId, quantity);
+        TransactionUtils.afterRollback(() -> randomBoxService.cancelDraws(randomBoxId, draws));
+        List<PurchaseResult> results = new ArrayList<>(draws.size());
+        List<String> itemNames = new ArrayList<>(draws.size());
+        for (int i = 0; i < draws.size(); i++) {
+            RandomBoxItem randomItem = draws.getItem(i);
+            results.add(PurchaseResult.builder()
                     .purchase(savedPurchase)
                     .randomBoxItem(randomItem)
-                    .build();
-            results.add(purchaseResultRepository.save(result));
-            
-            // 구매 성공 알림 전송
-            notificationService.sendPurchaseSuccessNotification(userId, randomBox.getName(), randomItem.getName());
+                    .build());
+            itemNames.add(randomItem.getName());
         }
+        // 한 번에 저장해 커밋 시 JDBC 배치 INSERT로 실행
+        purchaseResultRepository.saveAll(results);
+        
+        // 구매 성공 알림은 커밋된 뒤 구매 한 건당 하나만 전송 (알림 실패가 구매 결과에 영향을 주지 않도록 함)
+        String randomBoxName = randomBox.getName();
+        TransactionUtils.afterCommit(() -> {
+            try {
+                notificationService.sendPurchaseSummaryNotification(userId, randomBoxName, itemNames);
+            } catch (RuntimeException e) {
+                log.error("사용자 {}의 랜덤박스 {} 구매 알림 전송에 실패했습니다.", userId, randomBoxId, e);
+            }
+        });
         
         log.info("사용자 {}가 랜덤박스 {}를 {}개 구매했습니다. 총 가격: {}", userId, randomBoxId, quantity, totalPrice);
 
@@ -181,7 +216,105 @@ public class PurchaseService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
         
-        return purchaseRepository.findByUserOrderByPurchaseDateTimeDesc(user);
+        return purchaseRepository.findWithRandomBoxByUser(user);
+    }
+
+    /**
+     * 사용자 구매 내역 페이지 조회 (최신순)
+     * @param userId 사용자 ID
+     * @param cursor 이전 페이지의 다음 커서 (첫 페이지면 null)
+     * @param size 페이지 크기 (null이면 기본값, 최대값을 넘으면 최대값)
+     * @return 구매 내역 페이지
+     */
+    public PurchasePage getUserPurchasePage(Long userId, String cursor, Integer size) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
+        
+        int limit = pageSize(size);
+        // 다음 페이지 존재 여부를 알기 위해 하나 더 조회
+        PageRequest pageable = PageRequest.of(0, limit + 1);
+        
+        List<Purchase> purchases;
+        if (cursor == null) {
+            purchases = purchaseRepository.findPageByUser(user, pageable);
+        } else {
+            PurchaseCursor after = PurchaseCursor.decode(cursor);
+            purchases = purchaseRepository.findPageByUserBefore(user, after.getPurchaseDateTime(), after.getId(), pageable);
+        }
+        return toPage(purchases, limit);
+    }
+
+    /**
+     * 기간별 구매 내역 페이지 조회 (최신순, 시작/종료 시각 포함)
+     * @param startDate 시작 시각
+     * @param endDate 종료 시각
+     * @param cursor 이전 페이지의 다음 커서 (첫 페이지면 null)
+     * @param size 페이지 크기 (null이면 기본값, 최대값을 넘으면 최대값)
+     * @return 구매 내역 페이지
+     */
+    public PurchasePage getPurchasePage(LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer size) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("시작 시각이 종료 시각보다 늦습니다.");
+        }
+        
+        int limit = pageSize(size);
+        PageRequest pageable = PageRequest.of(0, limit + 1);
+        
+        // 첫 페이지는 종료 시각과 같은 구매까지 포함하도록 (종료 시각, 최대 ID)를 커서로 사용
+        LocalDateTime cursorDateTime = endDate;
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null) {
+            PurchaseCursor after = PurchaseCursor.decode(cursor);
+            if (!after.getPurchaseDateTime().isAfter(endDate)) {
+                cursorDateTime = after.getPurchaseDateTime();
+                cursorId = after.getId();
+            }
+        }
+        
+        List<Purchase> purchases = purchaseRepository.findPageByPurchaseDateTimeBefore(startDate, cursorDateTime, cursorId, pageable);
+        return toPage(purchases, limit);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("페이지 크기는 1 이상이어야 합니다.");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private PurchasePage toPage(List<Purchase> purchases, int limit) {
+        if (purchases.size() <= limit) {
+            return new PurchasePage(purchases, null);
+        }
+        
+        List<Purchase> page = purchases.subList(0, limit);
+        return new PurchasePage(page, PurchaseCursor.after(page.get(limit - 1)).encode());
+    }
+
+    /**
+     * 여러 구매의 결과를 한 번의 쿼리로 조회해 구매별로 묶음
+     * @param purchases 구매 목록
+     * @return 구매 ID별 구매 결과 (결과가 없는 구매는 빈 목록)
+     */
+    public Map<Long, List<PurchaseResultSummary>> getPurchaseResultSummaries(List<Purchase> purchases) {
+        Map<Long, List<PurchaseResultSummary>> resultsByPurchaseId = new HashMap<>();
+        if (purchases.isEmpty()) {
+            return resultsByPurchaseId;
+        }
+        
+        List<Long> purchaseIds = new ArrayList<>(purchases.size());
+        for (Purchase purchase : purchases) {
+            purchaseIds.add(purchase.getId());
+            resultsByPurchaseId.put(purchase.getId(), new ArrayList<>());
+        }
+        
+        for (PurchaseResultSummary result : purchaseResultRepository.findSummariesByPurchaseIdIn(purchaseIds)) {
+            resultsByPurchaseId.get(result.getPurchaseId()).add(result);
+        }
+        return resultsByPurchaseId;
     }
 
     public List<PurchaseResult> getPurchaseResults(Long purchaseId) {
@@ -208,22 +341,21 @@ public class PurchaseService {
 
         purchase.cancel();
         
-        // 랜덤박스 수량 복구 (Redis와 DB 모두 업데이트)
-        RandomBox randomBox = purchase.getRandomBox();
-        randomBoxInventoryService.increaseInventory(randomBox.getId(), purchase.getQuantity());
-        
-        // DB 재고 복구 (Redis와 동기화 용도)
-        randomBox.update(
-                randomBox.getName(),
-                randomBox.getDescription(),
-                randomBox.getPrice(),
-                randomBox.getQuantity() + purchase.getQuantity(),
-                randomBox.getSalesStartTime(),
-                randomBox.getSalesEndTime()
-        );
+        List<Long> itemIds = new ArrayList<>();
+        for (PurchaseResult result : purchaseResultRepository.findByPurchaseId(purchaseId)) {
+            itemIds.add(result.getRandomBoxItem().getId());
+        }
         
-        log.info("사용자 {}의 구매 {}가 취소되었습니다. 랜덤박스 {}의 재고가 {}개 복구되었습니다.", 
-                userId, purchaseId, randomBox.getId(), purchase.getQuantity());
+        // 취소가 커밋된 뒤에만 랜덤박스 수량 복구 (롤백되면 Redis 재고가 늘어난 채로 남아 초과 판매됨)
+        // 경품 풀 방식이면 뽑혔던 아이템도 함께 경품 풀에 되돌림 (DB는 InventoryWriteBehindFlusher가 Redis 기준으로 반영)
+        Long randomBoxId = purchase.getRandomBox().getId();
+        int quantity = purchase.getQuantity();
+        TransactionUtils.afterCommit(() -> {
+            randomBoxInventoryService.increaseInventory(randomBoxId, quantity);
+            randomBoxService.restoreItems(randomBoxId, itemIds);
+            log.info("사용자 {}의 구매 {}가 취소되었습니다. 랜덤박스 {}의 재고가 {}개 복구되었습니다.",
+                    userId, purchaseId, randomBoxId, quantity);
+        });
 
         return purchase;
     }
@@ -0,0 +1,43 @@
+package com.randombox.domain.purchase;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 비동기 구매 요청의 처리 상태
+ */
+@Getter
+@Builder(toBuilder = true)
+public class PurchaseTicket {
+
+    public enum Status {
+        PENDING,    // 처리 대기 중
+        COMPLETED,  // 구매 완료
+        FAILED      // 구매 실패
+    }
+
+    private final String ticketId;
+    private final Long userId;
+    private final Long randomBoxId;
+    private final Status status;
+    private final Long purchaseId;
+    private final String message;
+
+    public PurchaseTicket complete(Long purchaseId) {
+        return toBuilder()
+                .status(Status.COMPLETED)
+                .purchaseId(purchaseId)
+                .build();
+    }
+
+    public PurchaseTicket fail(String message) {
+        return toBuilder()
+                .status(Status.FAILED)
+                .message(message)
+                .build();
+    }
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+}
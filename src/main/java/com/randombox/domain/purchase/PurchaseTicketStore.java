@@ -0,0 +1,110 @@
+package com.randombox.domain.purchase;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 구매 요청 상태를 Redis 해시에 저장
+ * 요청을 받은 노드와 다른 노드에서도 결과를 조회할 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PurchaseTicketStore {
+
+    private static final String TICKET_KEY_PREFIX = "randombox:purchase:ticket:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 처리 결과 보관 시간 (이 시간이 지나면 조회할 수 없음)
+     */
+    @Value("${randombox.purchase.async.ticket-ttl-seconds:600}")
+    private long ticketTtlSeconds = 600;
+
+    /**
+     * 요청 상태 저장
+     * @param ticket 요청 상태
+     */
+    public void save(PurchaseTicket ticket) {
+        String key = TICKET_KEY_PREFIX + ticket.getTicketId();
+        redisTemplate.opsForHash().putAll(key, toHash(ticket));
+        redisTemplate.expire(key, ticketTtlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 여러 요청 상태를 한 번의 파이프라인으로 저장
+     * @param tickets 요청 상태 목록
+     */
+    public void saveAll(Collection<PurchaseTicket> tickets) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (PurchaseTicket ticket : tickets) {
+                    String key = TICKET_KEY_PREFIX + ticket.getTicketId();
+                    ops.opsForHash().putAll(key, toHash(ticket));
+                    ops.expire(key, ticketTtlSeconds, TimeUnit.SECONDS);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 요청 상태 조회
+     * @param ticketId 요청 ID
+     * @return 요청 상태, 없거나 만료되었으면 null
+     */
+    public PurchaseTicket find(String ticketId) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(TICKET_KEY_PREFIX + ticketId);
+        if (hash.isEmpty()) {
+            return null;
+        }
+        
+        return PurchaseTicket.builder()
+                .ticketId(ticketId)
+                .userId(toLong(hash.get("userId")))
+                .randomBoxId(toLong(hash.get("randomBoxId")))
+                .status(PurchaseTicket.Status.valueOf(hash.get("status").toString()))
+                .purchaseId(toLong(hash.get("purchaseId")))
+                .message(hash.get("message") != null ? hash.get("message").toString() : null)
+                .build();
+    }
+
+    /**
+     * 요청 상태 삭제
+     * @param ticketId 요청 ID
+     */
+    public void delete(String ticketId) {
+        redisTemplate.delete(TICKET_KEY_PREFIX + ticketId);
+    }
+
+    private static Map<String, String> toHash(PurchaseTicket ticket) {
+        Map<String, String> hash = new LinkedHashMap<>();
+        hash.put("userId", String.valueOf(ticket.getUserId()));
+        hash.put("randomBoxId", String.valueOf(ticket.getRandomBoxId()));
+        hash.put("status", ticket.getStatus().name());
+        if (ticket.getPurchaseId() != null) {
+            hash.put("purchaseId", String.valueOf(ticket.getPurchaseId()));
+        }
+        if (ticket.getMessage() != null) {
+            hash.put("message", ticket.getMessage());
+        }
+        return hash;
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
+}
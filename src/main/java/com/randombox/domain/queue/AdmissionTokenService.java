@@ -0,0 +1,209 @@
+package com.randombox.domain.queue;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 입장한 사용자에게 발급하는 서명된 입장 토큰 서비스
+ * 토큰에 사용자 ID, 랜덤박스 ID, 만료 시각을 담고 HMAC으로 서명하므로 검증은 Redis 조회 없이 노드 안에서 끝난다.
+ * 입장 한 번에 토큰은 하나만 발급하도록 (사용자, 랜덤박스)별로 발급한 토큰을 만료 시각까지 Redis에 보관하고,
+ * 사용 시 보관된 토큰과 같은지 확인하므로 입장이 해제되어 토큰이 회수되면 더 이상 쓸 수 없다.
+ * 같은 토큰을 두 번 쓰지 못하도록 사용한 토큰의 nonce도 만료 시각까지 Redis에 기록한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdmissionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String ISSUED_KEY_PREFIX = "randombox:queue:admission-token:";
+    private static final String USED_KEY_PREFIX = "randombox:queue:token-used:";
+    private static final int ISSUE_MAX_ATTEMPTS = 3;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 발급한 토큰이 회수되지 않았을 때만 사용 처리
+     * KEYS[1]: 발급한 토큰 키, KEYS[2]: 사용한 nonce 키, ARGV[1]: 토큰, ARGV[2]: 남은 유효 시간(밀리초)
+     */
+    private static final RedisScript<Long> CONSUME_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+            "if redis.call('SET', KEYS[2], '1', 'PX', ARGV[2], 'NX') then return 1 end " +
+            "return 0",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Environment environment;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * 서명 키 (여러 노드가 같은 값을 사용해야 함, local/test 프로필에서만 비워 둘 수 있으며 그때는 노드마다 임의로 생성)
+     */
+    @Value("${randombox.queue.admission.token-secret:}")
+    private String tokenSecret = "";
+
+    @Value("${randombox.queue.admission.token-ttl-seconds:300}")
+    private long tokenTtlSeconds = 300;
+
+    private SecretKeySpec secretKey;
+
+    // Mac은 스레드 안전하지 않으므로 스레드마다 하나씩 사용
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::createMac);
+
+    @PostConstruct
+    public void init() {
+        byte[] secret;
+        if (tokenSecret == null || tokenSecret.isBlank()) {
+            // 노드마다 키가 다르면 다른 노드에서 발급한 토큰이 모두 거절되므로 운영에서는 시작하지 않음
+            if (!environment.acceptsProfiles(Profiles.of("local", "test"))) {
+                throw new IllegalStateException("입장 토큰 서명 키(randombox.queue.admission.token-secret)가 설정되지 않았습니다.");
+            }
+            secret = new byte[32];
+            secureRandom.nextBytes(secret);
+            log.warn("입장 토큰 서명 키가 설정되지 않아 임의로 생성했습니다. 단일 노드 개발 환경에서만 사용하세요.");
+        } else {
+            secret = tokenSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        secretKey = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    /**
+     * 입장 토큰 발급 (입장 한 번에 하나만 발급)
+     * 이미 발급한 토큰이 있으면 새로 만들지 않고 그 토큰을 반환한다.
+     * @param userId 사용자 ID
+     * @param randomBoxId 랜덤박스 ID
+     * @return 입장 토큰 (사용자ID.랜덤박스ID.만료시각.nonce.서명)
+     */
+    public String issue(Long userId, Long randomBoxId) {
+        String key = issuedKey(userId, randomBoxId);
+        for (int attempt = 0; attempt < ISSUE_MAX_ATTEMPTS; attempt++) {
+            String token = createToken(userId, randomBoxId);
+            Boolean issued = redisTemplate.opsForValue()
+                    .setIfAbsent(key, token, tokenTtlSeconds, TimeUnit.SECONDS);
+            if (Boolean.TRUE.equals(issued)) {
+                return token;
+            }
+            
+            // 발급한 토큰이 그 사이 만료되었으면 다시 발급
+            Object existing = redisTemplate.opsForValue().get(key);
+            if (existing != null) {
+                return existing.toString();
+            }
+        }
+        throw new IllegalStateException("입장 토큰을 발급할 수 없습니다.");
+    }
+
+    /**
+     * 발급한 입장 토큰 회수 (입장 해제 시)
+     * 회수한 토큰은 서명이 유효해도 사용할 수 없다.
+     * @param userId 사용자 ID
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void revoke(Long userId, Long randomBoxId) {
+        redisTemplate.delete(issuedKey(userId, randomBoxId));
+    }
+
+    private String createToken(Long userId, Long randomBoxId) {
+        long expireAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(tokenTtlSeconds);
+        byte[] nonce = new byte[12];
+        secureRandom.nextBytes(nonce);
+        
+        String payload = userId + "." + randomBoxId + "." + expireAt + "." + ENCODER.encodeToString(nonce);
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * 입장 토큰 검증 (Redis 조회 없음)
+     * @param token 입장 토큰
+     * @param userId 사용자 ID
+     * @param randomBoxId 랜덤박스 ID
+     * @return 서명이 맞고 만료되지 않았으며 사용자와 랜덤박스가 일치하면 true
+     */
+    public boolean verify(String token, Long userId, Long randomBoxId) {
+        if (token == null) {
+            return false;
+        }
+        
+        int signatureIndex = token.lastIndexOf('.');
+        if (signatureIndex < 0) {
+            return false;
+        }
+        
+        String payload = token.substring(0, signatureIndex);
+        byte[] signature;
+        try {
+            signature = DECODER.decode(token.substring(signatureIndex + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        
+        // 서명 비교는 일치하는 길이와 관계없이 같은 시간이 걸리도록 처리
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return false;
+        }
+        
+        String[] parts = payload.split("\\.");
+        if (parts.length != 4) {
+            return false;
+        }
+        
+        return parts[0].equals(String.valueOf(userId))
+                && parts[1].equals(String.valueOf(randomBoxId))
+                && Long.parseLong(parts[2]) > System.currentTimeMillis();
+    }
+
+    /**
+     * 입장 토큰 사용 처리 (한 번만 성공)
+     * @param token 검증을 마친 입장 토큰
+     * @return 회수되지 않았고 처음 사용하는 토큰이면 true
+     */
+    public boolean consume(String token) {
+        String[] parts = token.split("\\.");
+        long ttlMillis = Long.parseLong(parts[2]) - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        
+        Long consumed = redisTemplate.execute(CONSUME_SCRIPT,
+                Arrays.asList(issuedKey(Long.valueOf(parts[0]), Long.valueOf(parts[1])), USED_KEY_PREFIX + parts[3]),
+                token, String.valueOf(ttlMillis));
+        return consumed != null && consumed == 1L;
+    }
+
+    private String issuedKey(Long userId, Long randomBoxId) {
+        return ISSUED_KEY_PREFIX + randomBoxId + ":" + userId;
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("입장 토큰 서명 키를 초기화할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.randombox.domain.queue;
+
+import com.randombox.domain.notification.NotificationService;
+import com.randombox.domain.randombox.RandomBox;
+import com.randombox.domain.randombox.RandomBoxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 대기열 사용자를 주기적으로 묶어서 입장시키는 스케줄러
+ * 구매를 마친 사용자 수만큼 자리가 비므로, 입장 인원은 구매 처리 속도에 맞춰 자연스럽게 조절된다.
+ * 빈 자리 계산과 입장은 랜덤박스별 락 안에서 처리해, 여러 노드가 같은 빈 자리에 동시에 입장시키지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueueAdmissionScheduler {
+
+    private final QueueService queueService;
+    private final NotificationService notificationService;
+    private final RandomBoxRepository randomBoxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedissonClient redissonClient;
+
+    private static final String ADMIT_LOCK_KEY_PREFIX = "randombox:lock:queue-admit:";
+
+    /**
+     * 한 번에 입장시킬 최대 인원
+     */
+    @Value("${randombox.queue.admission.batch-size:10}")
+    private int batchSize = 10;
+
+    /**
+     * 랜덤박스별로 동시에 입장해 있을 수 있는 최대 인원
+     */
+    @Value("${randombox.queue.admission.max-active:100}")
+    private int maxActive = 100;
+
+    /**
+     * 대기열 사용자 입장 처리
+     */
+    @Scheduled(fixedDelayString = "${randombox.queue.admission.interval-ms:1000}")
+    public void admit() {
+        for (Long randomBoxId : queueService.getQueuedRandomBoxIds()) {
+            try {
+                admit(randomBoxId);
+                // 입장을 처리하지 않은 노드도 발행해, 이 노드에 연결된 사용자에게 위치를 전송
+                eventPublisher.publishEvent(new QueueTickEvent(randomBoxId));
+            } catch (Exception e) {
+                log.error("랜덤박스 {} 대기열 입장 처리에 실패했습니다.", randomBoxId, e);
+            }
+        }
+    }
+
+    private void admit(Long randomBoxId) {
+        List<Long> userIds = admitWithinCapacity(randomBoxId);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        
+        String randomBoxName = randomBoxRepository.findById(randomBoxId)
+                .map(RandomBox::getName)
+                .orElse(null);
+        if (randomBoxName == null) {
+            return;
+        }
+        
+        for (Long userId : userIds) {
+            notificationService.sendQueueReadyNotification(userId, randomBoxName);
+        }
+    }
+
+    /**
+     * 빈 자리만큼 입장 (다른 노드가 같은 랜덤박스를 처리 중이면 이번 주기는 건너뜀)
+     */
+    private List<Long> admitWithinCapacity(Long randomBoxId) {
+        RLock lock = redissonClient.getLock(ADMIT_LOCK_KEY_PREFIX + randomBoxId);
+        if (!lock.tryLock()) {
+            return Collections.emptyList();
+        }
+        
+        try {
+            // 빈 자리만큼만 입장 (0명이어도 만료된 입장 정리를 위해 호출)
+            int count = Math.min(batchSize, maxActive - queueService.getActiveCount(randomBoxId));
+            return queueService.admit(randomBoxId, count);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.randombox.domain.queue;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 일정 시간 응답(heartbeat)이 없는 대기자를 대기열에서 제거하는 스케줄러
+ * 창을 닫은 사용자가 대기열에 남아 뒤 사용자의 대기 번호를 부풀리지 않도록 한다.
+ * 한 번에 샤드별 sweep-batch-size명까지만 처리하므로 남은 인원은 다음 주기에 이어서 제거된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueueIdleSweeper {
+
+    private final QueueService queueService;
+
+    @Value("${randombox.queue.heartbeat.enabled:false}")
+    private boolean enabled = false;
+
+    /**
+     * 마지막 응답 후 이 시간이 지나면 제거
+     */
+    @Value("${randombox.queue.heartbeat.timeout-seconds:60}")
+    private long timeoutSeconds = 60;
+
+    /**
+     * 한 번에 제거할 샤드별 최대 인원
+     */
+    @Value("${randombox.queue.heartbeat.sweep-batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * 응답 없는 대기자 제거
+     */
+    @Scheduled(fixedDelayString = "${randombox.queue.heartbeat.sweep-interval-ms:5000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        
+        long idleBefore = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        for (Long randomBoxId : queueService.getQueuedRandomBoxIds()) {
+            try {
+                queueService.evictIdleUsers(randomBoxId, idleBefore, batchSize);
+            } catch (Exception e) {
+                log.error("랜덤박스 {} 응답 없는 대기자 제거에 실패했습니다.", randomBoxId, e);
+            }
+        }
+    }
+}
@@ -1,11 +1,31 @@
 package com.randombox.domain.queue;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RQueue;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RScript;
+import org.redisson.api.RScriptAsync;
+import org.redisson.api.RSet;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ScoredEntry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -14,35 +34,255 @@ import java.util.concurrent.TimeUnit;
 public class QueueService {
 
     private final RedissonClient redissonClient;
-    private static final String QUEUE_KEY_PREFIX = "randombox:queue:";
-    private static final String WAITING_COUNT_KEY_PREFIX = "randombox:waiting-count:";
-    private static final int QUEUE_TIMEOUT_SECONDS = 300; // 5분
+    private final QueueThroughputEstimator throughputEstimator;
+    private final AdmissionTokenService admissionTokenService;
+    // 대기열 샤드 키 (randombox:queue:zset:{랜덤박스ID:샤드번호})
+    // 해시 태그를 샤드별로 달리 주어 클러스터에서 샤드가 서로 다른 슬롯에 분산되도록 한다.
+    private static final String QUEUE_KEY_PREFIX = "randombox:queue:zset:";
+    // 대기 중인 사용자의 마지막 응답 시각 (샤드와 같은 해시 태그를 써서 같은 슬롯에 둠)
+    private static final String HEARTBEAT_KEY_PREFIX = "randombox:queue:heartbeat:";
+    // 입장한 사용자 (점수는 입장 만료 시각)
+    private static final String ACTIVE_KEY_PREFIX = "randombox:queue:active:";
+    // 대기열이나 입장 사용자가 있는 랜덤박스 ID 집합
+    private static final String QUEUED_BOXES_KEY = "randombox:queue:boxes";
+    // 예전에 대기 인원 수를 따로 세던 카운터 (대기열 크기에서 직접 계산하도록 바뀌어 보정 작업에서만 사용)
+    private static final String LEGACY_WAITING_COUNT_KEY_PATTERN = "randombox:waiting-count:*";
+    /** getPositions 결과에서 입장한 사용자를 나타내는 값 */
+    public static final int ADMITTED = -2;
+    private static final int QUEUE_TIMEOUT_SECONDS = 300; // 5분 (입장 후 이 시간 안에 구매하지 않으면 입장 만료)
+
+    /**
+     * 샤드에 없으면 현재 시각(마이크로초, {@link RedisServerTime})을 점수로 추가하고 {추가 여부, 점수}를 반환
+     * 같은 샤드 안에서는 점수가 겹치지 않도록 마지막 점수보다 크게 맞춘다.
+     * 샤드 키 하나만 사용하므로 클러스터에서도 한 노드에서 실행된다.
+     * KEYS[1]: 대기열 샤드, ARGV[1]: 사용자 ID, ARGV[2]: 호출한 노드의 시각
+     */
+    private static final String ADD_SCRIPT =
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) " +
+            "if score then return {0, tonumber(score)} end " +
+            RedisServerTime.script(2) +
+            "local last = redis.call('ZRANGE', KEYS[1], -1, -1, 'WITHSCORES') " +
+            "if last[2] and tonumber(last[2]) >= now then now = tonumber(last[2]) + 1 end " +
+            "redis.call('ZADD', KEYS[1], string.format('%.0f', now), ARGV[1]) " +
+            "return {1, now}";
+
+    /**
+     * 여러 사용자를 샤드에 한 번에 추가하고 사용자별 {추가 여부, 점수}를 이어서 반환
+     * 점수는 모든 샤드에 같은 기준 점수(ARGV[1])에 요청 안의 순번을 더한 값이라 샤드가 달라도 요청 순서를 유지한다.
+     * 서버 시각을 읽지 않으므로 Redis 버전과 관계없이 쓰기가 허용된다.
+     * KEYS[1]: 대기열 샤드, ARGV[1]: 기준 점수, 이후 사용자 ID, 순번 반복
+     */
+    private static final String BULK_ADD_SCRIPT =
+            "local base = tonumber(ARGV[1]) " +
+            "local result = {} " +
+            "for i = 2, #ARGV, 2 do " +
+            "  local score = redis.call('ZSCORE', KEYS[1], ARGV[i]) " +
+            "  if score then " +
+            "    result[#result + 1] = 0 " +
+            "    result[#result + 1] = tonumber(score) " +
+            "  else " +
+            "    local now = base + tonumber(ARGV[i + 1]) " +
+            "    redis.call('ZADD', KEYS[1], string.format('%.0f', now), ARGV[i]) " +
+            "    result[#result + 1] = 1 " +
+            "    result[#result + 1] = now " +
+            "  end " +
+            "end " +
+            "return result";
+
+    // 서버 시각 조회 (읽기 전용이므로 TIME을 써도 됨)
+    private static final String TIME_SCRIPT = "return redis.call('TIME')";
+
+    /**
+     * 대기 중인 사용자만 마지막 응답 시각 갱신
+     * KEYS[1]: 대기열 샤드, KEYS[2]: 응답 시각 샤드, ARGV[1]: 사용자 ID, ARGV[2]: 현재 시각
+     */
+    private static final String HEARTBEAT_SCRIPT =
+            "if not redis.call('ZSCORE', KEYS[1], ARGV[1]) then return 0 end " +
+            "redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1]) " +
+            "return 1";
+
+    /**
+     * 마지막 응답 시각이 ARGV[1] 이전인 사용자를 최대 ARGV[2]명 대기열에서 제거하고 제거된 사용자 ID 목록을 반환
+     * 이미 입장했거나 나간 사용자는 응답 시각 기록만 지운다.
+     * KEYS[1]: 대기열 샤드, KEYS[2]: 응답 시각 샤드
+     */
+    private static final String EVICT_SCRIPT =
+            "local users = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) " +
+            "local evicted = {} " +
+            "for _, user in ipairs(users) do " +
+            "  redis.call('ZREM', KEYS[2], user) " +
+            "  if redis.call('ZREM', KEYS[1], user) == 1 then evicted[#evicted + 1] = user end " +
+            "end " +
+            "return evicted";
+    // 스크립트 한 번에 추가하는 최대 인원 (Redis를 오래 점유하지 않도록 나눠서 실행)
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    @Value("${randombox.queue.shards:4}")
+    private int shardCount = 4;
+
+    @Value("${randombox.queue.bulk.max-size:100000}")
+    private int bulkMaxSize = 100000;
+
+    /**
+     * 응답 없는 사용자 제거 사용 여부 (켜면 대기열 추가 시점부터 응답 시각을 기록)
+     */
+    @Value("${randombox.queue.heartbeat.enabled:false}")
+    private boolean heartbeatEnabled = false;
 
     /**
      * 사용자를 대기열에 추가
+     * 사용자 ID로 정해지는 샤드에만 쓰므로 랜덤박스 하나의 대기열 추가가 여러 Redis 노드로 분산된다.
      * @param randomBoxId 랜덤박스 ID
      * @param userId 사용자 ID
-     * @return 대기 번호
+     * @return 대기 번호 (0부터 시작)
      */
     public int addToQueue(Long randomBoxId, Long userId) {
-        String queueKey = QUEUE_KEY_PREFIX + randomBoxId;
-        RQueue<Long> queue = redissonClient.getQueue(queueKey);
+        int shard = shardOf(userId);
+        List<Object> result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                shardKey(randomBoxId, shard),
+                RScript.Mode.READ_WRITE,
+                ADD_SCRIPT,
+                RScript.ReturnType.MULTI,
+                Collections.singletonList(shardKey(randomBoxId, shard)),
+                String.valueOf(userId), String.valueOf(RedisServerTime.localMicros()));
+        
+        boolean added = toLong(result.get(0)) == 1L;
+        double score = toLong(result.get(1));
+        
+        // 랜덤박스 등록, 응답 시각 기록, 앞선 인원 집계를 한 번의 왕복으로 처리
+        RBatch batch = redissonClient.createBatch();
+        if (added) {
+            batch.getSet(QUEUED_BOXES_KEY, StringCodec.INSTANCE).addAsync(String.valueOf(randomBoxId));
+            if (heartbeatEnabled) {
+                batch.getScoredSortedSet(heartbeatKey(randomBoxId, shard), StringCodec.INSTANCE)
+                        .addAsync(System.currentTimeMillis(), String.valueOf(userId));
+            }
+        }
+        List<RFuture<Integer>> aheads = countAhead(batch, randomBoxId, shard, score);
+        batch.execute();
+        
+        int position = sum(aheads);
+        log.info("사용자 {}가 랜덤박스 {} 대기열에 추가되었습니다. 대기 번호: {}", userId, randomBoxId, position);
+        
+        return position;
+    }
+    
+    /**
+     * 여러 사용자를 한 번에 대기열에 추가
+     * 중복을 제거한 뒤 샤드별로 나눈 추가 스크립트를 하나의 파이프라인으로 실행하고,
+     * 각 샤드의 앞부분을 한 번 읽어 병합한 순서로 모든 사용자의 대기 번호를 계산한다.
+     * 이미 대기 중인 사용자는 기존 순번을 유지한다.
+     * 접속하지 않은 사용자를 미리 등록하는 용도이므로 응답 시각은 기록하지 않으며, 첫 응답 전까지는 응답 없음으로 제거되지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param userIds 사용자 ID 목록 (요청 순서대로 대기 순번 부여)
+     * @return 사용자별 대기 번호 (요청 순서, 0부터 시작, 처리 중 이미 입장한 사용자는 -1)
+     */
+    public Map<Long, Integer> addAllToQueue(Long randomBoxId, List<Long> userIds) {
+        List<Long> distinctUserIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (distinctUserIds.size() > bulkMaxSize) {
+            throw new IllegalArgumentException("한 번에 추가할 수 있는 인원은 최대 " + bulkMaxSize + "명입니다.");
+        }
+        
+        Map<Long, Integer> positions = new LinkedHashMap<>();
+        if (distinctUserIds.isEmpty()) {
+            return positions;
+        }
+        
+        // 샤드별로 나눠 사용자 ID와 요청 내 순번을 스크립트 인자로 구성
+        Map<Integer, List<Object>> argsByShard = new HashMap<>();
+        for (int i = 0; i < distinctUserIds.size(); i++) {
+            Long userId = distinctUserIds.get(i);
+            List<Object> args = argsByShard.computeIfAbsent(shardOf(userId), shard -> new ArrayList<>());
+            args.add(String.valueOf(userId));
+            args.add(String.valueOf(i));
+        }
+        
+        // 모든 샤드, 모든 조각에 같은 기준 점수를 넘겨 샤드가 달라도 요청 순서대로 입장하게 함
+        String base = String.format("%d", bulkBase(randomBoxId));
+        
+        RBatch batch = redissonClient.createBatch();
+        RScriptAsync script = batch.getScript(StringCodec.INSTANCE);
+        List<RFuture<List<Object>>> results = new ArrayList<>();
+        argsByShard.forEach((shard, args) -> {
+            String key = shardKey(randomBoxId, shard);
+            for (int from = 0; from < args.size(); from += BULK_CHUNK_SIZE * 2) {
+                List<Object> chunk = new ArrayList<>(BULK_CHUNK_SIZE * 2 + 1);
+                chunk.add(base);
+                chunk.addAll(args.subList(from, Math.min(from + BULK_CHUNK_SIZE * 2, args.size())));
+                results.add(script.evalAsync(key, RScript.Mode.READ_WRITE, BULK_ADD_SCRIPT, RScript.ReturnType.MULTI,
+                        Collections.singletonList(key), chunk.toArray()));
+            }
+        });
+        batch.execute();
+        
+        int added = 0;
+        double maxScore = Double.NEGATIVE_INFINITY;
+        for (RFuture<List<Object>> result : results) {
+            List<Object> values = result.getNow();
+            for (int i = 0; i < values.size(); i += 2) {
+                added += (int) toLong(values.get(i));
+                maxScore = Math.max(maxScore, toLong(values.get(i + 1)));
+            }
+        }
         
-        // 이미 대기열에 있는지 확인
-        if (queue.contains(userId)) {
-            return getPosition(randomBoxId, userId);
+        // 요청한 사용자 중 가장 늦은 점수까지 각 샤드를 읽어 (점수, 샤드) 순으로 병합
+        RBatch readBatch = redissonClient.createBatch();
+        if (added > 0) {
+            readBatch.getSet(QUEUED_BOXES_KEY, StringCodec.INSTANCE).addAsync(String.valueOf(randomBoxId));
         }
+        List<RFuture<Collection<ScoredEntry<String>>>> ranges = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            RScoredSortedSetAsync<String> queue = readBatch.getScoredSortedSet(shardKey(randomBoxId, shard), StringCodec.INSTANCE);
+            ranges.add(queue.entryRangeAsync(Double.NEGATIVE_INFINITY, true, maxScore, true));
+        }
+        readBatch.execute();
         
-        // 대기열에 추가
-        queue.add(userId);
+        List<QueueEntry> entries = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (ScoredEntry<String> entry : ranges.get(shard).getNow()) {
+                entries.add(new QueueEntry(shard, entry.getValue(), entry.getScore()));
+            }
+        }
+        entries.sort(QUEUE_ORDER);
         
-        // 대기 인원 수 증가
-        String waitingCountKey = WAITING_COUNT_KEY_PREFIX + randomBoxId;
-        redissonClient.getAtomicLong(waitingCountKey).incrementAndGet();
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            ranks.put(entries.get(i).getUserId(), i);
+        }
+        for (Long userId : distinctUserIds) {
+            positions.put(userId, ranks.getOrDefault(String.valueOf(userId), -1));
+        }
         
-        log.info("사용자 {}가 랜덤박스 {} 대기열에 추가되었습니다. 대기 번호: {}", userId, randomBoxId, queue.size());
+        log.info("랜덤박스 {} 대기열에 {}명이 일괄 추가되었습니다. (요청 {}명)", randomBoxId, added, distinctUserIds.size());
+        
+        return positions;
+    }
+    
+    /**
+     * 일괄 추가의 기준 점수 계산 (한 번의 왕복)
+     * 서버 시각과 모든 샤드의 마지막 점수 + 1 중 큰 값이라, 일괄 추가한 사용자는 이미 대기 중인 모든 사용자 뒤에 선다.
+     * 처리 중에 따로 추가된 사용자와는 추가 시각 순으로 섞일 수 있다.
+     */
+    private long bulkBase(Long randomBoxId) {
+        RBatch batch = redissonClient.createBatch();
+        RFuture<List<Object>> time = batch.getScript(StringCodec.INSTANCE)
+                .evalAsync(RScript.Mode.READ_ONLY, TIME_SCRIPT, RScript.ReturnType.MULTI);
+        List<RFuture<Double>> lastScores = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            RScoredSortedSetAsync<String> queue = batch.getScoredSortedSet(shardKey(randomBoxId, shard), StringCodec.INSTANCE);
+            lastScores.add(queue.lastScoreAsync());
+        }
+        batch.execute();
         
-        return queue.size();
+        List<Object> now = time.getNow();
+        long base = toLong(now.get(0)) * 1_000_000L + toLong(now.get(1));
+        for (RFuture<Double> lastScore : lastScores) {
+            Double score = lastScore.getNow();
+            if (score != null && score >= base) {
+                base = score.longValue() + 1;
+            }
+        }
+        return base;
     }
     
     /**
@@ -52,21 +292,58 @@ public class QueueService {
      * @return 대기 번호 (0부터 시작, -1은 대기열에 없음)
      */
     public int getPosition(Long randomBoxId, Long userId) {
-        String queueKey = QUEUE_KEY_PREFIX + randomBoxId;
-        RQueue<Long> queue = redissonClient.getQueue(queueKey);
+        int shard = shardOf(userId);
+        Double score = getShard(randomBoxId, shard).getScore(String.valueOf(userId));
+        if (score == null) {
+            return -1;
+        }
         
-        int position = -1;
-        int index = 0;
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<Integer>> aheads = countAhead(batch, randomBoxId, shard, score);
+        batch.execute();
+        return sum(aheads);
+    }
+    
+    /**
+     * 여러 사용자의 상태를 두 번의 왕복으로 조회 (점수 조회, 샤드별 앞선 인원 집계)
+     * @param randomBoxId 랜덤박스 ID
+     * @param userIds 사용자 ID 목록
+     * @return 사용자별 대기 번호 (0부터 시작, 입장한 사용자는 {@link #ADMITTED}, 대기열에 없으면 -1)
+     */
+    public Map<Long, Integer> getPositions(Long randomBoxId, Collection<Long> userIds) {
+        RBatch batch = redissonClient.createBatch();
+        RScoredSortedSetAsync<String> activeUsers = batch.getScoredSortedSet(ACTIVE_KEY_PREFIX + randomBoxId, StringCodec.INSTANCE);
+        
+        Map<Long, RFuture<Double>> scores = new LinkedHashMap<>();
+        Map<Long, RFuture<Double>> expireAts = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            scores.put(userId, batch.getScoredSortedSet(shardKey(randomBoxId, shardOf(userId)), StringCodec.INSTANCE)
+                    .getScoreAsync(String.valueOf(userId)));
+            expireAts.put(userId, activeUsers.getScoreAsync(String.valueOf(userId)));
+        }
+        batch.execute();
         
-        for (Long id : queue) {
-            if (id.equals(userId)) {
-                position = index;
-                break;
+        long now = System.currentTimeMillis();
+        Map<Long, Integer> positions = new HashMap<>();
+        Map<Long, List<RFuture<Integer>>> aheads = new LinkedHashMap<>();
+        RBatch countBatch = redissonClient.createBatch();
+        for (Long userId : userIds) {
+            Double expireAt = expireAts.get(userId).getNow();
+            Double score = scores.get(userId).getNow();
+            if (expireAt != null && expireAt > now) {
+                positions.put(userId, ADMITTED);
+            } else if (score == null) {
+                positions.put(userId, -1);
+            } else {
+                aheads.put(userId, countAhead(countBatch, randomBoxId, shardOf(userId), score));
             }
-            index++;
         }
         
-        return position;
+        if (!aheads.isEmpty()) {
+            countBatch.execute();
+            aheads.forEach((userId, futures) -> positions.put(userId, sum(futures)));
+        }
+        return positions;
     }
     
     /**
@@ -75,18 +352,13 @@ public class QueueService {
      * @return 다음 사용자 ID, 없으면 null
      */
     public Long getNextUser(Long randomBoxId) {
-        String queueKey = QUEUE_KEY_PREFIX + randomBoxId;
-        RQueue<Long> queue = redissonClient.getQueue(queueKey);
+        List<Long> userIds = poll(randomBoxId, 1);
         
-        if (queue.isEmpty()) {
+        if (userIds.isEmpty()) {
             return null;
         }
         
-        Long userId = queue.poll();
-        
-        // 대기 인원 수 감소
-        String waitingCountKey = WAITING_COUNT_KEY_PREFIX + randomBoxId;
-        redissonClient.getAtomicLong(waitingCountKey).decrementAndGet();
+        Long userId = userIds.get(0);
         
         log.info("사용자 {}가 랜덤박스 {} 대기열에서 제거되었습니다.", userId, randomBoxId);
         
@@ -100,30 +372,219 @@ public class QueueService {
      * @return 제거 성공 여부
      */
     public boolean removeFromQueue(Long randomBoxId, Long userId) {
-        String queueKey = QUEUE_KEY_PREFIX + randomBoxId;
-        RQueue<Long> queue = redissonClient.getQueue(queueKey);
-        
-        boolean removed = queue.remove(userId);
+        boolean removed = getShard(randomBoxId, shardOf(userId)).remove(String.valueOf(userId));
         
         if (removed) {
-            // 대기 인원 수 감소
-            String waitingCountKey = WAITING_COUNT_KEY_PREFIX + randomBoxId;
-            redissonClient.getAtomicLong(waitingCountKey).decrementAndGet();
-            
             log.info("사용자 {}가 랜덤박스 {} 대기열에서 제거되었습니다.", userId, randomBoxId);
         }
         
         return removed;
     }
     
+    /**
+     * 대기 중인 사용자의 응답 시각 갱신
+     * @param randomBoxId 랜덤박스 ID
+     * @param userId 사용자 ID
+     * @return 대기 중이면 true, 대기열에 없으면(입장했거나 제거됨) false
+     */
+    public boolean heartbeat(Long randomBoxId, Long userId) {
+        int shard = shardOf(userId);
+        if (!heartbeatEnabled) {
+            return getShard(randomBoxId, shard).contains(String.valueOf(userId));
+        }
+        
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                shardKey(randomBoxId, shard),
+                RScript.Mode.READ_WRITE,
+                HEARTBEAT_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Arrays.asList(shardKey(randomBoxId, shard), heartbeatKey(randomBoxId, shard)),
+                String.valueOf(userId), String.valueOf(System.currentTimeMillis()));
+        return result != null && result == 1L;
+    }
+    
+    /**
+     * 마지막 응답 시각이 기준 시각 이전인 사용자를 대기열에서 제거
+     * 샤드별 제거 스크립트를 하나의 파이프라인으로 실행하며, 샤드마다 최대 limit명까지만 처리한다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param idleBefore 기준 시각 (epoch milli)
+     * @param limit 샤드별 최대 처리 인원
+     * @return 제거된 사용자 ID 목록
+     */
+    public List<Long> evictIdleUsers(Long randomBoxId, long idleBefore, int limit) {
+        RBatch batch = redissonClient.createBatch();
+        RScriptAsync script = batch.getScript(StringCodec.INSTANCE);
+        List<RFuture<List<Object>>> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            String key = shardKey(randomBoxId, shard);
+            results.add(script.evalAsync(key, RScript.Mode.READ_WRITE, EVICT_SCRIPT, RScript.ReturnType.MULTI,
+                    Arrays.asList(key, heartbeatKey(randomBoxId, shard)),
+                    String.valueOf(idleBefore), String.valueOf(limit)));
+        }
+        batch.execute();
+        
+        List<Long> userIds = new ArrayList<>();
+        for (RFuture<List<Object>> result : results) {
+            for (Object user : result.getNow()) {
+                userIds.add(Long.valueOf(user.toString()));
+            }
+        }
+        
+        if (!userIds.isEmpty()) {
+            log.info("랜덤박스 {} 대기열에서 응답 없는 사용자 {}명을 제거했습니다.", randomBoxId, userIds.size());
+        }
+        
+        return userIds;
+    }
+    
+    /**
+     * 대기열 앞의 사용자를 입장시킴
+     * 모든 샤드의 앞부분을 대기열 추가 시각 순으로 병합해 먼저 들어온 사용자부터 입장시킨다.
+     * 입장한 사용자는 QUEUE_TIMEOUT_SECONDS 동안 구매할 수 있으며, 그 안에 구매하지 않으면 입장이 만료된다.
+     * 입장 사용자에 먼저 추가한 뒤 대기열에서 제거하므로, 중간에 실패해도 대기열에서 빠지고 입장하지 못한 사용자는 생기지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param count 최대 입장 인원
+     * @return 입장한 사용자 ID 목록
+     */
+    public List<Long> admit(Long randomBoxId, int count) {
+        long now = System.currentTimeMillis();
+        RScoredSortedSet<String> activeUsers = getActiveUsers(randomBoxId);
+        activeUsers.removeRangeByScore(Double.NEGATIVE_INFINITY, true, now, true);
+        
+        List<QueueEntry> selected = peek(randomBoxId, count);
+        List<Long> userIds = Collections.emptyList();
+        
+        if (!selected.isEmpty()) {
+            long expireAt = now + TimeUnit.SECONDS.toMillis(QUEUE_TIMEOUT_SECONDS);
+            RBatch batch = redissonClient.createBatch();
+            RScoredSortedSetAsync<String> activeUsersAsync = batch.getScoredSortedSet(ACTIVE_KEY_PREFIX + randomBoxId, StringCodec.INSTANCE);
+            List<RFuture<Boolean>> added = new ArrayList<>(selected.size());
+            for (QueueEntry entry : selected) {
+                added.add(activeUsersAsync.addAsync(expireAt, entry.getUserId()));
+            }
+            batch.execute();
+            
+            userIds = remove(randomBoxId, selected);
+            
+            // 그 사이 대기열에서 나간 사용자(이탈, 다른 경로로 입장)는 여기서 새로 추가한 입장만 되돌림
+            if (userIds.size() < selected.size()) {
+                RBatch rollbackBatch = redissonClient.createBatch();
+                RScoredSortedSetAsync<String> rollbackUsers = rollbackBatch.getScoredSortedSet(ACTIVE_KEY_PREFIX + randomBoxId, StringCodec.INSTANCE);
+                for (int i = 0; i < selected.size(); i++) {
+                    String userId = selected.get(i).getUserId();
+                    if (Boolean.TRUE.equals(added.get(i).getNow()) && !userIds.contains(Long.valueOf(userId))) {
+                        rollbackUsers.removeAsync(userId);
+                    }
+                }
+                rollbackBatch.execute();
+            }
+        }
+        
+        if (!userIds.isEmpty()) {
+            log.info("랜덤박스 {} 대기열에서 {}명이 입장했습니다.", randomBoxId, userIds.size());
+        } else {
+            unregisterIfEmpty(randomBoxId);
+        }
+        
+        return userIds;
+    }
+    
+    /**
+     * 사용자를 바로 입장시킴 (대기열을 거치지 않음)
+     * @param randomBoxId 랜덤박스 ID
+     * @param userId 사용자 ID
+     */
+    public void activate(Long randomBoxId, Long userId) {
+        long expireAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(QUEUE_TIMEOUT_SECONDS);
+        getActiveUsers(randomBoxId).add(expireAt, String.valueOf(userId));
+        RSet<String> randomBoxIdSet = redissonClient.getSet(QUEUED_BOXES_KEY, StringCodec.INSTANCE);
+        randomBoxIdSet.add(String.valueOf(randomBoxId));
+    }
+    
+    /**
+     * 입장 여부 확인
+     * @param randomBoxId 랜덤박스 ID
+     * @param userId 사용자 ID
+     * @return 입장이 만료되지 않았으면 true
+     */
+    public boolean isActive(Long randomBoxId, Long userId) {
+        Double expireAt = getActiveUsers(randomBoxId).getScore(String.valueOf(userId));
+        return expireAt != null && expireAt > System.currentTimeMillis();
+    }
+    
+    /**
+     * 입장 해제 (구매를 마친 사용자)
+     * 발급한 입장 토큰도 회수하여 다시 쓸 수 없게 한다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param userId 사용자 ID
+     * @return 해제 여부
+     */
+    public boolean deactivate(Long randomBoxId, Long userId) {
+        admissionTokenService.revoke(userId, randomBoxId);
+        boolean removed = getActiveUsers(randomBoxId).remove(String.valueOf(userId));
+        if (removed) {
+            // 구매를 마친 인원으로 처리 속도 측정 (대기자가 있을 때만 처리 능력을 나타냄)
+            throughputEstimator.record(randomBoxId, 1, getWaitingCount(randomBoxId) > 0);
+        }
+        return removed;
+    }
+    
+    /**
+     * 입장이 만료되지 않은 사용자 수 조회
+     * @param randomBoxId 랜덤박스 ID
+     * @return 입장 사용자 수
+     */
+    public int getActiveCount(Long randomBoxId) {
+        return getActiveUsers(randomBoxId).count(System.currentTimeMillis(), false, Double.POSITIVE_INFINITY, true);
+    }
+    
+    /**
+     * 대기열이나 입장 사용자가 있는 랜덤박스 ID 목록 조회
+     * @return 랜덤박스 ID 목록
+     */
+    public List<Long> getQueuedRandomBoxIds() {
+        List<Long> randomBoxIds = new ArrayList<>();
+        RSet<String> randomBoxIdSet = redissonClient.getSet(QUEUED_BOXES_KEY, StringCodec.INSTANCE);
+        for (String randomBoxId : randomBoxIdSet.readAll()) {
+            randomBoxIds.add(Long.valueOf(randomBoxId));
+        }
+        return randomBoxIds;
+    }
+    
     /**
      * 대기 인원 수 조회
+     * 별도 카운터 없이 샤드 크기(ZCARD)의 합으로 계산하므로 대기열 내용과 어긋나지 않는다.
      * @param randomBoxId 랜덤박스 ID
      * @return 대기 인원 수
      */
     public long getWaitingCount(Long randomBoxId) {
-        String waitingCountKey = WAITING_COUNT_KEY_PREFIX + randomBoxId;
-        return redissonClient.getAtomicLong(waitingCountKey).get();
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<Integer>> sizes = shardSizes(batch, randomBoxId);
+        batch.execute();
+        return sum(sizes);
+    }
+    
+    /**
+     * 예전 대기 인원 카운터 정리
+     * 카운터와 대기열 변경이 원자적이지 않아 생긴 차이를 기록한 뒤 카운터 키를 삭제한다.
+     * @return 삭제한 카운터 수
+     */
+    public int removeLegacyWaitingCounters() {
+        int removed = 0;
+        for (String key : redissonClient.getKeys().getKeysByPattern(LEGACY_WAITING_COUNT_KEY_PATTERN)) {
+            Long randomBoxId = Long.valueOf(key.substring(key.lastIndexOf(':') + 1));
+            long counted = redissonClient.getAtomicLong(key).get();
+            long actual = getWaitingCount(randomBoxId);
+            
+            if (counted != actual) {
+                log.warn("랜덤박스 {} 대기 인원 카운터가 실제와 달랐습니다. 카운터: {}, 실제: {}", randomBoxId, counted, actual);
+            }
+            
+            if (redissonClient.getKeys().delete(key) > 0) {
+                removed++;
+            }
+        }
+        return removed;
     }
     
     /**
@@ -139,8 +600,166 @@ public class QueueService {
             return -1;
         }
         
-        // 한 사용자당 처리 시간을 30초로 가정
-        int processingTimePerUser = 30;
-        return position * processingTimePerUser;
+        return estimateWait(randomBoxId, position).getSeconds();
+    }
+    
+    /**
+     * 예상 대기 시간 계산 (측정된 처리 속도 기준, 측정값이 없으면 한 사용자당 30초로 가정)
+     * @param randomBoxId 랜덤박스 ID
+     * @param position 앞에 있는 인원
+     * @return 예상 대기 시간
+     */
+    public WaitEstimate estimateWait(Long randomBoxId, int position) {
+        return throughputEstimator.estimate(randomBoxId, position);
+    }
+    
+    /**
+     * 모든 샤드의 앞부분을 추가 시각 순으로 병합해 최대 count명을 대기열에서 꺼냄
+     * 다른 노드가 같은 사용자를 먼저 꺼냈으면 ZREM이 실패하므로 실제로 제거한 사용자만 반환한다.
+     */
+    private List<Long> poll(Long randomBoxId, int count) {
+        return remove(randomBoxId, peek(randomBoxId, count));
+    }
+    
+    /**
+     * 모든 샤드의 앞부분을 추가 시각 순으로 병합해 최대 count명을 조회 (대기열에서 제거하지 않음)
+     */
+    private List<QueueEntry> peek(Long randomBoxId, int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<Collection<ScoredEntry<String>>>> heads = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            RScoredSortedSetAsync<String> queue = batch.getScoredSortedSet(shardKey(randomBoxId, shard), StringCodec.INSTANCE);
+            heads.add(queue.entryRangeAsync(0, count - 1));
+        }
+        batch.execute();
+        
+        // 점수(추가 시각), 샤드 번호 순으로 병합
+        List<QueueEntry> entries = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (ScoredEntry<String> entry : heads.get(shard).getNow()) {
+                entries.add(new QueueEntry(shard, entry.getValue(), entry.getScore()));
+            }
+        }
+        entries.sort(QUEUE_ORDER);
+        return entries.subList(0, Math.min(count, entries.size()));
+    }
+    
+    /**
+     * 조회한 사용자를 대기열에서 제거하고 실제로 제거한 사용자 ID만 반환
+     */
+    private List<Long> remove(Long randomBoxId, List<QueueEntry> selected) {
+        if (selected.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        RBatch removeBatch = redissonClient.createBatch();
+        List<RFuture<Boolean>> removed = new ArrayList<>(selected.size());
+        for (QueueEntry entry : selected) {
+            removed.add(removeBatch.getScoredSortedSet(shardKey(randomBoxId, entry.getShard()), StringCodec.INSTANCE)
+                    .removeAsync(entry.getUserId()));
+        }
+        removeBatch.execute();
+        
+        List<Long> userIds = new ArrayList<>(selected.size());
+        for (int i = 0; i < selected.size(); i++) {
+            if (Boolean.TRUE.equals(removed.get(i).getNow())) {
+                userIds.add(Long.valueOf(selected.get(i).getUserId()));
+            }
+        }
+        return userIds;
+    }
+    
+    /**
+     * 샤드별로 앞선 인원 수를 세는 명령을 배치에 추가
+     * 점수가 같으면 샤드 번호가 작은 쪽을 먼저로 보아 대기 번호가 겹치지 않게 한다.
+     */
+    private List<RFuture<Integer>> countAhead(RBatch batch, Long randomBoxId, int myShard, double score) {
+        List<RFuture<Integer>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            futures.add(batch.getScoredSortedSet(shardKey(randomBoxId, shard), StringCodec.INSTANCE)
+                    .countAsync(Double.NEGATIVE_INFINITY, true, score, shard < myShard));
+        }
+        return futures;
+    }
+    
+    /**
+     * 대기열과 입장 사용자가 모두 비었으면 랜덤박스 ID 집합에서 제거
+     * 제거 직후 다시 확인해, 그 사이 추가된 사용자가 있으면 되돌린다.
+     * (대기열 추가는 샤드에 넣은 뒤 집합에 등록하므로 두 번째 확인에서 놓치지 않는다)
+     */
+    private void unregisterIfEmpty(Long randomBoxId) {
+        if (!isEmpty(randomBoxId)) {
+            return;
+        }
+        
+        RSet<String> randomBoxIdSet = redissonClient.getSet(QUEUED_BOXES_KEY, StringCodec.INSTANCE);
+        randomBoxIdSet.remove(String.valueOf(randomBoxId));
+        if (!isEmpty(randomBoxId)) {
+            randomBoxIdSet.add(String.valueOf(randomBoxId));
+        }
+    }
+    
+    private boolean isEmpty(Long randomBoxId) {
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<Integer>> sizes = shardSizes(batch, randomBoxId);
+        sizes.add(batch.getScoredSortedSet(ACTIVE_KEY_PREFIX + randomBoxId, StringCodec.INSTANCE).sizeAsync());
+        batch.execute();
+        return sum(sizes) == 0;
+    }
+    
+    private List<RFuture<Integer>> shardSizes(RBatch batch, Long randomBoxId) {
+        List<RFuture<Integer>> sizes = new ArrayList<>(shardCount + 1);
+        for (int shard = 0; shard < shardCount; shard++) {
+            sizes.add(batch.getScoredSortedSet(shardKey(randomBoxId, shard), StringCodec.INSTANCE).sizeAsync());
+        }
+        return sizes;
+    }
+    
+    private int shardOf(Long userId) {
+        return Math.floorMod(userId.hashCode(), shardCount);
+    }
+    
+    private static String shardKey(Long randomBoxId, int shard) {
+        return QUEUE_KEY_PREFIX + "{" + randomBoxId + ":" + shard + "}";
+    }
+    
+    private static String heartbeatKey(Long randomBoxId, int shard) {
+        return HEARTBEAT_KEY_PREFIX + "{" + randomBoxId + ":" + shard + "}";
+    }
+    
+    private RScoredSortedSet<String> getShard(Long randomBoxId, int shard) {
+        return redissonClient.getScoredSortedSet(shardKey(randomBoxId, shard), StringCodec.INSTANCE);
+    }
+    
+    private static int sum(List<RFuture<Integer>> futures) {
+        int total = 0;
+        for (RFuture<Integer> future : futures) {
+            total += future.getNow();
+        }
+        return total;
+    }
+    
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+    
+    // 대기열 전체 순서: 점수(추가 시각), 샤드 번호 순
+    private static final Comparator<QueueEntry> QUEUE_ORDER =
+            Comparator.comparingDouble(QueueEntry::getScore).thenComparingInt(QueueEntry::getShard);
+    
+    @Getter
+    @RequiredArgsConstructor
+    private static class QueueEntry {
+        private final int shard;
+        private final String userId;
+        private final double score;
+    }
+    
+    private RScoredSortedSet<String> getActiveUsers(Long randomBoxId) {
+        return redissonClient.getScoredSortedSet(ACTIVE_KEY_PREFIX + randomBoxId, StringCodec.INSTANCE);
     }
 }
@@ -0,0 +1,47 @@
+package com.randombox.domain.queue;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 랜덤박스 대기열의 측정된 처리 속도 (초당 구매를 마친 인원)
+ */
+@Getter
+@RequiredArgsConstructor
+public class QueueThroughput {
+
+    /** 측정값이 없을 때 가정하는 한 사용자당 처리 시간 (초) */
+    static final int DEFAULT_SECONDS_PER_USER = 30;
+
+    /** 측정값이 없는 상태 */
+    public static final QueueThroughput UNKNOWN = new QueueThroughput(0, 0);
+
+    private final double ratePerSecond;
+    private final double standardDeviation;
+
+    /**
+     * 앞에 있는 인원으로 예상 대기 시간 계산
+     * 신뢰 구간은 처리 속도 ±2 표준편차로 계산한다.
+     * @param position 앞에 있는 인원
+     * @return 예상 대기 시간
+     */
+    public WaitEstimate estimate(int position) {
+        if (position <= 0) {
+            return new WaitEstimate(0, 0, 0);
+        }
+        
+        if (ratePerSecond <= 0) {
+            int seconds = position * DEFAULT_SECONDS_PER_USER;
+            return new WaitEstimate(seconds, seconds, seconds);
+        }
+        
+        double fastRate = ratePerSecond + 2 * standardDeviation;
+        // 느린 쪽 속도가 0 이하로 내려가 대기 시간이 무한대가 되지 않도록 하한을 둠
+        double slowRate = Math.max(ratePerSecond - 2 * standardDeviation, ratePerSecond / 10);
+        
+        return new WaitEstimate(
+                (int) Math.ceil(position / ratePerSecond),
+                (int) Math.ceil(position / fastRate),
+                (int) Math.ceil(position / slowRate));
+    }
+}
@@ -0,0 +1,133 @@
+package com.randombox.domain.queue;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 랜덤박스별 대기열 처리 속도 측정기
+ * 입장 속도는 스케줄러 설정(입장 인원, 최대 입장 인원)에 묶여 있으므로 구매를 마치고 입장이 해제된 인원으로 측정한다.
+ * 모든 노드의 처리 인원을 Redis 해시에 모아 일정 구간마다 초당 처리 인원을 계산하고,
+ * 지수 가중 이동 평균(EWMA)과 분산으로 누적해 모든 노드가 같은 값을 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueThroughputEstimator {
+
+    private static final String THROUGHPUT_KEY_PREFIX = "randombox:queue:throughput:";
+
+    /**
+     * 처리 인원을 현재 구간에 더하고, 구간이 끝났으면 구간 속도로 EWMA를 갱신
+     * 구간 안에서 한 번도 대기자가 남은 적이 없으면 (수요가 처리량보다 적었으면) 처리 능력을 나타내지 않으므로 버린다.
+     * 구간 시각은 Redis 서버 시각({@link RedisServerTime})으로 재므로 노드 간 시계 차이의 영향을 받지 않는다.
+     * 구매가 멈춘 랜덤박스의 측정값은 만료 시간이 지나면 사라진다.
+     * KEYS[1]: 측정 해시, ARGV: 호출한 노드의 시각(마이크로초), 처리 인원, 대기자 남음 여부, EWMA 가중치, 구간 길이(초), 만료 시간(초)
+     */
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>(
+            RedisServerTime.script(1) +
+            "local start = tonumber(redis.call('HGET', KEYS[1], 'windowStartMicros')) " +
+            "if not start or start > now then " +
+            "  redis.call('HSET', KEYS[1], 'windowStartMicros', string.format('%.0f', now)) " +
+            "  redis.call('HSET', KEYS[1], 'pending', 0) " +
+            "  redis.call('HSET', KEYS[1], 'backlogged', 0) " +
+            "  start = now " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[6]) " +
+            "redis.call('HINCRBY', KEYS[1], 'pending', ARGV[2]) " +
+            "if ARGV[3] == '1' then redis.call('HSET', KEYS[1], 'backlogged', 1) end " +
+            "local elapsed = (now - start) / 1000000 " +
+            "if elapsed < tonumber(ARGV[5]) then return 0 end " +
+            "local data = redis.call('HMGET', KEYS[1], 'pending', 'backlogged', 'rate', 'variance') " +
+            "if data[2] == '1' then " +
+            "  local sample = tonumber(data[1]) / elapsed " +
+            "  local rate = tonumber(data[3]) " +
+            "  if not rate then " +
+            "    redis.call('HSET', KEYS[1], 'rate', sample) " +
+            "    redis.call('HSET', KEYS[1], 'variance', 0) " +
+            "  else " +
+            "    local alpha = tonumber(ARGV[4]) " +
+            "    local diff = sample - rate " +
+            "    local increment = alpha * diff " +
+            "    local variance = (1 - alpha) * ((tonumber(data[4]) or 0) + diff * increment) " +
+            "    redis.call('HSET', KEYS[1], 'rate', rate + increment) " +
+            "    redis.call('HSET', KEYS[1], 'variance', variance) " +
+            "  end " +
+            "end " +
+            "redis.call('HSET', KEYS[1], 'windowStartMicros', string.format('%.0f', now)) " +
+            "redis.call('HSET', KEYS[1], 'pending', 0) " +
+            "redis.call('HSET', KEYS[1], 'backlogged', 0) " +
+            "return 1",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * EWMA 가중치 (클수록 최근 구간을 크게 반영)
+     */
+    @Value("${randombox.queue.throughput.alpha:0.3}")
+    private double alpha = 0.3;
+
+    /**
+     * 처리 속도를 계산하는 구간 길이
+     */
+    @Value("${randombox.queue.throughput.window-seconds:5}")
+    private int windowSeconds = 5;
+
+    /**
+     * 측정값 만료 시간 (마지막 처리 이후)
+     */
+    @Value("${randombox.queue.throughput.ttl-seconds:3600}")
+    private long ttlSeconds = 3600;
+
+    /**
+     * 처리 결과 기록 (구매를 마치고 입장이 해제될 때)
+     * @param randomBoxId 랜덤박스 ID
+     * @param completed 구매를 마친 인원
+     * @param backlogged 대기자가 남아 있는지
+     */
+    public void record(Long randomBoxId, int completed, boolean backlogged) {
+        redisTemplate.execute(RECORD_SCRIPT,
+                Collections.singletonList(THROUGHPUT_KEY_PREFIX + randomBoxId),
+                String.valueOf(RedisServerTime.localMicros()),
+                String.valueOf(completed),
+                backlogged ? "1" : "0",
+                String.valueOf(alpha),
+                String.valueOf(windowSeconds),
+                String.valueOf(ttlSeconds));
+    }
+
+    /**
+     * 측정된 처리 속도 조회 (HMGET 한 번)
+     * @param randomBoxId 랜덤박스 ID
+     * @return 처리 속도, 측정값이 없으면 {@link QueueThroughput#UNKNOWN}
+     */
+    public QueueThroughput getThroughput(Long randomBoxId) {
+        List<Object> values = redisTemplate.opsForHash()
+                .multiGet(THROUGHPUT_KEY_PREFIX + randomBoxId, Arrays.asList("rate", "variance"));
+        
+        if (values == null || values.get(0) == null) {
+            return QueueThroughput.UNKNOWN;
+        }
+        
+        double rate = Double.parseDouble(values.get(0).toString());
+        double variance = values.get(1) != null ? Double.parseDouble(values.get(1).toString()) : 0;
+        return new QueueThroughput(rate, Math.sqrt(Math.max(variance, 0)));
+    }
+
+    /**
+     * 예상 대기 시간 계산
+     * @param randomBoxId 랜덤박스 ID
+     * @param position 앞에 있는 인원
+     * @return 예상 대기 시간
+     */
+    public WaitEstimate estimate(Long randomBoxId, int position) {
+        return getThroughput(randomBoxId).estimate(position);
+    }
+}
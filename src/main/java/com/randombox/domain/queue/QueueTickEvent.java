@@ -0,0 +1,13 @@
+package com.randombox.domain.queue;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 랜덤박스 대기열 입장 처리가 한 번 끝났음을 알리는 이벤트
+ */
+@Getter
+@RequiredArgsConstructor
+public class QueueTickEvent {
+    private final Long randomBoxId;
+}
@@ -0,0 +1,34 @@
+package com.randombox.domain.queue;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대기 인원 수를 대기열 크기에서 직접 계산하도록 바뀌면서 남은 예전 카운터를 시작 시 정리한다.
+ * 카운터와 실제 대기열의 차이는 로그로 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueueWaitingCountRepairJob {
+
+    private final QueueService queueService;
+
+    /**
+     * 예전 대기 인원 카운터 정리
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void repair() {
+        try {
+            int removed = queueService.removeLegacyWaitingCounters();
+            if (removed > 0) {
+                log.info("예전 대기 인원 카운터 {}개를 정리했습니다.", removed);
+            }
+        } catch (RuntimeException e) {
+            log.error("예전 대기 인원 카운터 정리에 실패했습니다. 다음 시작 시 다시 시도합니다.", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.randombox.domain.queue;
+
+import java.time.Instant;
+
+/**
+ * 대기열 스크립트에서 사용하는 현재 시각 (epoch 마이크로초)
+ * Redis 3.2 이상에서는 redis.replicate_commands()로 명령 단위 복제를 켠 뒤 서버 시각(TIME)을 읽어
+ * 모든 노드가 같은 시계를 사용한다. TIME 뒤의 쓰기를 거부하는 그보다 오래된 서버에서는
+ * 호출한 노드가 ARGV로 넘긴 시각을 대신 사용한다.
+ */
+final class RedisServerTime {
+
+    private RedisServerTime() {
+    }
+
+    /**
+     * 지역 변수 now에 현재 시각을 넣는 Lua 코드 (쓰기 명령보다 앞에 두어야 함)
+     * @param argvIndex 서버 시각을 쓸 수 없을 때 대신 사용할 ARGV 위치
+     * @return Lua 코드
+     */
+    static String script(int argvIndex) {
+        return "local now = tonumber(ARGV[" + argvIndex + "]) " +
+                "if redis.replicate_commands and redis.replicate_commands() then " +
+                "  local time = redis.call('TIME') " +
+                "  now = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+                "end ";
+    }
+
+    /**
+     * 호출한 노드의 현재 시각
+     * @return epoch 마이크로초
+     */
+    static long localMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,15 @@
+package com.randombox.domain.queue;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 예상 대기 시간과 신뢰 구간 (초 단위)
+ */
+@Getter
+@RequiredArgsConstructor
+public class WaitEstimate {
+    private final int seconds;
+    private final int lowSeconds;
+    private final int highSeconds;
+}
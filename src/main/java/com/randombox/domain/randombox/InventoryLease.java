@@ -0,0 +1,75 @@
+package com.randombox.domain.randombox;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 노드가 임대 재고에서 꺼내 메모리로 옮겨 둔 재고
+ * 구매 시에는 메모리 상의 원자적 감소만 수행하므로 Redis 왕복이 발생하지 않는다.
+ * 임대 재고의 나머지는 Redis의 {@code <재고 키>:leases} 해시에 노드 ID별로 남아 있어,
+ * 노드가 비정상 종료되면 메모리로 옮겨 둔 수량만 잃고 나머지는 다른 노드가 회수한다.
+ */
+class InventoryLease {
+
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicBoolean registered = new AtomicBoolean();
+    private volatile long usedAtMillis = System.currentTimeMillis();
+
+    /**
+     * 메모리 재고에서 차감
+     * @param quantity 차감할 수량
+     * @return 성공 여부
+     */
+    boolean tryTake(int quantity) {
+        while (true) {
+            int current = remaining.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - quantity)) {
+                usedAtMillis = System.currentTimeMillis();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 임대 재고에서 꺼낸 수량 추가
+     * @param quantity 추가할 수량
+     */
+    void add(int quantity) {
+        remaining.addAndGet(quantity);
+    }
+
+    /**
+     * 남은 메모리 재고를 모두 회수
+     * @return 회수된 수량
+     */
+    int drain() {
+        return remaining.getAndSet(0);
+    }
+
+    int remaining() {
+        return remaining.get();
+    }
+
+    /**
+     * 임대 중인 랜덤박스로 등록되지 않았으면 등록 상태로 변경
+     * @return 이번 호출로 등록 상태가 되었는지 여부
+     */
+    boolean register() {
+        return registered.compareAndSet(false, true);
+    }
+
+    void unregister() {
+        registered.set(false);
+    }
+
+    boolean isRegistered() {
+        return registered.get();
+    }
+
+    boolean isExpired(long ttlMillis) {
+        return System.currentTimeMillis() - usedAtMillis >= ttlMillis;
+    }
+}
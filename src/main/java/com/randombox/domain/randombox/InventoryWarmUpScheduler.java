@@ -0,0 +1,107 @@
+package com.randombox.domain.randombox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 판매 시작이 임박한 랜덤박스의 재고를 미리 Redis에 적재하는 스케줄러
+ * 판매 시작 직후 첫 구매 요청들이 재고 키가 없어 DB를 조회하는 일을 막는다.
+ * 적재 기록은 랜덤박스 ID와 판매 시작 시각을 함께 필드로 쓰므로 판매 일정이 바뀌면 다시 적재하며,
+ * 판매가 시작된 기록은 다음 주기에 삭제한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryWarmUpScheduler {
+
+    private static final String WARM_UP_KEY = "randombox:inventory:warm-up";
+
+    private final RandomBoxRepository randomBoxRepository;
+    private final RandomBoxInventoryService randomBoxInventoryService;
+    private final RedisInventoryCounter inventoryCounter;
+
+    /**
+     * 판매 시작 몇 초 전부터 재고를 적재할지
+     */
+    @Value("${randombox.inventory.warm-up.lead-time-seconds:600}")
+    private long leadTimeSeconds = 600;
+
+    /**
+     * 판매 시작 예정 랜덤박스 재고 적재
+     */
+    @Scheduled(fixedDelayString = "${randombox.inventory.warm-up.interval-ms:60000}")
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> warmed = inventoryCounter.fields(WARM_UP_KEY);
+        removeStarted(warmed, toEpochMillis(now));
+        
+        List<RandomBox> upcoming = randomBoxRepository.findAllStartingBetween(now, now.plusSeconds(leadTimeSeconds));
+        if (upcoming.isEmpty()) {
+            return;
+        }
+        
+        // 같은 판매 일정으로 이미 적재한 랜덤박스 제외
+        List<RandomBox> targets = upcoming.stream()
+                .filter(randomBox -> !warmed.contains(warmUpField(randomBox)))
+                .collect(Collectors.toList());
+        if (targets.isEmpty()) {
+            return;
+        }
+        
+        long startedAt = System.nanoTime();
+        int created = randomBoxInventoryService.warmUpInventory(targets);
+        long batchElapsedMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+        
+        // 랜덤박스별 적재 시각, 판매 시작까지 남은 시간, 함께 적재한 묶음 전체의 소요 시간 기록
+        long warmedAtMillis = System.currentTimeMillis();
+        Map<String, String> timings = new HashMap<>();
+        for (RandomBox randomBox : targets) {
+            long leadMillis = Duration.between(now, randomBox.getSalesStartTime()).toMillis();
+            timings.put(warmUpField(randomBox),
+                    "warmedAt=" + warmedAtMillis + ",leadMs=" + leadMillis
+                            + ",batchSize=" + targets.size() + ",batchElapsedMs=" + batchElapsedMillis);
+            
+            log.info("랜덤박스 {} 재고를 판매 시작 {}초 전에 적재했습니다.", randomBox.getId(), leadMillis / 1000);
+        }
+        inventoryCounter.putAll(WARM_UP_KEY, timings);
+        
+        log.info("판매 예정 랜덤박스 {}개의 재고를 적재했습니다. 새로 적재된 랜덤박스: {}, 일괄 적재 소요 시간: {}ms",
+                targets.size(), created, batchElapsedMillis);
+    }
+
+    /**
+     * 판매가 이미 시작된 적재 기록 삭제
+     */
+    private void removeStarted(Set<String> warmed, long nowMillis) {
+        List<String> started = new ArrayList<>();
+        for (String field : warmed) {
+            long salesStartMillis = Long.parseLong(field.substring(field.indexOf(':') + 1));
+            if (salesStartMillis <= nowMillis) {
+                started.add(field);
+            }
+        }
+        inventoryCounter.removeFields(WARM_UP_KEY, started);
+    }
+
+    // 적재 기록 필드 (랜덤박스ID:판매 시작 시각)
+    private static String warmUpField(RandomBox randomBox) {
+        return randomBox.getId() + ":" + toEpochMillis(randomBox.getSalesStartTime());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
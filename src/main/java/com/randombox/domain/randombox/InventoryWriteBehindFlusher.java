@@ -0,0 +1,116 @@
+package com.randombox.domain.randombox;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 판매 중에는 Redis 재고만 갱신하고, 변경된 랜덤박스의 현재 재고(절대값)를 주기적으로 DB에 반영한다.
+ * 같은 주기 안의 여러 구매는 UPDATE 한 번으로 합쳐지며, 절대값을 쓰므로 중복 반영되어도 안전하다.
+ * 각 노드는 변경된 랜덤박스 ID를 Redis의 공유 목록에 올리기만 하고, 락을 얻은 노드 하나만 DB에 반영하므로
+ * 여러 노드가 서로 다른 시점에 읽은 재고로 DB를 번갈아 덮어쓰지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryWriteBehindFlusher {
+
+    private static final String FLUSH_LOCK_KEY = "randombox:lock:inventory-write-behind";
+
+    private final RandomBoxInventoryService randomBoxInventoryService;
+    private final RandomBoxRepository randomBoxRepository;
+    private final RedissonClient redissonClient;
+    private final PrizePoolService prizePoolService;
+
+    /**
+     * 변경된 재고 DB 반영
+     */
+    @Scheduled(fixedDelayString = "${randombox.inventory.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        randomBoxInventoryService.shareDirtyBoxIds();
+        
+        // 다른 노드가 반영 중이면 이번 주기는 건너뜀 (공유 목록에 올린 ID는 그 노드나 다음 주기에 반영됨)
+        RLock lock = redissonClient.getLock(FLUSH_LOCK_KEY);
+        if (!lock.tryLock()) {
+            return;
+        }
+        
+        try {
+            List<Long> randomBoxIds = randomBoxInventoryService.takeSharedDirtyBoxIds();
+            for (Long randomBoxId : randomBoxIds) {
+                flushInventory(randomBoxId);
+            }
+            
+            if (!randomBoxIds.isEmpty()) {
+                log.debug("랜덤박스 {}개의 재고를 DB에 반영했습니다.", randomBoxIds.size());
+            }
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 시작 시 재고 보정
+     * 이전 프로세스가 반영하지 못하고 종료되었을 수 있으므로 Redis에 재고가 있는 모든 랜덤박스를 반영 대상으로 올리고 바로 반영한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        List<Long> randomBoxIds = randomBoxInventoryService.getWriteBehindBoxIds();
+        LocalDateTime now = LocalDateTime.now();
+        
+        for (RandomBox randomBox : randomBoxRepository.findAllById(randomBoxIds)) {
+            randomBoxInventoryService.markDirty(randomBox.getId());
+            
+            if (randomBox.getSalesEndTime().isBefore(now)) {
+                randomBoxInventoryService.untrackWriteBehind(randomBox.getId());
+            }
+        }
+        flush();
+        
+        log.info("랜덤박스 {}개의 재고를 Redis 기준으로 보정했습니다.", randomBoxIds.size());
+    }
+
+    /**
+     * 종료 시 임대 재고를 반납한 뒤 남은 변경분 반영
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        randomBoxInventoryService.returnAllLeases();
+        flush();
+    }
+
+    private void flushInventory(Long randomBoxId) {
+        try {
+            Integer quantity = randomBoxInventoryService.getPersistedInventory(randomBoxId);
+            if (quantity == null) {
+                // Redis에 재고가 없으면 DB가 기준이므로 반영할 것이 없음
+                return;
+            }
+            
+            int updated = randomBoxRepository.updateQuantity(randomBoxId, quantity, LocalDateTime.now());
+            
+            if (updated == 0) {
+                // 삭제된 랜덤박스
+                randomBoxInventoryService.untrackWriteBehind(randomBoxId);
+                return;
+            }
+            
+            // 경품 풀 방식이면 아이템별 남은 수량도 함께 반영
+            prizePoolService.persistRemaining(randomBoxId);
+        } catch (RuntimeException e) {
+            log.error("랜덤박스 {} 재고 DB 반영에 실패했습니다. 다음 주기에 다시 시도합니다.", randomBoxId, e);
+            randomBoxInventoryService.markDirty(randomBoxId);
+        }
+    }
+}
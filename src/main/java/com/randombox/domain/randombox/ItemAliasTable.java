@@ -0,0 +1,165 @@
+package com.randombox.domain.randombox;
+
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * 랜덤박스 아이템 추첨용 별칭 테이블 (Vose 알고리즘)
+ * 아이템 수와 관계없이 난수 두 개로 한 번에 추첨하며, 추첨 시 객체를 새로 만들지 않는다.
+ * 확률은 소수점 둘째 자리까지 정수 가중치(확률 x 100)로 바꾸어 다루므로 부동소수점 오차가 없다.
+ * 확률 합이 100 미만이면 남는 확률은 마지막 아이템에 더한다 (기존 누적 확률 방식과 동일한 결과).
+ */
+public final class ItemAliasTable {
+
+    /** 전체 가중치 (100%를 0.01% 단위로 표현) */
+    static final int TOTAL_WEIGHT = 10000;
+
+    private final RandomBoxItem[] items;
+    private final int[] threshold;
+    private final int[] alias;
+    private final RandomBox.DrawMode drawMode;
+
+    private ItemAliasTable(RandomBoxItem[] items, int[] threshold, int[] alias, RandomBox.DrawMode drawMode) {
+        this.items = items;
+        this.threshold = threshold;
+        this.alias = alias;
+        this.drawMode = drawMode;
+    }
+
+    /**
+     * 아이템 목록으로 확률 방식 별칭 테이블 생성
+     * @param randomBoxItems 랜덤박스 아이템 목록
+     * @return 별칭 테이블
+     */
+    public static ItemAliasTable of(List<RandomBoxItem> randomBoxItems) {
+        return of(randomBoxItems, RandomBox.DrawMode.PROBABILITY);
+    }
+
+    /**
+     * 아이템 목록으로 별칭 테이블 생성
+     * @param randomBoxItems 랜덤박스 아이템 목록
+     * @param drawMode 랜덤박스 추첨 방식
+     * @return 별칭 테이블
+     */
+    public static ItemAliasTable of(List<RandomBoxItem> randomBoxItems, RandomBox.DrawMode drawMode) {
+        if (randomBoxItems.isEmpty()) {
+            throw new IllegalStateException("랜덤박스에 아이템이 없습니다.");
+        }
+        
+        int n = randomBoxItems.size();
+        RandomBoxItem[] items = randomBoxItems.toArray(new RandomBoxItem[0]);
+        
+        // 가중치에 아이템 수를 곱해 열 하나의 용량이 TOTAL_WEIGHT가 되도록 맞춤
+        long[] scaled = new long[n];
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            int weight = items[i].getProbability().movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+            scaled[i] = (long) weight * n;
+            sum += weight;
+        }
+        if (sum > TOTAL_WEIGHT) {
+            throw new IllegalStateException("모든 아이템의 확률 합은 100을 초과할 수 없습니다.");
+        }
+        scaled[n - 1] += (TOTAL_WEIGHT - sum) * n;
+        
+        int[] threshold = new int[n];
+        int[] alias = new int[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            alias[i] = i;
+            if (scaled[i] < TOTAL_WEIGHT) {
+                small.push(i);
+            } else {
+                large.push(i);
+            }
+        }
+        
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            
+            threshold[less] = (int) scaled[less];
+            alias[less] = more;
+            scaled[more] -= TOTAL_WEIGHT - scaled[less];
+            
+            if (scaled[more] < TOTAL_WEIGHT) {
+                small.push(more);
+            } else {
+                large.push(more);
+            }
+        }
+        
+        // 정수 연산이므로 남은 열은 정확히 TOTAL_WEIGHT를 채운다
+        while (!large.isEmpty()) {
+            threshold[large.pop()] = TOTAL_WEIGHT;
+        }
+        while (!small.isEmpty()) {
+            threshold[small.pop()] = TOTAL_WEIGHT;
+        }
+        
+        return new ItemAliasTable(items, threshold, alias, drawMode);
+    }
+
+    /**
+     * 아이템 추첨
+     * @param random 난수 생성기
+     * @return 추첨된 아이템
+     */
+    public RandomBoxItem draw(RandomGenerator random) {
+        return items[drawIndex(random.nextInt(items.length), random.nextInt(TOTAL_WEIGHT))];
+    }
+
+    /**
+     * 여러 번 추첨
+     * @param random 난수 생성기
+     * @param count 추첨 횟수
+     * @return 추첨된 아이템 위치 배열
+     */
+    public int[] drawIndices(RandomGenerator random, int count) {
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = drawIndex(random.nextInt(items.length), random.nextInt(TOTAL_WEIGHT));
+        }
+        return indices;
+    }
+
+    /**
+     * 열과 열 내부 위치로 아이템 위치 결정
+     * @param column 열 (0 이상 아이템 수 미만)
+     * @param coin 열 내부 위치 (0 이상 TOTAL_WEIGHT 미만)
+     * @return 아이템 위치
+     */
+    int drawIndex(int column, int coin) {
+        return coin < threshold[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isPoolMode() {
+        return drawMode == RandomBox.DrawMode.POOL;
+    }
+
+    /**
+     * 아이템 ID로 위치 조회
+     * @param itemId 아이템 ID
+     * @return 아이템 위치
+     */
+    public int indexOf(Long itemId) {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].getId().equals(itemId)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("추첨 테이블에 없는 아이템입니다. 아이템 ID: " + itemId);
+    }
+
+    public RandomBoxItem getItem(int index) {
+        return items[index];
+    }
+}
@@ -0,0 +1,55 @@
+package com.randombox.domain.randombox;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 아이템 구성이 바뀐 랜덤박스의 별칭 테이블을 모든 노드에서 무효화하는 컴포넌트
+ * 커밋 전에 무효화하면 그 사이 추첨이 변경 전 아이템으로 테이블을 다시 만들 수 있으므로 커밋 후에 알린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAliasTableInvalidator {
+
+    private static final String TOPIC_NAME = "randombox:items:changed";
+
+    private final RedissonClient redissonClient;
+    private final RandomBoxService randomBoxService;
+
+    private RTopic topic;
+    private int listenerId;
+
+    @PostConstruct
+    public void subscribe() {
+        topic = redissonClient.getTopic(TOPIC_NAME, LongCodec.INSTANCE);
+        listenerId = topic.addListener(Long.class, (channel, randomBoxId) -> randomBoxService.evictAliasTable(randomBoxId));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (topic != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemsChanged(RandomBoxItemsChangedEvent event) {
+        Long randomBoxId = event.getRandomBoxId();
+        randomBoxService.evictAliasTable(randomBoxId);
+        
+        try {
+            topic.publish(randomBoxId);
+        } catch (Exception e) {
+            log.error("랜덤박스 {} 아이템 변경 알림에 실패했습니다.", randomBoxId, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.randombox.domain.randombox;
+
+/**
+ * 여러 번 추첨한 결과
+ * 추첨 당시의 추첨 테이블과 아이템 위치 배열만 담아 추첨마다 객체를 만들지 않는다.
+ */
+public class ItemDraws {
+
+    private final ItemAliasTable table;
+    private final int[] indices;
+
+    public ItemDraws(ItemAliasTable table, int[] indices) {
+        this.table = table;
+        this.indices = indices;
+    }
+
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * 추첨된 아이템 위치 (추첨 테이블 기준)
+     * @param i 추첨 순서
+     * @return 아이템 위치
+     */
+    public int getIndex(int i) {
+        return indices[i];
+    }
+
+    /**
+     * 추첨된 아이템
+     * @param i 추첨 순서
+     * @return 아이템
+     */
+    public RandomBoxItem getItem(int i) {
+        return table.getItem(indices[i]);
+    }
+}
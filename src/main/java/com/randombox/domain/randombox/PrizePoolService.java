@@ -0,0 +1,205 @@
+package com.randombox.domain.randombox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * 경품 풀 방식 랜덤박스의 아이템별 남은 수량을 Redis 해시로 관리하는 서비스
+ * 남은 수량에 비례한 아이템 선택과 수량 감소를 하나의 스크립트로 실행하므로 여러 노드에서 동시에 추첨해도 초과 지급이 없다.
+ * 남은 수량은 재고 DB 반영 주기에 아이템별로 DB에 기록되며, 풀을 다시 만들 때는 이 값을 기준으로 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PrizePoolService {
+
+    private static final String POOL_KEY_PREFIX = "randombox:pool:";
+    private static final String SOLD_OUT = "SOLD_OUT";
+    private static final String NOT_INITIALIZED = "NOT_INITIALIZED";
+
+    /**
+     * ARGV 하나(0 이상 1 미만 난수)마다 아이템 하나를 남은 수량에 비례해 뽑고 수량을 줄인다.
+     * 남은 수량이 요청 개수보다 적으면 아무것도 뽑지 않는다.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAW_SCRIPT = new DefaultRedisScript<>(
+            "local data = redis.call('HGETALL', KEYS[1]) " +
+            "if #data == 0 then return {'" + NOT_INITIALIZED + "'} end " +
+            "local fields, counts, total = {}, {}, 0 " +
+            "for i = 1, #data, 2 do " +
+            "  fields[#fields + 1] = data[i] " +
+            "  counts[#counts + 1] = tonumber(data[i + 1]) " +
+            "  total = total + counts[#counts] " +
+            "end " +
+            "if total < #ARGV then return {'" + SOLD_OUT + "'} end " +
+            "local result = {} " +
+            "for j = 1, #ARGV do " +
+            "  local pick = math.floor(tonumber(ARGV[j]) * total) " +
+            "  local k = 1 " +
+            "  while pick >= counts[k] do pick = pick - counts[k]; k = k + 1 end " +
+            "  counts[k] = counts[k] - 1 " +
+            "  total = total - 1 " +
+            "  redis.call('HINCRBY', KEYS[1], fields[k], -1) " +
+            "  result[j] = fields[k] " +
+            "end " +
+            "return result",
+            List.class);
+
+    /**
+     * 풀이 없을 때만 아이템별 수량을 한 번에 기록 (다른 노드가 일부만 만들어진 풀에서 추첨하지 않도록 함)
+     * ARGV: 아이템 ID, 수량 쌍
+     */
+    private static final RedisScript<Long> INITIALIZE_IF_ABSENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "for i = 1, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "return 1",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RandomBoxItemRepository randomBoxItemRepository;
+
+    /**
+     * 경품 풀이 없을 때만 DB의 아이템별 남은 수량으로 생성 (이미 있으면 남은 수량을 유지)
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void initializePoolIfAbsent(Long randomBoxId) {
+        Map<String, String> stocks = loadStocks(randomBoxId);
+        Object[] args = new Object[stocks.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> entry : stocks.entrySet()) {
+            args[i++] = entry.getKey();
+            args[i++] = entry.getValue();
+        }
+        
+        Long created = redisTemplate.execute(INITIALIZE_IF_ABSENT_SCRIPT, Collections.singletonList(POOL_KEY_PREFIX + randomBoxId), args);
+        if (created != null && created > 0) {
+            log.info("랜덤박스 {} 경품 풀이 생성되었습니다.", randomBoxId);
+        }
+    }
+    
+    /**
+     * 이미 만들어진 경품 풀에 아이템 수량 추가 (풀이 없으면 첫 추첨 때 DB 기준으로 만들어짐)
+     * @param randomBoxId 랜덤박스 ID
+     * @param itemId 아이템 ID
+     * @param stock 추가할 수량
+     */
+    public void addStock(Long randomBoxId, Long itemId, int stock) {
+        String key = POOL_KEY_PREFIX + randomBoxId;
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            redisTemplate.opsForHash().increment(key, String.valueOf(itemId), stock);
+        }
+    }
+
+    /**
+     * 경품 풀에서 아이템 추첨
+     * @param randomBoxId 랜덤박스 ID
+     * @param table 추첨 결과를 아이템 위치로 바꿀 때 사용할 추첨 테이블
+     * @param random 난수 생성기
+     * @param count 추첨 개수
+     * @return 추첨 결과
+     */
+    public ItemDraws draw(Long randomBoxId, ItemAliasTable table, RandomGenerator random, int count) {
+        List<String> itemIds = execute(randomBoxId, random, count);
+        
+        // 풀이 없으면 DB 기준으로 만들고 다시 시도 (다른 노드가 먼저 만들었으면 그대로 사용)
+        if (itemIds.size() == 1 && NOT_INITIALIZED.equals(itemIds.get(0))) {
+            initializePoolIfAbsent(randomBoxId);
+            itemIds = execute(randomBoxId, random, count);
+        }
+        
+        if (itemIds.size() == 1 && (SOLD_OUT.equals(itemIds.get(0)) || NOT_INITIALIZED.equals(itemIds.get(0)))) {
+            throw new IllegalStateException("남은 경품이 부족합니다.");
+        }
+        
+        int[] indices = new int[itemIds.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = table.indexOf(Long.valueOf(itemIds.get(i)));
+        }
+        return new ItemDraws(table, indices);
+    }
+
+    /**
+     * 추첨된 아이템을 경품 풀에 되돌림 (구매가 롤백된 경우)
+     * @param randomBoxId 랜덤박스 ID
+     * @param draws 추첨 결과
+     */
+    public void restore(Long randomBoxId, ItemDraws draws) {
+        List<Long> itemIds = new ArrayList<>(draws.size());
+        for (int i = 0; i < draws.size(); i++) {
+            itemIds.add(draws.getItem(i).getId());
+        }
+        restoreItems(randomBoxId, itemIds);
+    }
+    
+    /**
+     * 아이템을 하나씩 경품 풀에 되돌림 (구매가 롤백되거나 취소된 경우)
+     * @param randomBoxId 랜덤박스 ID
+     * @param itemIds 되돌릴 아이템 ID 목록 (같은 아이템이 여러 번 있으면 그만큼 되돌림)
+     */
+    public void restoreItems(Long randomBoxId, List<Long> itemIds) {
+        String key = POOL_KEY_PREFIX + randomBoxId;
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (Long itemId : itemIds) {
+                    ops.opsForHash().increment(key, String.valueOf(itemId), 1);
+                }
+                return null;
+            }
+        });
+        
+        log.info("랜덤박스 {} 경품 {}개를 경품 풀에 되돌렸습니다.", randomBoxId, itemIds.size());
+    }
+    
+    /**
+     * 경품 풀의 아이템별 남은 수량을 DB에 기록 (풀이 없으면 아무것도 하지 않음)
+     * @param randomBoxId 랜덤박스 ID
+     * @return 기록한 아이템 수
+     */
+    public int persistRemaining(Long randomBoxId) {
+        Map<Object, Object> pool = redisTemplate.opsForHash().entries(POOL_KEY_PREFIX + randomBoxId);
+        pool.forEach((itemId, remaining) -> randomBoxItemRepository.updateRemainingStock(
+                Long.valueOf(itemId.toString()), Integer.parseInt(remaining.toString())));
+        return pool.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> execute(Long randomBoxId, RandomGenerator random, int count) {
+        Object[] randomValues = new Object[count];
+        for (int i = 0; i < count; i++) {
+            randomValues[i] = String.valueOf(random.nextDouble());
+        }
+        
+        List<String> result = redisTemplate.execute(DRAW_SCRIPT, Collections.singletonList(POOL_KEY_PREFIX + randomBoxId), randomValues);
+        return result != null ? result : Collections.emptyList();
+    }
+
+    private Map<String, String> loadStocks(Long randomBoxId) {
+        Map<String, String> stocks = new HashMap<>();
+        for (RandomBoxItem item : randomBoxItemRepository.findByRandomBoxId(randomBoxId)) {
+            // 수량이 없는 아이템도 0으로 넣어 두어 풀이 초기화되었는지 구분할 수 있게 한다
+            Integer remaining = item.getRemainingStock() != null ? item.getRemainingStock() : item.getStock();
+            stocks.put(String.valueOf(item.getId()), String.valueOf(remaining != null ? remaining : 0));
+        }
+        if (stocks.isEmpty()) {
+            throw new IllegalStateException("랜덤박스에 아이템이 없습니다.");
+        }
+        return stocks;
+    }
+}
@@ -36,18 +36,23 @@ public class RandomBox {
     @Column(nullable = false)
     private LocalDateTime salesEndTime;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DrawMode drawMode;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
     @Builder
     public RandomBox(String name, String description, Integer price, Integer quantity,
-                    LocalDateTime salesStartTime, LocalDateTime salesEndTime) {
+                    LocalDateTime salesStartTime, LocalDateTime salesEndTime, DrawMode drawMode) {
         this.name = name;
         this.description = description;
         this.price = price;
         this.quantity = quantity;
         this.salesStartTime = salesStartTime;
         this.salesEndTime = salesEndTime;
+        this.drawMode = drawMode != null ? drawMode : DrawMode.PROBABILITY;
         this.createdAt = LocalDateTime.now();
     }
 
@@ -79,4 +84,22 @@ public class RandomBox {
         this.quantity = newQuantity;
         this.updatedAt = LocalDateTime.now();
     }
+
+    public void changeDrawMode(DrawMode drawMode) {
+        this.drawMode = drawMode;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isPoolMode() {
+        return drawMode == DrawMode.POOL;
+    }
+
+    /**
+     * 아이템 추첨 방식
+     * PROBABILITY: 아이템별 고정 확률로 추첨 (복원 추첨)
+     * POOL: 아이템별 남은 수량에 비례해 추첨하고 뽑힌 아이템 수량을 줄임 (비복원 추첨)
+     */
+    public enum DrawMode {
+        PROBABILITY, POOL
+    }
 }
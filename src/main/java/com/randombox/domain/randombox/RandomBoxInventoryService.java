@@ -1,12 +1,19 @@
 package com.randombox.domain.randombox;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -14,44 +21,136 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class RandomBoxInventoryService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final RedissonClient redissonClient;
+    private final RedisInventoryCounter inventoryCounter;
     private final RandomBoxRepository randomBoxRepository;
+    private final SoldOutCache soldOutCache;
     
     private static final String INVENTORY_KEY_PREFIX = "randombox:inventory:";
-    private static final String LOCK_KEY_PREFIX = "randombox:lock:";
-    private static final int LOCK_WAIT_TIME = 5; // 초
-    private static final int LOCK_LEASE_TIME = 3; // 초
+    private static final String RESERVED_BOXES_KEY = "randombox:inventory:reserved-boxes";
+    private static final String WRITE_BEHIND_KEY = "randombox:inventory:write-behind";
+    private static final String DIRTY_KEY = "randombox:inventory:dirty";
+    private static final String LEASED_BOXES_KEY = "randombox:inventory:leased-boxes";
+    private static final String LEASE_NODE_KEY_PREFIX = "randombox:inventory:lease-node:";
+    private static final int COMMIT_MAX_ATTEMPTS = 3;
 
     /**
-     * 랜덤박스 재고 초기화
+     * initializeInventory(Long) 호출 시 사용할 기본 재고 분할 수
+     */
+    @Value("${randombox.inventory.default-stripe-count:1}")
+    private int defaultStripeCount = 1;
+
+    /**
+     * 노드별 재고 임대 사용 여부
+     * 사용 시 중앙 재고 대신 임대 재고에서 메모리로 옮겨 둔 재고에서 먼저 차감한다.
+     * 메모리 재고가 떨어졌을 때만 Redis를 호출하므로 구매마다 Redis 왕복이 발생하지 않는다.
+     */
+    @Value("${randombox.inventory.lease.enabled:false}")
+    private boolean leaseEnabled = false;
+
+    /**
+     * 임대 재고가 모자랄 때 중앙 재고에서 한 번에 가져올 수량
+     */
+    @Value("${randombox.inventory.lease.size:50}")
+    private int leaseSize = 50;
+
+    /**
+     * 임대 재고에서 한 번에 메모리로 옮길 수량 (노드가 비정상 종료되면 이 수량 이하만 잃음)
+     */
+    @Value("${randombox.inventory.lease.local-size:10}")
+    private int leaseLocalSize = 10;
+
+    /**
+     * 이 시간 동안 사용하지 않은 임대 재고는 중앙 재고로 반납
+     */
+    @Value("${randombox.inventory.lease.ttl-seconds:30}")
+    private int leaseTtlSeconds = 30;
+
+    /**
+     * 노드 생존 키 유지 시간 (이 시간 동안 갱신되지 않은 노드의 임대 재고는 다른 노드가 회수)
+     */
+    @Value("${randombox.inventory.lease.node-ttl-seconds:60}")
+    private long leaseNodeTtlSeconds = 60;
+
+    // 임대 재고를 기록할 때 사용하는 이 노드의 ID
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 랜덤박스별 이 노드가 메모리로 옮겨 둔 임대 재고
+    private final Map<Long, InventoryLease> leases = new ConcurrentHashMap<>();
+
+    @Value("${randombox.inventory.reservation.sweep-batch-size:100}")
+    private int reservationSweepBatchSize = 100;
+
+    // 마지막 DB 반영 이후 이 노드에서 재고가 변경된 랜덤박스
+    private final Set<Long> dirtyBoxIds = ConcurrentHashMap.newKeySet();
+
+    // 이 노드가 예약이 있는 랜덤박스로 등록한 랜덤박스 (판매가 끝나 추적 대상에서 빠질 때까지 등록 상태 유지)
+    private final Set<Long> reservedBoxIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 랜덤박스 재고 초기화 (기본 분할 수 사용)
      * @param randomBoxId 랜덤박스 ID
      */
     public void initializeInventory(Long randomBoxId) {
+        initializeInventory(randomBoxId, defaultStripeCount);
+    }
+    
+    /**
+     * 랜덤박스 재고 초기화
+     * 분할 수가 2 이상이면 재고를 여러 하위 카운터에 나누어 저장해 단일 키에 요청이 몰리지 않게 한다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param stripeCount 재고 분할 수
+     */
+    public void initializeInventory(Long randomBoxId, int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("재고 분할 수는 1 이상이어야 합니다.");
+        }
+        
         RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
         
-        String key = INVENTORY_KEY_PREFIX + randomBoxId;
-        redisTemplate.opsForValue().set(key, randomBox.getQuantity());
+        // 이전 분할 구성의 하위 카운터 삭제와 새 구성 기록을 한 번의 스크립트로 실행
+        inventoryCounter.reset(inventoryKey(randomBoxId), randomBox.getQuantity(), stripeCount);
+        discardLocalLease(randomBoxId);
+        refreshSoldOut(randomBoxId, randomBox.getQuantity());
         
-        log.info("랜덤박스 {} 재고가 {}개로 초기화되었습니다.", randomBoxId, randomBox.getQuantity());
+        log.info("랜덤박스 {} 재고가 {}개로 초기화되었습니다. 분할 수: {}", randomBoxId, randomBox.getQuantity(), stripeCount);
+    }
+    
+    /**
+     * 여러 랜덤박스 재고를 미리 적재 (판매 시작 전 준비용)
+     * 이미 재고 키가 있는 랜덤박스는 판매 중일 수 있으므로 덮어쓰지 않는다.
+     * @param randomBoxes 랜덤박스 목록
+     * @return 새로 적재된 랜덤박스 수
+     */
+    public int warmUpInventory(List<RandomBox> randomBoxes) {
+        int created = 0;
+        for (RandomBox randomBox : randomBoxes) {
+            // 랜덤박스마다 키 슬롯이 다르므로 랜덤박스별로 실행
+            if (inventoryCounter.initializeIfAbsent(inventoryKey(randomBox.getId()), randomBox.getQuantity(), defaultStripeCount)) {
+                created++;
+            }
+        }
+        return created;
     }
     
     /**
      * 랜덤박스 재고 조회
+     * 분할된 재고는 모든 하위 카운터의 합계에 모든 노드가 임대 중인 재고와 이 노드의 메모리 재고를 더한다.
+     * 다른 노드가 메모리로 옮겨 둔 재고(노드당 임대 재고 메모리 단위 이하)는 포함되지 않는다.
      * @param randomBoxId 랜덤박스 ID
      * @return 재고 수량
      */
     public int getInventory(Long randomBoxId) {
-        String key = INVENTORY_KEY_PREFIX + randomBoxId;
-        Object value = redisTemplate.opsForValue().get(key);
+        String key = inventoryKey(randomBoxId);
+        long value = inventoryCounter.total(key);
         
-        if (value == null) {
-            initializeInventory(randomBoxId);
-            value = redisTemplate.opsForValue().get(key);
+        if (value == RedisInventoryCounter.NOT_INITIALIZED) {
+            initializeInventoryIfAbsent(randomBoxId);
+            value = inventoryCounter.total(key);
         }
         
-        return value instanceof Integer ? (Integer) value : 0;
+        InventoryLease lease = leases.get(randomBoxId);
+        return (int) Math.max(value, 0) + (lease != null ? lease.remaining() : 0);
     }
     
     /**
@@ -61,130 +160,617 @@ public class RandomBoxInventoryService {
      * @return 성공 여부
      */
     public boolean decreaseInventory(Long randomBoxId, int quantity) {
-        String lockKey = LOCK_KEY_PREFIX + randomBoxId;
-        RLock lock = redissonClient.getLock(lockKey);
+        boolean decreased = decreaseInventoryInternal(randomBoxId, quantity);
+        afterDecrease(randomBoxId, decreased);
+        return decreased;
+    }
+    
+    private void afterDecrease(Long randomBoxId, boolean decreased) {
+        if (decreased) {
+            markDirty(randomBoxId);
+        }
+    }
+    
+    /**
+     * 재고 부족으로 거절
+     * 차감을 시도한 스크립트가 중앙 재고와 모든 임대 재고가 0임을 확인한 경우에만 품절로 표시한다.
+     * 차감과 분리된 재고 조회로 판단하면 그 사이에 복구된 재고를 놓쳐 판매 가능한 랜덤박스를 품절로 표시할 수 있다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 요청 수량
+     * @param result 스크립트 결과
+     */
+    private void rejectShortage(Long randomBoxId, int quantity, long result) {
+        if (result == RedisInventoryCounter.SOLD_OUT) {
+            // 재고가 모두 소진되었으면 이후 요청은 재고 조회 없이 거절되도록 품절 표시
+            soldOutCache.markSoldOut(randomBoxId);
+        }
+        log.warn("랜덤박스 {} 재고가 부족합니다. 요청 수량: {}", randomBoxId, quantity);
+    }
+    
+    private boolean decreaseInventoryInternal(Long randomBoxId, int quantity) {
+        if (leaseEnabled) {
+            return decreaseLeasedInventory(randomBoxId, quantity);
+        }
         
-        try {
-            // 분산 락 획득 시도
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
-            
-            if (!locked) {
-                log.warn("랜덤박스 {} 재고 감소를 위한 락 획득에 실패했습니다.", randomBoxId);
-                return false;
-            }
-            
-            // 재고 확인
-            int currentInventory = getInventory(randomBoxId);
-            
-            if (currentInventory < quantity) {
-                log.warn("랜덤박스 {} 재고가 부족합니다. 현재 재고: {}, 요청 수량: {}", randomBoxId, currentInventory, quantity);
-                return false;
+        // 확인과 감소가 스크립트 한 번으로 실행되므로 분산 락이 필요 없음 (DB 반영은 InventoryWriteBehindFlusher가 모아서 처리)
+        return decreaseInventoryByScript(randomBoxId, quantity);
+    }
+    
+    /**
+     * 랜덤박스 재고 증가
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 증가시킬 수량
+     * @return 성공 여부
+     */
+    public boolean increaseInventory(Long randomBoxId, int quantity) {
+        boolean increased = increaseInventoryByScript(randomBoxId, quantity);
+        if (increased) {
+            markDirty(randomBoxId);
+            soldOutCache.markAvailable(randomBoxId);
+        }
+        return increased;
+    }
+    
+    /**
+     * 관리자가 변경한 재고 수량을 Redis 재고에 차이만큼 반영
+     * 판매 중에는 Redis 재고가 DB 반영 때 DB를 덮어쓰므로, DB만 바꾸면 다음 반영 때 변경이 사라진다.
+     * 남은 재고보다 많이 줄이면 더 판매할 재고가 없으므로 0으로 설정하고, Redis에 재고가 없으면 처음 조회할 때 DB 재고로 초기화되므로 반영할 것이 없다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param delta 변경 수량 (음수면 감소)
+     */
+    public void adjustInventory(Long randomBoxId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        
+        String key = inventoryKey(randomBoxId);
+        long result = delta > 0 ? inventoryCounter.increase(key, delta) : inventoryCounter.decrease(key, -delta);
+        if (result == RedisInventoryCounter.NOT_INITIALIZED) {
+            return;
+        }
+        
+        if (result < 0) {
+            // 모든 노드의 임대 재고도 재설정 스크립트에서 함께 버린다
+            inventoryCounter.reset(key, 0, 0);
+            discardLocalLease(randomBoxId);
+            soldOutCache.markSoldOut(randomBoxId);
+            log.info("랜덤박스 {} 남은 재고보다 많이 줄여 재고를 0으로 설정했습니다. 변경 수량: {}", randomBoxId, delta);
+        } else {
+            if (delta > 0) {
+                soldOutCache.markAvailable(randomBoxId);
             }
-            
-            // 재고 감소
-            String key = INVENTORY_KEY_PREFIX + randomBoxId;
-            redisTemplate.opsForValue().set(key, currentInventory - quantity);
-            
-            // DB 재고 업데이트 (비동기로 처리할 수도 있음)
-            RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
-                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
-            randomBox.updateQuantity(randomBox.getQuantity() - quantity);
-            randomBoxRepository.save(randomBox);
-            
-            log.info("랜덤박스 {} 재고가 {}개 감소했습니다. 남은 재고: {}", randomBoxId, quantity, currentInventory - quantity);
-            
-            return true;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("랜덤박스 {} 재고 감소 중 인터럽트가 발생했습니다.", randomBoxId, e);
+            log.info("랜덤박스 {} 재고 변경분 {}개를 Redis 재고에 반영했습니다.", randomBoxId, delta);
+        }
+        markDirty(randomBoxId);
+    }
+    
+    /**
+     * 랜덤박스 재고 동기화
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void synchronizeInventory(Long randomBoxId) {
+        // DB 재고가 기준이 되므로 모든 노드의 임대 재고는 재설정 스크립트에서 함께 버리고, 이 노드의 메모리 재고도 버린다
+        synchronizeInventoryByScript(randomBoxId);
+        discardLocalLease(randomBoxId);
+        refreshSoldOut(randomBoxId, getInventory(randomBoxId));
+    }
+    
+    /**
+     * 품절 여부 확인 (노드 로컬 캐시만 조회)
+     * @param randomBoxId 랜덤박스 ID
+     * @return 품절 여부
+     */
+    public boolean isSoldOut(Long randomBoxId) {
+        return soldOutCache.isSoldOut(randomBoxId);
+    }
+    
+    /**
+     * 재고 예약
+     * 재고를 즉시 차감하고 만료 시각과 함께 예약을 기록한다. 만료 전에 commit되지 않으면 스케줄러가 재고를 되돌린다.
+     * 중앙 재고에서 예약할 때는 차감과 예약 기록을 스크립트 한 번으로 실행하므로 그 사이에 재고가 사라지지 않는다.
+     * 임대 재고에서 예약할 때는 메모리 재고에서 차감한 뒤 예약만 기록하고, 기록에 실패하면 메모리 재고로 되돌린다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 예약 수량
+     * @param ttl 예약 유지 시간
+     * @return 예약 토큰, 재고 부족 시 null
+     */
+    public String reserve(Long randomBoxId, int quantity, Duration ttl) {
+        // 토큰 자체에 랜덤박스 ID와 수량을 담아 만료 처리 시 추가 조회가 필요 없게 한다
+        String token = randomBoxId + ":" + quantity + ":" + UUID.randomUUID();
+        long expiresAtMillis = System.currentTimeMillis() + ttl.toMillis();
+        
+        boolean reserved = leaseEnabled
+                ? reserveFromLease(randomBoxId, quantity, token, expiresAtMillis)
+                : reserveFromCentral(randomBoxId, quantity, token, expiresAtMillis);
+        afterDecrease(randomBoxId, reserved);
+        
+        return reserved ? token : null;
+    }
+    
+    private boolean reserveFromCentral(Long randomBoxId, int quantity, String token, long expiresAtMillis) {
+        String key = inventoryKey(randomBoxId);
+        markReserved(randomBoxId);
+        long remaining = inventoryCounter.reserve(key, token, quantity, expiresAtMillis);
+        
+        if (remaining == RedisInventoryCounter.NOT_INITIALIZED) {
+            initializeInventoryIfAbsent(randomBoxId);
+            remaining = inventoryCounter.reserve(key, token, quantity, expiresAtMillis);
+        }
+        
+        if (remaining < 0) {
+            rejectShortage(randomBoxId, quantity, remaining);
+            return false;
+        }
+        return true;
+    }
+    
+    private boolean reserveFromLease(Long randomBoxId, int quantity, String token, long expiresAtMillis) {
+        if (!decreaseLeasedInventory(randomBoxId, quantity)) {
             return false;
-        } finally {
-            // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
+        }
+        
+        try {
+            markReserved(randomBoxId);
+            inventoryCounter.recordReservation(inventoryKey(randomBoxId), token, quantity, expiresAtMillis);
+            return true;
+        } catch (RuntimeException e) {
+            // 예약을 기록하지 못했으면 메모리 재고로 되돌림
+            lease(randomBoxId).add(quantity);
+            throw e;
+        }
+    }
+    
+    /**
+     * 예약 확정
+     * 확정에 실패한 예약은 만료 시 재고가 복구되어 초과 판매로 이어지므로 몇 번 더 시도한다.
+     * @param token 예약 토큰
+     * @return 확정 여부 (이미 만료되어 재고가 복구된 예약이면 false)
+     */
+    public boolean commit(String token) {
+        String[] parts = token.split(":");
+        String key = inventoryKey(Long.valueOf(parts[0]));
+        int quantity = Integer.parseInt(parts[1]);
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                boolean committed = inventoryCounter.commit(key, token, quantity);
+                if (!committed) {
+                    log.warn("이미 만료되었거나 처리된 재고 예약입니다. 토큰: {}", token);
+                }
+                return committed;
+            } catch (RuntimeException e) {
+                if (attempt >= COMMIT_MAX_ATTEMPTS) {
+                    log.error("재고 예약 확정에 {}번 실패했습니다. 예약이 만료되면 판매된 재고가 복구됩니다. 토큰: {}", attempt, token, e);
+                    return false;
+                }
+                log.warn("재고 예약 확정에 실패해 다시 시도합니다. 시도 횟수: {}, 토큰: {}", attempt, token, e);
             }
         }
     }
     
     /**
-     * 랜덤박스 재고 증가
+     * 예약 취소 (재고 복구)
+     * 예약 제거와 재고 복구를 스크립트 한 번으로 실행하므로 여러 노드가 같은 예약을 취소해도 한 번만 복구된다.
+     * @param token 예약 토큰
+     * @return 취소 여부
+     */
+    public boolean release(String token) {
+        String[] parts = token.split(":");
+        Long randomBoxId = Long.valueOf(parts[0]);
+        int quantity = Integer.parseInt(parts[1]);
+        
+        long current = inventoryCounter.release(inventoryKey(randomBoxId), token, quantity);
+        if (current == RedisInventoryCounter.NOT_RESERVED) {
+            return false;
+        }
+        if (current == RedisInventoryCounter.NOT_INITIALIZED) {
+            log.warn("랜덤박스 {} 재고가 삭제되어 예약 재고 {}개를 복구하지 못했습니다.", randomBoxId, quantity);
+            return false;
+        }
+        
+        markDirty(randomBoxId);
+        soldOutCache.markAvailable(randomBoxId);
+        return true;
+    }
+    
+    /**
+     * 만료된 예약의 재고 복구
+     * 예약이 있는 랜덤박스마다 만료 시각 순으로 정렬된 집합에서 일정 개수씩 꺼내 처리하며, 집합에서 먼저 제거한 노드만 재고를 복구한다.
+     */
+    @Scheduled(fixedDelayString = "${randombox.inventory.reservation.sweep-interval-ms:1000}")
+    public void releaseExpiredReservations() {
+        for (String member : inventoryCounter.members(RESERVED_BOXES_KEY)) {
+            String key = inventoryKey(Long.valueOf(member));
+            List<String> expired;
+            do {
+                expired = inventoryCounter.expiredReservations(key, System.currentTimeMillis(), reservationSweepBatchSize);
+                
+                for (String token : expired) {
+                    if (release(token)) {
+                        log.info("만료된 재고 예약을 복구했습니다. 토큰: {}", token);
+                    }
+                }
+            } while (expired.size() == reservationSweepBatchSize);
+        }
+    }
+    
+    /**
+     * DB 반영이 필요한 랜덤박스 ID를 꺼내고 목록을 비움
+     * @return 재고가 변경된 랜덤박스 ID 목록
+     */
+    public List<Long> drainDirtyBoxIds() {
+        List<Long> randomBoxIds = new ArrayList<>(dirtyBoxIds);
+        dirtyBoxIds.removeAll(randomBoxIds);
+        return randomBoxIds;
+    }
+    
+    /**
+     * 이 노드에서 재고가 변경된 랜덤박스 ID를 모든 노드가 공유하는 목록으로 옮김
+     * 공유 목록은 DB 반영 권한을 얻은 노드 하나가 {@link #takeSharedDirtyBoxIds()}로 꺼내 반영한다.
+     */
+    public void shareDirtyBoxIds() {
+        List<String> members = new ArrayList<>();
+        for (Long randomBoxId : drainDirtyBoxIds()) {
+            members.add(String.valueOf(randomBoxId));
+        }
+        if (!members.isEmpty()) {
+            inventoryCounter.addMembers(DIRTY_KEY, members);
+        }
+    }
+    
+    /**
+     * 모든 노드가 공유하는 DB 반영 대상 랜덤박스 ID를 꺼내고 목록을 비움
+     * @return 재고가 변경된 랜덤박스 ID 목록
+     */
+    public List<Long> takeSharedDirtyBoxIds() {
+        List<Long> randomBoxIds = new ArrayList<>();
+        for (String member : inventoryCounter.popMembers(DIRTY_KEY)) {
+            randomBoxIds.add(Long.valueOf(member));
+        }
+        return randomBoxIds;
+    }
+    
+    /**
+     * DB에 반영할 재고 조회
+     * 중앙 재고에 모든 노드의 임대 재고와 확정 전인 예약 수량을 더한 값으로, 노드나 Redis가 중단되어도 판매되지 않은 재고를 잃지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     * @return 재고 수량, Redis에 재고가 없으면 null
+     */
+    public Integer getPersistedInventory(Long randomBoxId) {
+        long value = inventoryCounter.totalWithReservations(inventoryKey(randomBoxId));
+        return value >= 0 ? (int) value : null;
+    }
+    
+    /**
+     * Redis 재고가 DB보다 앞서 있을 수 있는 모든 랜덤박스 ID 조회 (노드 재시작 시 보정용)
+     * @return 랜덤박스 ID 목록
+     */
+    public List<Long> getWriteBehindBoxIds() {
+        List<Long> randomBoxIds = new ArrayList<>();
+        for (String member : inventoryCounter.members(WRITE_BEHIND_KEY)) {
+            randomBoxIds.add(Long.valueOf(member));
+        }
+        return randomBoxIds;
+    }
+    
+    /**
+     * DB 반영 대상 표시
+     * 노드 로컬 목록에 처음 추가될 때만 Redis에 기록하므로 구매마다 Redis 호출이 늘지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void markDirty(Long randomBoxId) {
+        if (dirtyBoxIds.add(randomBoxId)) {
+            inventoryCounter.addMember(WRITE_BEHIND_KEY, String.valueOf(randomBoxId));
+        }
+    }
+    
+    /**
+     * 판매가 끝나 더 이상 DB 반영이 필요 없는 랜덤박스를 추적 대상에서 제외 (예약 만료 처리 대상에서도 제외)
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void untrackWriteBehind(Long randomBoxId) {
+        inventoryCounter.removeMember(WRITE_BEHIND_KEY, String.valueOf(randomBoxId));
+        inventoryCounter.removeMember(RESERVED_BOXES_KEY, String.valueOf(randomBoxId));
+        reservedBoxIds.remove(randomBoxId);
+    }
+    
+    /**
+     * 예약 만료 처리 대상 표시
+     * 노드 로컬 목록에 처음 추가될 때만 Redis에 기록하므로 예약마다 Redis 호출이 늘지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     */
+    private void markReserved(Long randomBoxId) {
+        if (reservedBoxIds.add(randomBoxId)) {
+            inventoryCounter.addMember(RESERVED_BOXES_KEY, String.valueOf(randomBoxId));
+        }
+    }
+    
+    /**
+     * 스크립트 방식 재고 감소 (Redis 카운터만 원자적으로 감소)
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 감소시킬 수량
+     * @return 성공 여부
+     */
+    private boolean decreaseInventoryByScript(Long randomBoxId, int quantity) {
+        String key = inventoryKey(randomBoxId);
+        long remaining = inventoryCounter.decrease(key, quantity);
+        
+        if (remaining == RedisInventoryCounter.NOT_INITIALIZED) {
+            initializeInventoryIfAbsent(randomBoxId);
+            remaining = inventoryCounter.decrease(key, quantity);
+        }
+        
+        if (remaining < 0) {
+            rejectShortage(randomBoxId, quantity, remaining);
+            return false;
+        }
+        
+        log.debug("랜덤박스 {} 재고가 {}개 감소했습니다.", randomBoxId, quantity);
+        return true;
+    }
+    
+    /**
+     * 스크립트 방식 재고 증가
      * @param randomBoxId 랜덤박스 ID
      * @param quantity 증가시킬 수량
      * @return 성공 여부
      */
-    public boolean increaseInventory(Long randomBoxId, int quantity) {
-        String lockKey = LOCK_KEY_PREFIX + randomBoxId;
-        RLock lock = redissonClient.getLock(lockKey);
+    private boolean increaseInventoryByScript(Long randomBoxId, int quantity) {
+        String key = inventoryKey(randomBoxId);
+        long current = inventoryCounter.increase(key, quantity);
         
-        try {
-            // 분산 락 획득 시도
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
-            
-            if (!locked) {
-                log.warn("랜덤박스 {} 재고 증가를 위한 락 획득에 실패했습니다.", randomBoxId);
+        if (current == RedisInventoryCounter.NOT_INITIALIZED) {
+            initializeInventoryIfAbsent(randomBoxId);
+            current = inventoryCounter.increase(key, quantity);
+        }
+        
+        log.debug("랜덤박스 {} 재고가 {}개 증가했습니다.", randomBoxId, quantity);
+        return current >= 0;
+    }
+    
+    /**
+     * 스크립트 방식 재고 동기화 (현재 분할 구성에 맞춰 한 번의 스크립트로 다시 기록하므로 락이 필요 없음)
+     * @param randomBoxId 랜덤박스 ID
+     */
+    private void synchronizeInventoryByScript(Long randomBoxId) {
+        RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
+        
+        inventoryCounter.reset(inventoryKey(randomBoxId), randomBox.getQuantity(), 0);
+        
+        log.info("랜덤박스 {} 재고가 DB와 동기화되었습니다. 현재 재고: {}", randomBoxId, randomBox.getQuantity());
+    }
+    
+    /**
+     * 재고 키가 없을 때만 DB 재고로 초기화 (기본 분할 수 사용)
+     * 동시에 여러 요청이 초기화를 시도해도 먼저 설정된 값을 덮어쓰지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     */
+    private void initializeInventoryIfAbsent(Long randomBoxId) {
+        RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
+        
+        if (inventoryCounter.initializeIfAbsent(inventoryKey(randomBoxId), randomBox.getQuantity(), defaultStripeCount)) {
+            log.info("랜덤박스 {} 재고가 {}개로 초기화되었습니다.", randomBoxId, randomBox.getQuantity());
+        }
+    }
+    
+    /**
+     * 임대 재고 감소
+     * 메모리 재고에서 원자적으로 차감하고, 모자랄 때만 Redis의 임대 재고에서 메모리 단위만큼 꺼내 온다.
+     * 임대 재고는 중앙 재고에서 먼저 차감되므로 초과 판매는 발생하지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 감소시킬 수량
+     * @return 성공 여부
+     */
+    private boolean decreaseLeasedInventory(Long randomBoxId, int quantity) {
+        InventoryLease lease = lease(randomBoxId);
+        
+        while (!lease.tryTake(quantity)) {
+            long result = refillLease(randomBoxId, lease, quantity);
+            if (result < 0) {
+                // 메모리에 남은 재고는 다른 노드가 쓸 수 있게 중앙 재고로 반납 (반납한 재고가 있으면 품절이 아님)
+                long returned = returnLease(randomBoxId, lease);
+                rejectShortage(randomBoxId, quantity, returned > 0 ? RedisInventoryCounter.INSUFFICIENT : result);
                 return false;
             }
+        }
+        
+        log.debug("랜덤박스 {} 임대 재고에서 {}개를 차감했습니다. 메모리 재고: {}", randomBoxId, quantity, lease.remaining());
+        return true;
+    }
+    
+    private InventoryLease lease(Long randomBoxId) {
+        return leases.computeIfAbsent(randomBoxId, id -> new InventoryLease());
+    }
+    
+    /**
+     * 임대 재고에서 메모리 재고 보충
+     * 처음 임대하는 랜덤박스는 노드가 비정상 종료되어도 회수되도록 먼저 임대 중인 랜덤박스로 등록한다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param lease 메모리 재고
+     * @param quantity 당장 필요한 수량
+     * @return 꺼내 온 수량 (다른 스레드가 이미 보충했으면 0), 재고 부족 시 음수 결과 코드
+     */
+    private long refillLease(Long randomBoxId, InventoryLease lease, int quantity) {
+        synchronized (lease) {
+            int remaining = lease.remaining();
+            if (remaining >= quantity) {
+                return 0;
+            }
             
-            // 재고 증가
-            int currentInventory = getInventory(randomBoxId);
-            String key = INVENTORY_KEY_PREFIX + randomBoxId;
-            redisTemplate.opsForValue().set(key, currentInventory + quantity);
+            if (lease.register()) {
+                inventoryCounter.addMember(LEASED_BOXES_KEY, String.valueOf(randomBoxId));
+                inventoryCounter.setWithTtl(LEASE_NODE_KEY_PREFIX + nodeId, "1", leaseNodeTtlSeconds);
+            }
             
-            // DB 재고 업데이트 (비동기로 처리할 수도 있음)
-            RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
-                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
-            randomBox.updateQuantity(randomBox.getQuantity() + quantity);
-            randomBoxRepository.save(randomBox);
+            String key = inventoryKey(randomBoxId);
+            int amount = Math.max(leaseLocalSize, quantity - remaining);
+            long moved = inventoryCounter.refillLease(key, nodeId, leaseSize, amount);
             
-            log.info("랜덤박스 {} 재고가 {}개 증가했습니다. 현재 재고: {}", randomBoxId, quantity, currentInventory + quantity);
+            if (moved == RedisInventoryCounter.NOT_INITIALIZED) {
+                initializeInventoryIfAbsent(randomBoxId);
+                moved = inventoryCounter.refillLease(key, nodeId, leaseSize, amount);
+            }
             
-            return true;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("랜덤박스 {} 재고 증가 중 인터럽트가 발생했습니다.", randomBoxId, e);
-            return false;
-        } finally {
-            // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
+            if (moved > 0) {
+                lease.add((int) moved);
+                log.debug("랜덤박스 {} 임대 재고 {}개를 메모리로 옮겼습니다.", randomBoxId, moved);
             }
+            return moved;
         }
     }
     
     /**
-     * 랜덤박스 재고 동기화
+     * 이 노드의 임대 재고와 메모리 재고를 중앙 재고로 반납
      * @param randomBoxId 랜덤박스 ID
+     * @param lease 메모리 재고
+     * @return 반납한 수량
      */
-    public void synchronizeInventory(Long randomBoxId) {
-        String lockKey = LOCK_KEY_PREFIX + randomBoxId;
-        RLock lock = redissonClient.getLock(lockKey);
-        
-        try {
-            // 분산 락 획득 시도
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+    private long returnLease(Long randomBoxId, InventoryLease lease) {
+        synchronized (lease) {
+            int local = lease.drain();
+            long returned;
+            try {
+                returned = inventoryCounter.returnLease(inventoryKey(randomBoxId), nodeId, local);
+            } catch (RuntimeException e) {
+                // 반납하지 못한 메모리 재고는 다시 사용
+                lease.add(local);
+                throw e;
+            }
+            lease.unregister();
             
-            if (!locked) {
-                log.warn("랜덤박스 {} 재고 동기화를 위한 락 획득에 실패했습니다.", randomBoxId);
-                return;
+            if (returned == RedisInventoryCounter.NOT_INITIALIZED) {
+                log.warn("랜덤박스 {} 재고가 삭제되어 임대 재고를 반납하지 못했습니다.", randomBoxId);
+                return 0;
+            }
+            if (returned > 0) {
+                soldOutCache.markAvailable(randomBoxId);
+                log.info("랜덤박스 {} 임대 재고 {}개를 반납했습니다.", randomBoxId, returned);
+            }
+            return returned;
+        }
+    }
+    
+    /**
+     * 재고를 다시 설정한 랜덤박스의 메모리 재고 버리기 (Redis 임대 재고는 재설정 스크립트가 함께 삭제)
+     * @param randomBoxId 랜덤박스 ID
+     */
+    private void discardLocalLease(Long randomBoxId) {
+        InventoryLease lease = leases.get(randomBoxId);
+        if (lease != null) {
+            synchronized (lease) {
+                lease.drain();
+                lease.unregister();
             }
+        }
+    }
+    
+    /**
+     * 오래 사용하지 않은 임대 재고 반납
+     * 임대 재고가 남아 있는 동안에는 노드 생존 키를 갱신해 다른 노드가 회수하지 않게 한다.
+     */
+    @Scheduled(fixedDelayString = "${randombox.inventory.lease.sweep-interval-ms:5000}")
+    public void returnExpiredLeases() {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(leaseTtlSeconds);
+        leases.forEach((randomBoxId, lease) -> {
+            if (lease.isRegistered() && lease.isExpired(ttlMillis)) {
+                returnLease(randomBoxId, lease);
+            }
+        });
+        
+        // 다른 노드가 임대 기록이 빈 랜덤박스를 목록에서 지우는 사이에 임대한 경우를 위해 임대 중인 랜덤박스도 다시 등록
+        List<String> leasedBoxIds = new ArrayList<>();
+        leases.forEach((randomBoxId, lease) -> {
+            if (lease.isRegistered()) {
+                leasedBoxIds.add(String.valueOf(randomBoxId));
+            }
+        });
+        if (!leasedBoxIds.isEmpty()) {
+            inventoryCounter.setWithTtl(LEASE_NODE_KEY_PREFIX + nodeId, "1", leaseNodeTtlSeconds);
+            inventoryCounter.addMembers(LEASED_BOXES_KEY, leasedBoxIds);
+        }
+    }
+    
+    /**
+     * 비정상 종료된 노드의 임대 재고 회수
+     * 생존 키가 사라진 노드를 먼저 찾고, 그 노드들의 임대 재고만 스크립트로 회수한다.
+     * 여러 노드에서 동시에 실행되어도 스크립트가 회수한 필드를 지우므로 한 번만 회수된다.
+     */
+    @Scheduled(fixedDelayString = "${randombox.inventory.lease.reclaim-interval-ms:10000}")
+    public void reclaimLeases() {
+        for (String member : inventoryCounter.members(LEASED_BOXES_KEY)) {
+            Long randomBoxId = Long.valueOf(member);
+            String key = inventoryKey(randomBoxId);
             
-            // DB에서 최신 재고 조회
-            RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
-                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
+            List<String> deadNodeIds = new ArrayList<>();
+            for (String leaseNodeId : inventoryCounter.leaseNodeIds(key)) {
+                if (!inventoryCounter.exists(LEASE_NODE_KEY_PREFIX + leaseNodeId)) {
+                    deadNodeIds.add(leaseNodeId);
+                }
+            }
             
-            // Redis 재고 업데이트
-            String key = INVENTORY_KEY_PREFIX + randomBoxId;
-            redisTemplate.opsForValue().set(key, randomBox.getQuantity());
+            if (!deadNodeIds.isEmpty()) {
+                long reclaimed = inventoryCounter.reclaimLeases(key, deadNodeIds);
+                if (reclaimed > 0) {
+                    soldOutCache.markAvailable(randomBoxId);
+                    log.info("랜덤박스 {}에서 종료된 노드의 임대 재고 {}개를 회수했습니다.", randomBoxId, reclaimed);
+                }
+            }
             
-            log.info("랜덤박스 {} 재고가 DB와 동기화되었습니다. 현재 재고: {}", randomBoxId, randomBox.getQuantity());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("랜덤박스 {} 재고 동기화 중 인터럽트가 발생했습니다.", randomBoxId, e);
-        } finally {
-            // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
+            unregisterLeasedBoxIfEmpty(randomBoxId);
+        }
+    }
+    
+    /**
+     * 임대 중인 노드가 없는 랜덤박스를 회수 대상에서 제외
+     * 제거 직후 다른 노드가 임대했을 수 있으므로 다시 확인해 되돌린다.
+     * @param randomBoxId 랜덤박스 ID
+     */
+    private void unregisterLeasedBoxIfEmpty(Long randomBoxId) {
+        String key = inventoryKey(randomBoxId);
+        if (inventoryCounter.hasLeases(key)) {
+            return;
+        }
+        
+        inventoryCounter.removeMember(LEASED_BOXES_KEY, String.valueOf(randomBoxId));
+        if (inventoryCounter.hasLeases(key)) {
+            inventoryCounter.addMember(LEASED_BOXES_KEY, String.valueOf(randomBoxId));
+        }
+    }
+    
+    /**
+     * 종료 시 모든 임대 재고 반납
+     */
+    @PreDestroy
+    public void returnAllLeases() {
+        leases.forEach((randomBoxId, lease) -> {
+            if (lease.isRegistered() || lease.remaining() > 0) {
+                returnLease(randomBoxId, lease);
             }
+        });
+        inventoryCounter.delete(LEASE_NODE_KEY_PREFIX + nodeId);
+    }
+    
+    /**
+     * 랜덤박스 재고 키 (한 랜덤박스의 재고 관련 키가 Redis Cluster의 한 슬롯에 모이도록 ID를 해시 태그로 감쌈)
+     * @param randomBoxId 랜덤박스 ID
+     * @return 재고 키
+     */
+    private static String inventoryKey(Long randomBoxId) {
+        return INVENTORY_KEY_PREFIX + "{" + randomBoxId + "}";
+    }
+    
+    /**
+     * 재고 수량에 맞춰 품절 표시 갱신 (DB 기준으로 재고를 다시 설정한 경우)
+     * @param randomBoxId 랜덤박스 ID
+     * @param quantity 재고 수량
+     */
+    private void refreshSoldOut(Long randomBoxId, int quantity) {
+        if (quantity > 0) {
+            soldOutCache.markAvailable(randomBoxId);
+        } else {
+            soldOutCache.markSoldOut(randomBoxId);
         }
     }
 }
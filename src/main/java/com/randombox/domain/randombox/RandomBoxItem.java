@@ -36,16 +36,25 @@ public class RandomBoxItem {
     @Column(nullable = false, precision = 5, scale = 2)
     private BigDecimal probability;
 
+    // 경품 풀 방식 랜덤박스에서 이 아이템의 총 수량 (null이면 경품 풀에 포함되지 않음)
+    private Integer stock;
+
+    // 경품 풀에 남은 수량 (Redis 경품 풀을 주기적으로 반영하며, 풀을 다시 만들 때 기준)
+    private Integer remainingStock;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
     @Builder
-    public RandomBoxItem(RandomBox randomBox, String name, String description, Rarity rarity, BigDecimal probability) {
+    public RandomBoxItem(RandomBox randomBox, String name, String description, Rarity rarity, BigDecimal probability,
+                         Integer stock) {
         this.randomBox = randomBox;
         this.name = name;
         this.description = description;
         this.rarity = rarity;
         this.probability = probability;
+        this.stock = stock;
+        this.remainingStock = stock;
         this.createdAt = LocalDateTime.now();
     }
 
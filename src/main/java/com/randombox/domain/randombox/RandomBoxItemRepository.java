@@ -1,8 +1,10 @@
 package com.randombox.domain.randombox;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,4 +16,9 @@ public interface RandomBoxItemRepository extends JpaRepository<RandomBoxItem, Lo
     List<RandomBoxItem> findByRandomBoxIdOrderByProbabilityAsc(@Param("randomBoxId") Long randomBoxId);
     
     List<RandomBoxItem> findByRandomBoxIdAndRarity(Long randomBoxId, RandomBoxItem.Rarity rarity);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE RandomBoxItem rbi SET rbi.remainingStock = :remainingStock WHERE rbi.id = :itemId")
+    int updateRemainingStock(@Param("itemId") Long itemId, @Param("remainingStock") int remainingStock);
 }
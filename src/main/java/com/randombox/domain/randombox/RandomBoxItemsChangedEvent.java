@@ -0,0 +1,13 @@
+package com.randombox.domain.randombox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 랜덤박스 아이템 구성이 변경되었음을 알리는 이벤트
+ */
+@Getter
+@RequiredArgsConstructor
+public class RandomBoxItemsChangedEvent {
+    private final Long randomBoxId;
+}
@@ -1,8 +1,10 @@
 package com.randombox.domain.randombox;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,4 +15,12 @@ public interface RandomBoxRepository extends JpaRepository<RandomBox, Long> {
     List<RandomBox> findAllOnSale(@Param("now") LocalDateTime now);
     
     List<RandomBox> findByNameContaining(String keyword);
+    
+    @Query("SELECT rb FROM RandomBox rb WHERE rb.salesStartTime > :from AND rb.salesStartTime <= :to AND rb.quantity > 0")
+    List<RandomBox> findAllStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE RandomBox rb SET rb.quantity = :quantity, rb.updatedAt = :now WHERE rb.id = :randomBoxId")
+    int updateQuantity(@Param("randomBoxId") Long randomBoxId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
 }
@@ -1,13 +1,17 @@
 package com.randombox.domain.randombox;
 
+import com.randombox.global.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -16,11 +20,28 @@ public class RandomBoxService {
 
     private final RandomBoxRepository randomBoxRepository;
     private final RandomBoxItemRepository randomBoxItemRepository;
-    private final Random random = new Random();
+    private final ApplicationEventPublisher eventPublisher;
+    private final PrizePoolService prizePoolService;
+    private final RandomBoxInventoryService randomBoxInventoryService;
+
+    // 요청 스레드끼리 난수 생성기를 공유하지 않도록 스레드마다 루트에서 분기한 생성기 사용
+    private static final SplittableRandom ROOT_RANDOM = new SplittableRandom();
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(RandomBoxService::splitRandom);
+
+    // 랜덤박스별 아이템 추첨 테이블 (아이템 변경 시 ItemAliasTableInvalidator가 무효화)
+    private final Map<Long, ItemAliasTable> aliasTables = new ConcurrentHashMap<>();
 
     @Transactional
     public RandomBox createRandomBox(String name, String description, Integer price, Integer quantity,
                                     LocalDateTime salesStartTime, LocalDateTime salesEndTime) {
+        return createRandomBox(name, description, price, quantity, salesStartTime, salesEndTime,
+                RandomBox.DrawMode.PROBABILITY);
+    }
+
+    @Transactional
+    public RandomBox createRandomBox(String name, String description, Integer price, Integer quantity,
+                                    LocalDateTime salesStartTime, LocalDateTime salesEndTime,
+                                    RandomBox.DrawMode drawMode) {
         validateRandomBoxTimes(salesStartTime, salesEndTime);
 
         RandomBox randomBox = RandomBox.builder()
@@ -30,6 +51,7 @@ public class RandomBoxService {
                 .quantity(quantity)
                 .salesStartTime(salesStartTime)
                 .salesEndTime(salesEndTime)
+                .drawMode(drawMode)
                 .build();
 
         return randomBoxRepository.save(randomBox);
@@ -62,18 +84,32 @@ public class RandomBoxService {
         RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
 
+        int delta = quantity - randomBox.getQuantity();
         randomBox.update(name, description, price, quantity, salesStartTime, salesEndTime);
+        if (delta != 0) {
+            // 판매 중인 Redis 재고가 다음 DB 반영 때 변경을 덮어쓰지 않도록 변경분을 Redis 재고에도 반영
+            TransactionUtils.afterCommit(() -> randomBoxInventoryService.adjustInventory(randomBoxId, delta));
+        }
         return randomBox;
     }
 
     @Transactional
     public RandomBoxItem addItemToRandomBox(Long randomBoxId, String name, String description,
                                           RandomBoxItem.Rarity rarity, BigDecimal probability) {
+        return addItemToRandomBox(randomBoxId, name, description, rarity, probability, null);
+    }
+
+    @Transactional
+    public RandomBoxItem addItemToRandomBox(Long randomBoxId, String name, String description,
+                                          RandomBoxItem.Rarity rarity, BigDecimal probability, Integer stock) {
         RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
 
         validateProbability(probability);
         validateTotalProbability(randomBoxId, probability);
+        if (stock != null && stock < 0) {
+            throw new IllegalArgumentException("아이템 수량은 0 이상이어야 합니다.");
+        }
 
         RandomBoxItem item = RandomBoxItem.builder()
                 .randomBox(randomBox)
@@ -81,9 +117,15 @@ public class RandomBoxService {
                 .description(description)
                 .rarity(rarity)
                 .probability(probability)
+                .stock(stock)
                 .build();
 
-        return randomBoxItemRepository.save(item);
+        RandomBoxItem savedItem = randomBoxItemRepository.save(item);
+        if (randomBox.isPoolMode() && stock != null) {
+            TransactionUtils.afterCommit(() -> prizePoolService.addStock(randomBoxId, savedItem.getId(), stock));
+        }
+        eventPublisher.publishEvent(new RandomBoxItemsChangedEvent(randomBoxId));
+        return savedItem;
     }
 
     private void validateProbability(BigDecimal probability) {
@@ -127,26 +169,114 @@ public class RandomBoxService {
         }
 
         item.update(name, description, rarity, probability);
+        eventPublisher.publishEvent(new RandomBoxItemsChangedEvent(item.getRandomBox().getId()));
         return item;
     }
 
+    /**
+     * 랜덤 아이템 추첨
+     * 랜덤박스별로 한 번 만든 별칭 테이블을 재사용하므로 아이템 수와 관계없이 O(1)로 추첨한다.
+     * @param randomBoxId 랜덤박스 ID
+     * @return 추첨된 아이템
+     */
     public RandomBoxItem drawRandomItem(Long randomBoxId) {
-        List<RandomBoxItem> items = randomBoxItemRepository.findByRandomBoxId(randomBoxId);
-        if (items.isEmpty()) {
-            throw new IllegalStateException("랜덤박스에 아이템이 없습니다.");
+        ItemAliasTable table = getAliasTable(randomBoxId);
+        if (table.isPoolMode()) {
+            return prizePoolService.draw(randomBoxId, table, RANDOM.get(), 1).getItem(0);
+        }
+        return table.draw(RANDOM.get());
+    }
+
+    /**
+     * 랜덤 아이템 여러 개 추첨
+     * 추첨 테이블을 한 번만 조회하고 결과는 아이템 위치 배열로 담아 반환한다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param count 추첨 개수
+     * @return 추첨 결과
+     */
+    public ItemDraws drawMany(Long randomBoxId, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("추첨 개수는 1 이상이어야 합니다.");
+        }
+        
+        ItemAliasTable table = getAliasTable(randomBoxId);
+        if (table.isPoolMode()) {
+            // 경품 풀 방식은 남은 수량에 비례해 뽑고 수량을 줄임
+            return prizePoolService.draw(randomBoxId, table, RANDOM.get(), count);
         }
+        return new ItemDraws(table, table.drawIndices(RANDOM.get(), count));
+    }
 
-        double randomValue = random.nextDouble() * 100;
-        double cumulativeProbability = 0.0;
+    /**
+     * 추첨 결과 취소 (경품 풀 방식이면 뽑힌 아이템을 풀에 되돌림)
+     * @param randomBoxId 랜덤박스 ID
+     * @param draws 추첨 결과
+     */
+    public void cancelDraws(Long randomBoxId, ItemDraws draws) {
+        if (getAliasTable(randomBoxId).isPoolMode()) {
+            prizePoolService.restore(randomBoxId, draws);
+        }
+    }
 
-        for (RandomBoxItem item : items) {
-            cumulativeProbability += item.getProbability().doubleValue();
-            if (randomValue <= cumulativeProbability) {
-                return item;
-            }
+    /**
+     * 취소된 구매의 아이템을 경품 풀에 되돌림 (경품 풀 방식인 경우)
+     * @param randomBoxId 랜덤박스 ID
+     * @param itemIds 되돌릴 아이템 ID 목록
+     */
+    public void restoreItems(Long randomBoxId, List<Long> itemIds) {
+        if (!itemIds.isEmpty() && getAliasTable(randomBoxId).isPoolMode()) {
+            prizePoolService.restoreItems(randomBoxId, itemIds);
         }
+    }
 
-        // 부동소수점 오차로 인해 마지막 아이템이 선택되지 않을 수 있으므로 마지막 아이템 반환
-        return items.get(items.size() - 1);
+    /**
+     * 랜덤박스 추첨 방식 변경
+     * 경품 풀 방식으로 바꾸면 커밋된 뒤 경품 풀이 없을 때만 아이템별 남은 수량으로 만든다.
+     * @param randomBoxId 랜덤박스 ID
+     * @param drawMode 추첨 방식
+     * @return 랜덤박스
+     */
+    @Transactional
+    public RandomBox changeDrawMode(Long randomBoxId, RandomBox.DrawMode drawMode) {
+        RandomBox randomBox = randomBoxRepository.findById(randomBoxId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 랜덤박스입니다."));
+
+        randomBox.changeDrawMode(drawMode);
+        if (randomBox.isPoolMode()) {
+            // 이미 추첨 중인 풀의 남은 수량을 덮어쓰지 않고, 롤백되면 만들지 않음
+            TransactionUtils.afterCommit(() -> prizePoolService.initializePoolIfAbsent(randomBoxId));
+        }
+        eventPublisher.publishEvent(new RandomBoxItemsChangedEvent(randomBoxId));
+        return randomBox;
+    }
+
+    /**
+     * 랜덤박스 추첨 테이블 조회 (없으면 아이템 목록으로 생성)
+     * @param randomBoxId 랜덤박스 ID
+     * @return 추첨 테이블
+     */
+    public ItemAliasTable getAliasTable(Long randomBoxId) {
+        return aliasTables.computeIfAbsent(randomBoxId, id -> {
+            List<RandomBoxItem> items = randomBoxItemRepository.findByRandomBoxId(id);
+            RandomBox.DrawMode drawMode = items.isEmpty()
+                    ? RandomBox.DrawMode.PROBABILITY
+                    : items.get(0).getRandomBox().getDrawMode();
+            return ItemAliasTable.of(items, drawMode);
+        });
+    }
+
+    /**
+     * 랜덤박스 추첨 테이블 무효화 (다음 추첨 시 다시 생성)
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void evictAliasTable(Long randomBoxId) {
+        aliasTables.remove(randomBoxId);
+    }
+
+    private static SplittableRandom splitRandom() {
+        // SplittableRandom은 스레드 안전하지 않으므로 루트 분기는 동기화
+        synchronized (ROOT_RANDOM) {
+            return ROOT_RANDOM.split();
+        }
     }
 }
@@ -0,0 +1,696 @@
+package com.randombox.domain.randombox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 서버 측 스크립트로 재고 카운터를 원자적으로 조작하는 컴포넌트
+ * 확인과 감소가 하나의 스크립트 안에서 실행되므로 분산 락 없이도 초과 판매가 발생하지 않는다.
+ * 재고 키는 {@code randombox:inventory:{<랜덤박스 ID>}}처럼 해시 태그를 포함하며, 하위 카운터({@code :stripe:<번호>}),
+ * 분할 수({@code :stripes}), 노드 임대 재고({@code :leases}), 예약({@code :reserved}, {@code :reservations}) 키는 모두 재고 키 뒤에 붙는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisInventoryCounter {
+
+    /** 재고가 모두 소진됨 (중앙 재고와 Redis에 기록된 모든 노드의 임대 재고가 0) */
+    public static final long SOLD_OUT = -1L;
+    /** 재고 키가 아직 초기화되지 않음 */
+    public static final long NOT_INITIALIZED = -2L;
+    /** 예약이 없음 (이미 확정/취소/만료됨) */
+    public static final long NOT_RESERVED = -3L;
+    /** 재고가 남아 있지만 요청 수량보다 적음 */
+    public static final long INSUFFICIENT = -4L;
+    /** 캐시된 분할 수가 Redis의 분할 수와 다름 (분할 수를 다시 읽고 재시도) */
+    private static final long LAYOUT_CHANGED = -5L;
+
+    /** 분할 구성이 바뀌어 다시 시도하는 최대 횟수 */
+    private static final int LAYOUT_MAX_ATTEMPTS = 3;
+
+    /**
+     * 하위 카운터 조작 함수 (하위 카운터를 쓰는 스크립트가 공유)
+     * 한 랜덤박스의 키는 모두 재고 키의 해시 태그를 공유하므로 Redis Cluster에서도 한 슬롯에 모인다.
+     * 스크립트는 전달받은 키만 사용하며, KEYS[1]은 분할 수 키, KEYS[2]는 노드 임대 재고 해시이고 하위 카운터 키는 마지막에 온다.
+     * ARGV[1]은 시작 하위 카운터 번호, ARGV[2]는 호출한 노드가 알고 있는 분할 수로, 0이면 하위 카운터 하나만 받은 호출이라 분할 수를 확인하지 않는다.
+     */
+    private static final String STRIPE_FUNCTIONS =
+            "local function layoutChanged() " +
+            "  local expected = tonumber(ARGV[2]) " +
+            "  return expected > 0 and tonumber(redis.call('GET', KEYS[1]) or '0') ~= expected " +
+            "end " +
+            "local function values(first) " +
+            "  local keys, current, total = {}, {}, 0 " +
+            "  for i = first, #KEYS do " +
+            "    local value = redis.call('GET', KEYS[i]) " +
+            "    if not value then return nil end " +
+            "    keys[#keys + 1] = KEYS[i] " +
+            "    current[#keys] = tonumber(value) " +
+            "    total = total + current[#keys] " +
+            "  end " +
+            "  return keys, current, total " +
+            "end " +
+            "local function take(keys, current, amount) " +
+            "  local left = amount " +
+            "  for j = 0, #keys - 1 do " +
+            "    if left == 0 then break end " +
+            "    local i = (tonumber(ARGV[1]) + j) % #keys + 1 " +
+            "    local taken = math.min(current[i], left) " +
+            "    if taken > 0 then redis.call('DECRBY', keys[i], taken) left = left - taken end " +
+            "  end " +
+            "end " +
+            "local function shortage(total) " +
+            "  if tonumber(ARGV[2]) == 0 then return -4 end " +
+            "  for _, value in ipairs(redis.call('HVALS', KEYS[2])) do total = total + tonumber(value) end " +
+            "  if total == 0 then return -1 end " +
+            "  return -4 " +
+            "end ";
+
+    /**
+     * 하위 카운터 합계가 요청 수량 이상일 때만 감소하고, 예약이면 예약도 함께 기록
+     * 하위 카운터 하나로 호출했을 때는 그 카운터가 모자라면 품절 여부를 판단하지 않고 {@link #INSUFFICIENT}를 반환한다.
+     * KEYS[3]: 예약 수량 키, KEYS[4]: 예약 정렬 집합, KEYS[5..]: 하위 카운터
+     * ARGV[3]: 수량, ARGV[4]: 1이면 예약, ARGV[5]: 예약 만료 시각, ARGV[6]: 예약 토큰
+     */
+    private static final RedisScript<Long> TAKE_SCRIPT = new DefaultRedisScript<>(
+            STRIPE_FUNCTIONS +
+            "if layoutChanged() then return -5 end " +
+            "local keys, current, total = values(5) " +
+            "if not keys then return -2 end " +
+            "local quantity = tonumber(ARGV[3]) " +
+            "if total < quantity then return shortage(total) end " +
+            "take(keys, current, quantity) " +
+            "if ARGV[4] == '1' then " +
+            "  redis.call('ZADD', KEYS[4], ARGV[5], ARGV[6]) " +
+            "  redis.call('INCRBY', KEYS[3], quantity) " +
+            "end " +
+            "return total - quantity",
+            Long.class);
+
+    /**
+     * 노드 임대 재고에서 요청 수량만큼 꺼내 메모리로 옮김 (임대 재고가 모자라면 중앙 재고에서 먼저 임대 단위만큼 보충)
+     * 임대 재고는 노드 ID별로 Redis에 남아 있으므로 노드가 비정상 종료되어도 다른 노드가 회수할 수 있다.
+     * KEYS[3..]: 하위 카운터, ARGV[3]: 노드 ID, ARGV[4]: 임대 단위, ARGV[5]: 꺼낼 수량
+     */
+    private static final RedisScript<Long> LEASE_REFILL_SCRIPT = new DefaultRedisScript<>(
+            STRIPE_FUNCTIONS +
+            "if layoutChanged() then return -5 end " +
+            "local lease = tonumber(redis.call('HGET', KEYS[2], ARGV[3]) or '0') " +
+            "local amount = tonumber(ARGV[5]) " +
+            "if lease < amount then " +
+            "  local keys, current, total = values(3) " +
+            "  if not keys then return -2 end " +
+            "  local taken = math.min(total, math.max(tonumber(ARGV[4]), amount) - lease) " +
+            "  if lease + taken == 0 then return shortage(total) end " +
+            "  take(keys, current, taken) " +
+            "  lease = lease + taken " +
+            "end " +
+            "local moved = math.min(lease, amount) " +
+            "redis.call('HSET', KEYS[2], ARGV[3], lease - moved) " +
+            "return moved",
+            Long.class);
+
+    /**
+     * 모든 하위 카운터와 모든 노드가 임대한 재고의 합계 조회
+     * KEYS[3]: 예약 수량 키, KEYS[4..]: 하위 카운터, ARGV[3]: 1이면 확정 전인 예약 수량 포함
+     */
+    private static final RedisScript<Long> SUM_SCRIPT = new DefaultRedisScript<>(
+            STRIPE_FUNCTIONS +
+            "if layoutChanged() then return -5 end " +
+            "local keys, _, total = values(4) " +
+            "if not keys then return -2 end " +
+            "for _, value in ipairs(redis.call('HVALS', KEYS[2])) do total = total + tonumber(value) end " +
+            "if ARGV[3] == '1' then total = total + tonumber(redis.call('GET', KEYS[3]) or '0') end " +
+            "return total",
+            Long.class);
+
+    /**
+     * 하위 카운터 하나에 더하고 그 카운터의 값 반환
+     * KEYS[1]: 하위 카운터, ARGV[1]: 수량
+     */
+    private static final RedisScript<Long> INCREASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])",
+            Long.class);
+
+    /**
+     * 예약 제거와 재고 복구를 함께 실행 (예약을 제거한 호출만 재고를 복구)
+     * KEYS[1]: 하위 카운터, KEYS[2]: 예약 수량 키, KEYS[3]: 예약 정렬 집합, ARGV[1]: 수량, ARGV[2]: 예약 토큰
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end " +
+            "if redis.call('ZREM', KEYS[3], ARGV[2]) == 0 then return -3 end " +
+            "redis.call('DECRBY', KEYS[2], ARGV[1]) " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])",
+            Long.class);
+
+    /**
+     * 예약 제거 (판매 확정, 재고는 복구하지 않음)
+     * KEYS[1]: 예약 수량 키, KEYS[2]: 예약 정렬 집합, ARGV[1]: 수량, ARGV[2]: 예약 토큰
+     */
+    private static final RedisScript<Long> COMMIT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('ZREM', KEYS[2], ARGV[2]) == 0 then return 0 end " +
+            "redis.call('DECRBY', KEYS[1], ARGV[1]) " +
+            "return 1",
+            Long.class);
+
+    /**
+     * 예약 기록 (노드 메모리의 임대 재고에서 이미 차감한 경우)
+     * KEYS[1]: 예약 수량 키, KEYS[2]: 예약 정렬 집합, ARGV[1]: 수량, ARGV[2]: 만료 시각, ARGV[3]: 예약 토큰
+     */
+    private static final RedisScript<Long> RECORD_RESERVATION_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('ZADD', KEYS[2], ARGV[2], ARGV[3]) " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])",
+            Long.class);
+
+    /**
+     * 노드 임대 재고와 메모리에 남은 재고를 하위 카운터 하나로 반납하고 반납한 수량 반환
+     * KEYS[1]: 하위 카운터, KEYS[2]: 노드 임대 재고 해시, ARGV[1]: 노드 ID, ARGV[2]: 메모리에 남은 수량
+     */
+    private static final RedisScript<Long> RETURN_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "local lease = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0') + tonumber(ARGV[2]) " +
+            "if lease == 0 then redis.call('HDEL', KEYS[2], ARGV[1]) return 0 end " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end " +
+            "redis.call('INCRBY', KEYS[1], lease) " +
+            "redis.call('HDEL', KEYS[2], ARGV[1]) " +
+            "return lease",
+            Long.class);
+
+    /**
+     * 지정한 노드들의 임대 재고를 하위 카운터 하나로 회수하고 회수한 수량 반환
+     * KEYS[1]: 하위 카운터, KEYS[2]: 노드 임대 재고 해시, ARGV: 노드 ID 목록
+     */
+    private static final RedisScript<Long> RECLAIM_LEASES_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end " +
+            "local reclaimed = 0 " +
+            "for i = 1, #ARGV do " +
+            "  local lease = tonumber(redis.call('HGET', KEYS[2], ARGV[i]) or '0') " +
+            "  if lease > 0 then redis.call('INCRBY', KEYS[1], lease) reclaimed = reclaimed + lease end " +
+            "  redis.call('HDEL', KEYS[2], ARGV[i]) " +
+            "end " +
+            "return reclaimed",
+            Long.class);
+
+    /**
+     * 기존 구성의 하위 카운터와 노드 임대 재고를 모두 지우고 새 구성으로 다시 기록
+     * 호출한 노드가 읽은 분할 수와 Redis의 분할 수가 다르면 아무것도 하지 않는다.
+     * KEYS[1]: 분할 수 키, KEYS[2]: 노드 임대 재고 해시, KEYS[3..]: 기존/새 구성의 하위 카운터 중 많은 쪽
+     * ARGV[1]: 수량, ARGV[2]: 새 분할 수, ARGV[3]: 기존 분할 수
+     */
+    private static final RedisScript<Long> RESET_SCRIPT = new DefaultRedisScript<>(
+            "if tonumber(redis.call('GET', KEYS[1]) or '0') ~= tonumber(ARGV[3]) then return -5 end " +
+            "for i = 2, #KEYS do redis.call('DEL', KEYS[i]) end " +
+            "local quantity, n = tonumber(ARGV[1]), tonumber(ARGV[2]) " +
+            "for i = 0, n - 1 do " +
+            "  redis.call('SET', KEYS[i + 3], math.floor(quantity / n) + (i < quantity % n and 1 or 0)) " +
+            "end " +
+            "redis.call('SET', KEYS[1], n) " +
+            "return n",
+            Long.class);
+
+    /**
+     * 분할 수 키가 없을 때만 하위 카운터와 분할 수를 기록
+     * KEYS[1]: 분할 수 키, KEYS[2..]: 하위 카운터, ARGV[1]: 수량
+     */
+    private static final RedisScript<Long> INITIALIZE_IF_ABSENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "local quantity, n = tonumber(ARGV[1]), #KEYS - 1 " +
+            "for i = 0, n - 1 do " +
+            "  redis.call('SET', KEYS[i + 2], math.floor(quantity / n) + (i < quantity % n and 1 or 0)) " +
+            "end " +
+            "redis.call('SET', KEYS[1], n) " +
+            "return 1",
+            Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POP_MEMBERS_SCRIPT = new DefaultRedisScript<>(
+            "local members = redis.call('SMEMBERS', KEYS[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return members",
+            List.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    // 재고 키별 분할 수 (스크립트가 분할 구성이 바뀐 것을 알리면 다시 읽음)
+    private final Map<String, Integer> stripeCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 재고 확인 후 감소
+     * 임의의 하위 카운터 하나에서 먼저 차감하고, 그 카운터가 모자랄 때만 모든 하위 카운터를 합쳐 다시 시도한다.
+     * @param key 재고 키
+     * @param quantity 감소시킬 수량
+     * @return 0 이상이면 성공 (차감한 하위 카운터의 남은 재고), 재고 소진 시 {@link #SOLD_OUT}, 재고 부족 시 {@link #INSUFFICIENT}, 미초기화 시 {@link #NOT_INITIALIZED}
+     */
+    public long decrease(String key, int quantity) {
+        return executeOnStripes(TAKE_SCRIPT, key, List.of(stripesKey(key), leasesKey(key), reservedKey(key), reservationsKey(key)),
+                String.valueOf(quantity), "0", "0", "");
+    }
+
+    /**
+     * 재고 감소 후 예약 기록
+     * @param key 재고 키
+     * @param token 예약 토큰
+     * @param quantity 예약 수량
+     * @param expiresAtMillis 예약 만료 시각
+     * @return 0 이상이면 성공, 재고 소진 시 {@link #SOLD_OUT}, 재고 부족 시 {@link #INSUFFICIENT}, 미초기화 시 {@link #NOT_INITIALIZED}
+     */
+    public long reserve(String key, String token, int quantity, long expiresAtMillis) {
+        return executeOnStripes(TAKE_SCRIPT, key, List.of(stripesKey(key), leasesKey(key), reservedKey(key), reservationsKey(key)),
+                String.valueOf(quantity), "1", String.valueOf(expiresAtMillis), token);
+    }
+
+    /**
+     * 예약 확정 (예약 제거)
+     * @param key 재고 키
+     * @param token 예약 토큰
+     * @param quantity 예약 수량
+     * @return 확정 여부, 예약이 없으면 false
+     */
+    public boolean commit(String key, String token, int quantity) {
+        Long result = redisTemplate.execute(COMMIT_SCRIPT, List.of(reservedKey(key), reservationsKey(key)),
+                String.valueOf(quantity), token);
+        return result != null && result > 0;
+    }
+
+    /**
+     * 예약 제거 후 재고 복구
+     * 재고가 삭제되었으면 예약만 제거한다.
+     * @param key 재고 키
+     * @param token 예약 토큰
+     * @param quantity 예약 수량
+     * @return 복구한 하위 카운터의 값, 예약이 없으면 {@link #NOT_RESERVED}, 재고가 삭제되었으면 {@link #NOT_INITIALIZED}
+     */
+    public long release(String key, String token, int quantity) {
+        long result = executeOnStripe(RELEASE_SCRIPT, key, List.of(reservedKey(key), reservationsKey(key)),
+                String.valueOf(quantity), token);
+        if (result == NOT_INITIALIZED && !commit(key, token, quantity)) {
+            return NOT_RESERVED;
+        }
+        return result;
+    }
+
+    /**
+     * 예약 기록 (재고 감소 없음)
+     * @param key 재고 키
+     * @param token 예약 토큰
+     * @param quantity 예약 수량
+     * @param expiresAtMillis 예약 만료 시각
+     */
+    public void recordReservation(String key, String token, int quantity, long expiresAtMillis) {
+        redisTemplate.execute(RECORD_RESERVATION_SCRIPT, List.of(reservedKey(key), reservationsKey(key)),
+                String.valueOf(quantity), String.valueOf(expiresAtMillis), token);
+    }
+
+    /**
+     * 만료 시각이 지난 예약 토큰을 만료 시각 순으로 최대 count개 조회
+     * @param key 재고 키
+     * @param nowMillis 현재 시각
+     * @param count 최대 개수
+     * @return 예약 토큰 목록
+     */
+    public List<String> expiredReservations(String key, long nowMillis, int count) {
+        return rangeByScore(reservationsKey(key), nowMillis, count);
+    }
+
+    /**
+     * 재고 증가 (임의의 하위 카운터 하나에 더함)
+     * @param key 재고 키
+     * @param quantity 증가시킬 수량
+     * @return 증가한 하위 카운터의 값, 미초기화 시 {@link #NOT_INITIALIZED}
+     */
+    public long increase(String key, int quantity) {
+        return executeOnStripe(INCREASE_SCRIPT, key, List.of(), String.valueOf(quantity));
+    }
+
+    /**
+     * 중앙 재고와 모든 노드의 임대 재고 합계 조회
+     * @param key 재고 키
+     * @return 재고 수량, 미초기화 시 {@link #NOT_INITIALIZED}
+     */
+    public long total(String key) {
+        return sum(key, "0");
+    }
+
+    /**
+     * 중앙 재고, 모든 노드의 임대 재고, 확정 전인 예약 수량의 합계 조회 (DB 반영용)
+     * @param key 재고 키
+     * @return 재고 수량, 미초기화 시 {@link #NOT_INITIALIZED}
+     */
+    public long totalWithReservations(String key) {
+        return sum(key, "1");
+    }
+
+    /**
+     * 노드 임대 재고에서 메모리로 옮길 재고 꺼내기
+     * @param key 재고 키
+     * @param nodeId 노드 ID
+     * @param leaseSize 임대 재고가 모자랄 때 중앙 재고에서 가져올 수량
+     * @param quantity 꺼낼 수량
+     * @return 꺼낸 수량, 재고 소진 시 {@link #SOLD_OUT}, 재고 부족 시 {@link #INSUFFICIENT}, 미초기화 시 {@link #NOT_INITIALIZED}
+     */
+    public long refillLease(String key, String nodeId, int leaseSize, int quantity) {
+        return executeOnStripes(LEASE_REFILL_SCRIPT, key, List.of(stripesKey(key), leasesKey(key)),
+                nodeId, String.valueOf(leaseSize), String.valueOf(quantity));
+    }
+
+    /**
+     * 노드 임대 재고를 중앙 재고로 반납
+     * @param key 재고 키
+     * @param nodeId 노드 ID
+     * @param localQuantity 노드 메모리에 남아 있던 수량
+     * @return 반납한 수량, 재고가 삭제되었으면 {@link #NOT_INITIALIZED}
+     */
+    public long returnLease(String key, String nodeId, int localQuantity) {
+        return executeOnStripe(RETURN_LEASE_SCRIPT, key, List.of(leasesKey(key)), nodeId, String.valueOf(localQuantity));
+    }
+
+    /**
+     * 재고를 임대 중인 노드 ID 목록 조회
+     * @param key 재고 키
+     * @return 노드 ID 목록
+     */
+    public Set<String> leaseNodeIds(String key) {
+        return fields(leasesKey(key));
+    }
+
+    /**
+     * 지정한 노드들의 임대 재고를 중앙 재고로 회수
+     * @param key 재고 키
+     * @param nodeIds 노드 ID 목록
+     * @return 회수한 수량, 재고가 삭제되었으면 {@link #NOT_INITIALIZED}
+     */
+    public long reclaimLeases(String key, Collection<String> nodeIds) {
+        return executeOnStripe(RECLAIM_LEASES_SCRIPT, key, List.of(leasesKey(key)), nodeIds.toArray());
+    }
+
+    /**
+     * 임대 중인 노드가 남아 있는지 확인
+     * @param key 재고 키
+     * @return 임대 재고 기록 존재 여부
+     */
+    public boolean hasLeases(String key) {
+        return exists(leasesKey(key));
+    }
+
+    /**
+     * 키 존재 여부 확인
+     * @param key 키
+     * @return 존재 여부
+     */
+    public boolean exists(String key) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    }
+
+    /**
+     * 만료 시간과 함께 값 설정
+     * @param key 키
+     * @param value 값
+     * @param ttlSeconds 유지 시간(초)
+     */
+    public void setWithTtl(String key, String value, long ttlSeconds) {
+        redisTemplate.opsForValue().set(key, value, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 키 삭제
+     * @param key 키
+     */
+    public void delete(String key) {
+        redisTemplate.delete(key);
+    }
+
+    /**
+     * 재고 값과 분할 구성을 한 번에 다시 설정 (이전 구성의 하위 카운터와 노드 임대 재고는 삭제)
+     * @param key 재고 키
+     * @param quantity 설정할 수량
+     * @param stripeCount 재고 분할 수, 0이면 현재 분할 수 유지
+     */
+    public void reset(String key, int quantity, int stripeCount) {
+        long result = LAYOUT_CHANGED;
+        for (int attempt = 1; result == LAYOUT_CHANGED && attempt <= LAYOUT_MAX_ATTEMPTS; attempt++) {
+            int current = refreshStripeCount(key);
+            int target = stripeCount > 0 ? stripeCount : Math.max(current, 1);
+            
+            List<String> keys = new ArrayList<>(List.of(stripesKey(key), leasesKey(key)));
+            keys.addAll(stripeKeys(key, Math.max(current, target)));
+            result = execute(RESET_SCRIPT, keys, String.valueOf(quantity), String.valueOf(target), String.valueOf(current));
+        }
+        
+        if (result == LAYOUT_CHANGED) {
+            throw new IllegalStateException("재고 분할 구성이 계속 변경되어 재고를 다시 설정하지 못했습니다. 재고 키: " + key);
+        }
+        stripeCounts.put(key, (int) result);
+    }
+
+    /**
+     * 재고가 없을 때만 설정
+     * @param key 재고 키
+     * @param quantity 설정할 수량
+     * @param stripeCount 재고 분할 수
+     * @return 새로 설정했는지 여부
+     */
+    public boolean initializeIfAbsent(String key, int quantity, int stripeCount) {
+        List<String> keys = new ArrayList<>(List.of(stripesKey(key)));
+        keys.addAll(stripeKeys(key, stripeCount));
+        return execute(INITIALIZE_IF_ABSENT_SCRIPT, keys, String.valueOf(quantity)) > 0;
+    }
+
+    /**
+     * 해시에 여러 필드 저장
+     * @param key 해시 키
+     * @param values 필드별 값
+     */
+    public void putAll(String key, Map<String, String> values) {
+        redisTemplate.opsForHash().putAll(key, values);
+    }
+
+    /**
+     * 해시에서 여러 필드 삭제
+     * @param key 해시 키
+     * @param fields 삭제할 필드 목록
+     */
+    public void removeFields(String key, Collection<String> fields) {
+        if (!fields.isEmpty()) {
+            redisTemplate.opsForHash().delete(key, fields.toArray());
+        }
+    }
+
+    /**
+     * 해시에 있는 필드 목록 조회
+     * @param key 해시 키
+     * @return 필드 목록
+     */
+    public Set<String> fields(String key) {
+        Set<String> result = new HashSet<>();
+        redisTemplate.opsForHash().keys(key).forEach(field -> result.add(field.toString()));
+        return result;
+    }
+
+    /**
+     * 집합에 멤버 추가
+     * @param key 집합 키
+     * @param member 멤버
+     */
+    public void addMember(String key, String member) {
+        redisTemplate.opsForSet().add(key, member);
+    }
+
+    /**
+     * 집합에서 멤버 제거
+     * @param key 집합 키
+     * @param member 멤버
+     */
+    public void removeMember(String key, String member) {
+        redisTemplate.opsForSet().remove(key, member);
+    }
+
+    /**
+     * 집합의 모든 멤버 조회
+     * @param key 집합 키
+     * @return 멤버 목록
+     */
+    public Set<String> members(String key) {
+        Set<Object> members = redisTemplate.opsForSet().members(key);
+        Set<String> result = new HashSet<>();
+        if (members != null) {
+            members.forEach(member -> result.add(member.toString()));
+        }
+        return result;
+    }
+
+    /**
+     * 집합에 여러 멤버 추가
+     * @param key 집합 키
+     * @param members 멤버 목록
+     */
+    public void addMembers(String key, Collection<String> members) {
+        redisTemplate.opsForSet().add(key, members.toArray());
+    }
+
+    /**
+     * 집합의 모든 멤버를 꺼내고 집합 삭제 (스크립트 한 번으로 실행하므로 꺼낸 뒤 추가된 멤버를 잃지 않음)
+     * @param key 집합 키
+     * @return 멤버 목록
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> popMembers(String key) {
+        List<String> members = redisTemplate.execute(POP_MEMBERS_SCRIPT, Collections.singletonList(key));
+        return members != null ? members : Collections.emptyList();
+    }
+
+    /**
+     * 점수가 max 이하인 멤버를 오름차순으로 최대 count개 조회
+     * @param key 정렬 집합 키
+     * @param max 최대 점수
+     * @param count 최대 개수
+     * @return 멤버 목록
+     */
+    public List<String> rangeByScore(String key, double max, int count) {
+        Set<Object> members = redisTemplate.opsForZSet().rangeByScore(key, Double.NEGATIVE_INFINITY, max, 0, count);
+        List<String> result = new ArrayList<>();
+        if (members != null) {
+            members.forEach(member -> result.add(member.toString()));
+        }
+        return result;
+    }
+
+    /**
+     * 임의의 하위 카운터 하나로 스크립트를 실행하고, 그 카운터가 모자라면 모든 하위 카운터로 다시 실행
+     * 대부분의 호출은 하위 카운터 하나만 읽고 쓰므로 분할한 만큼 요청이 나뉜다.
+     */
+    private long executeOnStripes(RedisScript<Long> script, String key, List<String> fixedKeys, Object... args) {
+        for (int attempt = 1; attempt <= LAYOUT_MAX_ATTEMPTS; attempt++) {
+            int stripeCount = stripeCount(key);
+            if (stripeCount == 0) {
+                return NOT_INITIALIZED;
+            }
+            
+            int start = ThreadLocalRandom.current().nextInt(stripeCount);
+            long result = execute(script, concat(fixedKeys, List.of(stripeKey(key, start))), stripeArgs(start, 0, args));
+            if (result == INSUFFICIENT) {
+                // 모든 하위 카운터를 합쳐 다시 시도하고, 그래도 모자라면 품절 여부를 판단
+                result = execute(script, concat(fixedKeys, stripeKeys(key, stripeCount)), stripeArgs(start, stripeCount, args));
+            }
+            
+            if (result != NOT_INITIALIZED && result != LAYOUT_CHANGED) {
+                return result;
+            }
+            refreshStripeCount(key);
+        }
+        return NOT_INITIALIZED;
+    }
+
+    /**
+     * 임의의 하위 카운터 하나를 첫 번째 키로 스크립트 실행 (하위 카운터가 없어졌으면 분할 수를 다시 읽고 재시도)
+     */
+    private long executeOnStripe(RedisScript<Long> script, String key, List<String> otherKeys, Object... args) {
+        for (int attempt = 1; attempt <= LAYOUT_MAX_ATTEMPTS; attempt++) {
+            int stripeCount = stripeCount(key);
+            if (stripeCount == 0) {
+                return NOT_INITIALIZED;
+            }
+            
+            String stripeKey = stripeKey(key, ThreadLocalRandom.current().nextInt(stripeCount));
+            long result = execute(script, concat(List.of(stripeKey), otherKeys), args);
+            if (result != NOT_INITIALIZED) {
+                return result;
+            }
+            refreshStripeCount(key);
+        }
+        return NOT_INITIALIZED;
+    }
+
+    private long sum(String key, String includeReserved) {
+        for (int attempt = 1; attempt <= LAYOUT_MAX_ATTEMPTS; attempt++) {
+            int stripeCount = stripeCount(key);
+            if (stripeCount == 0) {
+                return NOT_INITIALIZED;
+            }
+            
+            List<String> keys = concat(List.of(stripesKey(key), leasesKey(key), reservedKey(key)), stripeKeys(key, stripeCount));
+            long result = execute(SUM_SCRIPT, keys, stripeArgs(0, stripeCount, includeReserved));
+            if (result != NOT_INITIALIZED && result != LAYOUT_CHANGED) {
+                return result;
+            }
+            refreshStripeCount(key);
+        }
+        return NOT_INITIALIZED;
+    }
+
+    private int stripeCount(String key) {
+        Integer stripeCount = stripeCounts.get(key);
+        return stripeCount != null ? stripeCount : refreshStripeCount(key);
+    }
+
+    private int refreshStripeCount(String key) {
+        Object value = redisTemplate.opsForValue().get(stripesKey(key));
+        if (value == null) {
+            stripeCounts.remove(key);
+            return 0;
+        }
+        
+        int stripeCount = Integer.parseInt(value.toString());
+        stripeCounts.put(key, stripeCount);
+        return stripeCount;
+    }
+
+    private long execute(RedisScript<Long> script, List<String> keys, Object... args) {
+        Long result = redisTemplate.execute(script, keys, args);
+        return result != null ? result : NOT_INITIALIZED;
+    }
+
+    private static Object[] stripeArgs(int start, int stripeCount, Object... args) {
+        Object[] result = new Object[args.length + 2];
+        result[0] = String.valueOf(start);
+        result[1] = String.valueOf(stripeCount);
+        System.arraycopy(args, 0, result, 2, args.length);
+        return result;
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private static String stripesKey(String key) {
+        return key + ":stripes";
+    }
+
+    private static String stripeKey(String key, int index) {
+        return key + ":stripe:" + index;
+    }
+
+    private static List<String> stripeKeys(String key, int stripeCount) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < stripeCount; i++) {
+            keys.add(stripeKey(key, i));
+        }
+        return keys;
+    }
+
+    private static String leasesKey(String key) {
+        return key + ":leases";
+    }
+
+    private static String reservedKey(String key) {
+        return key + ":reserved";
+    }
+
+    private static String reservationsKey(String key) {
+        return key + ":reservations";
+    }
+}
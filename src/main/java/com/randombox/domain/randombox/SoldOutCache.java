@@ -0,0 +1,101 @@
+package com.randombox.domain.randombox;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 품절된 랜덤박스를 노드 로컬에 기록해 두는 캐시
+ * 품절된 랜덤박스에 대한 구매 요청을 DB나 Redis 조회 없이 바로 거절하기 위해 사용한다.
+ * 상태가 바뀌면 Redis pub/sub으로 다른 노드에 알려 모든 노드의 캐시를 맞춘다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SoldOutCache {
+
+    private static final String TOPIC_NAME = "randombox:inventory:sold-out";
+    private static final String SOLD_OUT = "SOLD_OUT";
+    private static final String AVAILABLE = "AVAILABLE";
+
+    private final RedissonClient redissonClient;
+
+    private final Set<Long> soldOutBoxIds = ConcurrentHashMap.newKeySet();
+
+    private RTopic topic;
+    private int listenerId;
+
+    @PostConstruct
+    public void subscribe() {
+        topic = redissonClient.getTopic(TOPIC_NAME, StringCodec.INSTANCE);
+        listenerId = topic.addListener(String.class, (channel, message) -> apply(message));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (topic != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    /**
+     * 품절 여부 확인 (노드 로컬 조회만 수행)
+     * @param randomBoxId 랜덤박스 ID
+     * @return 품절 여부
+     */
+    public boolean isSoldOut(Long randomBoxId) {
+        return soldOutBoxIds.contains(randomBoxId);
+    }
+
+    /**
+     * 품절로 표시하고 다른 노드에 알림
+     * 이미 품절로 표시된 랜덤박스는 다시 알리지 않는다.
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void markSoldOut(Long randomBoxId) {
+        if (soldOutBoxIds.add(randomBoxId)) {
+            publish(SOLD_OUT, randomBoxId);
+            log.info("랜덤박스 {}를 품절로 표시했습니다.", randomBoxId);
+        }
+    }
+
+    /**
+     * 품절 표시를 해제하고 다른 노드에 알림 (재고 복구 시)
+     * 재고를 복구한 노드는 품절 알림을 받기 전에 시작했거나 알림을 놓쳤을 수 있으므로, 이 노드의 표시와 관계없이 항상 알린다.
+     * @param randomBoxId 랜덤박스 ID
+     */
+    public void markAvailable(Long randomBoxId) {
+        if (soldOutBoxIds.remove(randomBoxId)) {
+            log.info("랜덤박스 {}의 품절 표시를 해제했습니다.", randomBoxId);
+        }
+        publish(AVAILABLE, randomBoxId);
+    }
+
+    private void publish(String status, Long randomBoxId) {
+        try {
+            topic.publish(status + ":" + randomBoxId);
+        } catch (Exception e) {
+            // 알림에 실패해도 다른 노드는 자체 재고 확인으로 상태를 다시 맞추게 된다
+            log.error("랜덤박스 {} 품절 상태 알림에 실패했습니다.", randomBoxId, e);
+        }
+    }
+
+    private void apply(String message) {
+        String[] parts = message.split(":");
+        Long randomBoxId = Long.valueOf(parts[1]);
+        
+        if (SOLD_OUT.equals(parts[0])) {
+            soldOutBoxIds.add(randomBoxId);
+        } else if (AVAILABLE.equals(parts[0])) {
+            soldOutBoxIds.remove(randomBoxId);
+        }
+    }
+}
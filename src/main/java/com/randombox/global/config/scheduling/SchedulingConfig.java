@@ -0,0 +1,12 @@
+package com.randombox.global.config.scheduling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// 스케줄 작업 (대기열 입장, 재고 반영 등) 실행 여부, Redis 상태를 직접 확인하는 테스트에서는 끔
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "randombox.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
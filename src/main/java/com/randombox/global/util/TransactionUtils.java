@@ -0,0 +1,55 @@
+package com.randombox.global.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 완료 시점에 실행할 작업 등록 유틸리티
+ * 진행 중인 트랜잭션이 없으면 커밋된 것으로 보고 즉시 실행한다.
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * 커밋 후 실행
+     * @param onCommit 커밋 후 실행할 작업
+     */
+    public static void afterCommit(Runnable onCommit) {
+        afterCompletion(onCommit, () -> { });
+    }
+
+    /**
+     * 롤백 후 실행 (진행 중인 트랜잭션이 없으면 실행하지 않음)
+     * @param onRollback 롤백 후 실행할 작업
+     */
+    public static void afterRollback(Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCompletion(() -> { }, onRollback);
+        }
+    }
+
+    /**
+     * 커밋/롤백 결과에 따라 실행
+     * @param onCommit 커밋 후 실행할 작업
+     * @param onRollback 롤백 후 실행할 작업
+     */
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -12,33 +12,34 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import redis.embedded.RedisServer;
 
-import java.io.IOException;
-
 @TestConfiguration
 public class TestRedisConfig {
 
-    private RedisServer redisServer;
+    private static final int PORT = 6379;
+
+    // 테스트 클래스마다 컨텍스트가 새로 만들어져도 내장 Redis는 JVM에서 한 번만 실행
+    private static RedisServer redisServer;
 
     @PostConstruct
-    public void startRedis() throws IOException {
-        redisServer = new RedisServer(6379);
-        redisServer.start();
+    public void startRedis() {
+        start();
     }
 
-    @PreDestroy
-    public void stopRedis() {
+    private static synchronized void start() {
         if (redisServer != null) {
-            redisServer.stop();
+            return;
         }
+        redisServer = new RedisServer(PORT);
+        redisServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(redisServer::stop));
     }
 
     @Bean
     @Primary
     public RedisConnectionFactory redisConnectionFactory() {
-        return new LettuceConnectionFactory("localhost", 6379);
+        return new LettuceConnectionFactory("localhost", PORT);
     }
 
     @Bean
@@ -48,15 +49,18 @@ public class TestRedisConfig {
         redisTemplate.setConnectionFactory(redisConnectionFactory());
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         redisTemplate.setValueSerializer(new StringRedisSerializer());
+        // 해시 필드와 값도 Lua 스크립트가 읽고 쓰는 문자열 그대로 저장
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(new StringRedisSerializer());
         return redisTemplate;
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     @Primary
     public RedissonClient redissonClient() {
         Config config = new Config();
         config.useSingleServer()
-                .setAddress("redis://localhost:6379");
+                .setAddress("redis://localhost:" + PORT);
         return Redisson.create(config);
     }
 }
@@ -14,7 +14,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
+@SpringBootTest(properties = {"spring.profiles.active=test", "randombox.scheduling.enabled=false"})
 @Import(TestRedisConfig.class)
 class NotificationServiceTest {
 
@@ -181,6 +181,50 @@ class NotificationServiceTest {
         assertThat(notification.getMessage()).contains("테스트 아이템");
     }
 
+    @Test
+    @DisplayName("구매 결과 알림은 획득한 아이템을 묶어 하나만 생성")
+    void sendPurchaseSummaryNotification_Success() {
+        // when
+        Notification notification = notificationService.sendPurchaseSummaryNotification(
+                TEST_USER_ID,
+                "테스트 랜덤박스",
+                List.of("일반 아이템", "희귀 아이템", "일반 아이템")
+        );
+
+        // then
+        assertThat(notification.getType()).isEqualTo(Notification.NotificationType.PURCHASE_SUCCESS);
+        assertThat(notification.getMessage()).contains("아이템 3개");
+        assertThat(notification.getMessage()).contains("'일반 아이템' x2");
+        assertThat(notification.getMessage()).contains("'희귀 아이템'");
+        assertThat(notificationService.getNotifications(TEST_USER_ID)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("문자열 직렬화기로 저장한 구매 결과 알림을 그대로 다시 조회")
+    void sendPurchaseSummaryNotification_RoundTrip() {
+        // given
+        Notification sent = notificationService.sendPurchaseSummaryNotification(
+                TEST_USER_ID,
+                "테스트 랜덤박스",
+                List.of("일반 아이템", "희귀 아이템")
+        );
+
+        // when
+        List<Notification> notifications = notificationService.getNotifications(TEST_USER_ID);
+
+        // then
+        assertThat(notifications).hasSize(1);
+        Notification stored = notifications.get(0);
+        assertThat(stored.getId()).isEqualTo(sent.getId());
+        assertThat(stored.getUserId()).isEqualTo(TEST_USER_ID);
+        assertThat(stored.getMessage()).isEqualTo(sent.getMessage());
+        assertThat(stored.getType()).isEqualTo(Notification.NotificationType.PURCHASE_SUCCESS);
+        assertThat(stored.getCreatedAt()).isEqualTo(sent.getCreatedAt());
+        assertThat(stored.isRead()).isFalse();
+        assertThat(redisTemplate.opsForValue().get("randombox:notification:" + TEST_USER_ID + ":" + sent.getId()))
+                .isInstanceOf(String.class);
+    }
+
     @Test
     @DisplayName("대기열 준비 완료 알림 생성 성공")
     void sendQueueReadyNotification_Success() {
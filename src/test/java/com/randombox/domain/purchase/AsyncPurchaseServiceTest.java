@@ -0,0 +1,91 @@
+package com.randombox.domain.purchase;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncPurchaseServiceTest {
+
+    @Mock
+    private PurchaseService purchaseService;
+
+    @Mock
+    private PurchaseTicketStore purchaseTicketStore;
+
+    @InjectMocks
+    private AsyncPurchaseService asyncPurchaseService;
+
+    @Test
+    @DisplayName("묶음 안의 구매를 각각 처리하고 끝날 때마다 결과를 저장한다")
+    void process_SavesEachResult() {
+        // given
+        PurchaseCommand success = command("ticket-1", 1L);
+        PurchaseCommand failure = command("ticket-2", 2L);
+        Purchase purchase = mock(Purchase.class);
+        when(purchase.getId()).thenReturn(100L);
+        when(purchaseService.purchaseRandomBox(1L, 1L, 2, null)).thenReturn(purchase);
+        when(purchaseService.purchaseRandomBox(2L, 1L, 2, null))
+                .thenThrow(new IllegalStateException("재고가 부족하거나 재고 감소에 실패했습니다."));
+
+        // when
+        asyncPurchaseService.process(List.of(success, failure));
+
+        // then
+        ArgumentCaptor<PurchaseTicket> captor = ArgumentCaptor.forClass(PurchaseTicket.class);
+        verify(purchaseTicketStore, times(2)).save(captor.capture());
+        List<PurchaseTicket> tickets = captor.getAllValues();
+        assertThat(tickets).hasSize(2);
+        assertThat(tickets.get(0).getStatus()).isEqualTo(PurchaseTicket.Status.COMPLETED);
+        assertThat(tickets.get(0).getPurchaseId()).isEqualTo(100L);
+        assertThat(tickets.get(1).getStatus()).isEqualTo(PurchaseTicket.Status.FAILED);
+        assertThat(tickets.get(1).getMessage()).isEqualTo("재고가 부족하거나 재고 감소에 실패했습니다.");
+    }
+
+    @Test
+    @DisplayName("결과 저장에 실패해도 묶음의 나머지 구매는 처리한다")
+    void process_ContinuesAfterSaveFailure() {
+        // given
+        Purchase purchase = mock(Purchase.class);
+        when(purchaseService.purchaseRandomBox(anyLong(), anyLong(), anyInt(), isNull())).thenReturn(purchase);
+        doThrow(new IllegalStateException("Redis 연결 실패"))
+                .doNothing()
+                .when(purchaseTicketStore).save(any(PurchaseTicket.class));
+
+        // when
+        asyncPurchaseService.process(List.of(command("ticket-1", 1L), command("ticket-2", 2L)));
+
+        // then
+        verify(purchaseService, times(2)).purchaseRandomBox(anyLong(), anyLong(), anyInt(), isNull());
+        verify(purchaseTicketStore, times(2)).save(any(PurchaseTicket.class));
+    }
+
+    @Test
+    @DisplayName("구매 수량이 1개 미만이면 접수하지 않는다")
+    void submit_InvalidQuantity() {
+        // when & then
+        assertThatThrownBy(() -> asyncPurchaseService.submit(1L, 1L, 0, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(purchaseTicketStore);
+    }
+
+    private PurchaseCommand command(String ticketId, Long userId) {
+        return PurchaseCommand.builder()
+                .ticketId(ticketId)
+                .userId(userId)
+                .randomBoxId(1L)
+                .quantity(2)
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.randombox.domain.purchase;
+
+import com.randombox.domain.randombox.RandomBox;
+import com.randombox.domain.randombox.RandomBoxItem;
+import com.randombox.domain.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 구매 내역 조회 쿼리 수 확인
+ * 구매 수와 관계없이 구매(랜덤박스 포함) 조회 한 번, 구매 결과 조회 한 번으로 끝나야 한다.
+ * 커서 페이지 조회는 구매 시각이 같은 구매도 빠짐없이, 중복 없이 이어서 조회해야 한다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.org.hibernate.type=info"
+})
+class PurchaseHistoryQueryTest {
+
+    private static final int PURCHASE_COUNT = 20;
+    private static final int RESULTS_PER_PURCHASE = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private PurchaseResultRepository purchaseResultRepository;
+
+    @Test
+    @DisplayName("구매 내역과 구매 결과를 구매 수와 관계없이 쿼리 두 번으로 조회")
+    void findPurchaseHistory_BoundedStatements() {
+        // given
+        User user = User.builder()
+                .email("history@example.com")
+                .password("password")
+                .nickname("내역")
+                .build();
+        entityManager.persist(user);
+        
+        for (int i = 0; i < PURCHASE_COUNT; i++) {
+            // 구매마다 다른 랜덤박스, 아이템을 사용해 지연 로딩이 있으면 쿼리 수가 늘어나도록 함
+            RandomBox randomBox = RandomBox.builder()
+                    .name("랜덤박스 " + i)
+                    .description("테스트용 랜덤박스입니다.")
+                    .price(1000)
+                    .quantity(100)
+                    .salesStartTime(LocalDateTime.now().minusDays(1))
+                    .salesEndTime(LocalDateTime.now().plusDays(1))
+                    .build();
+            RandomBoxItem randomBoxItem = RandomBoxItem.builder()
+                    .randomBox(randomBox)
+                    .name("아이템 " + i)
+                    .description("테스트용 아이템입니다.")
+                    .rarity(RandomBoxItem.Rarity.RARE)
+                    .probability(new BigDecimal("100.00"))
+                    .build();
+            Purchase purchase = Purchase.builder()
+                    .user(user)
+                    .randomBox(randomBox)
+                    .quantity(RESULTS_PER_PURCHASE)
+                    .totalPrice(RESULTS_PER_PURCHASE * 1000)
+                    .build();
+            entityManager.persist(randomBox);
+            entityManager.persist(randomBoxItem);
+            entityManager.persist(purchase);
+            for (int j = 0; j < RESULTS_PER_PURCHASE; j++) {
+                entityManager.persist(PurchaseResult.builder()
+                        .purchase(purchase)
+                        .randomBoxItem(randomBoxItem)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        User detachedUser = entityManager.find(User.class, user.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<Purchase> purchases = purchaseRepository.findWithRandomBoxByUser(detachedUser);
+        List<Long> purchaseIds = new ArrayList<>();
+        List<String> boxNames = new ArrayList<>();
+        for (Purchase purchase : purchases) {
+            purchaseIds.add(purchase.getId());
+            // 응답에서 사용하는 연관 필드
+            boxNames.add(purchase.getRandomBox().getName() + purchase.getRandomBox().getPrice() + purchase.getUser().getId());
+        }
+        List<PurchaseResultSummary> results = purchaseResultRepository.findSummariesByPurchaseIdIn(purchaseIds);
+
+        // then
+        assertThat(purchases).hasSize(PURCHASE_COUNT);
+        assertThat(boxNames).hasSize(PURCHASE_COUNT);
+        assertThat(results).hasSize(PURCHASE_COUNT * RESULTS_PER_PURCHASE);
+        assertThat(results.get(0).getItemName()).startsWith("아이템 ");
+        assertThat(results.get(0).getRarity()).isEqualTo(RandomBoxItem.Rarity.RARE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("구매 시각이 같은 구매가 있어도 커서 페이지를 이어서 전체 구매를 한 번씩 조회")
+    void findPageByUser_KeysetWalk() {
+        // given
+        User user = User.builder()
+                .email("page@example.com")
+                .password("password")
+                .nickname("페이지")
+                .build();
+        RandomBox randomBox = RandomBox.builder()
+                .name("랜덤박스")
+                .description("테스트용 랜덤박스입니다.")
+                .price(1000)
+                .quantity(100)
+                .salesStartTime(LocalDateTime.now().minusDays(1))
+                .salesEndTime(LocalDateTime.now().plusDays(1))
+                .build();
+        entityManager.persist(user);
+        entityManager.persist(randomBox);
+        
+        // 구매 시각을 세 개로만 나눠 같은 시각의 구매가 페이지 경계에 걸리도록 함
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < PURCHASE_COUNT; i++) {
+            Purchase purchase = Purchase.builder()
+                    .user(user)
+                    .randomBox(randomBox)
+                    .quantity(1)
+                    .totalPrice(1000)
+                    .build();
+            ReflectionTestUtils.setField(purchase, "purchaseDateTime", base.plusMinutes(i % 3));
+            entityManager.persist(purchase);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        User detachedUser = entityManager.find(User.class, user.getId());
+        List<Purchase> expected = new ArrayList<>(purchaseRepository.findWithRandomBoxByUser(detachedUser));
+        expected.sort(Comparator.comparing(Purchase::getPurchaseDateTime).thenComparing(Purchase::getId).reversed());
+        List<Long> expectedIds = new ArrayList<>();
+        expected.forEach(purchase -> expectedIds.add(purchase.getId()));
+
+        // when
+        int pageSize = 6;
+        List<Long> walkedIds = new ArrayList<>();
+        List<Purchase> page = purchaseRepository.findPageByUser(detachedUser, PageRequest.of(0, pageSize));
+        while (!page.isEmpty()) {
+            page.forEach(purchase -> walkedIds.add(purchase.getId()));
+            PurchaseCursor cursor = PurchaseCursor.decode(PurchaseCursor.after(page.get(page.size() - 1)).encode());
+            page = purchaseRepository.findPageByUserBefore(
+                    detachedUser, cursor.getPurchaseDateTime(), cursor.getId(), PageRequest.of(0, pageSize));
+        }
+
+        // then
+        assertThat(walkedIds).hasSize(PURCHASE_COUNT);
+        assertThat(walkedIds).containsExactlyElementsOf(expectedIds);
+    }
+}
@@ -0,0 +1,146 @@
+package com.randombox.domain.purchase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchaseIdempotencyServiceTest {
+
+    private static final String KEY = "randombox:purchase:idempotency:1:retry-key";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @InjectMocks
+    private PurchaseIdempotencyService purchaseIdempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("처음 받은 멱등 키는 처리 권한 토큰과 함께 처리 중으로 기록하고 처리 권한을 얻는다")
+    void acquire_FirstRequest() {
+        // given
+        when(valueOperations.setIfAbsent(eq(KEY), startsWith("PENDING:"), anyLong(), eq(TimeUnit.SECONDS))).thenReturn(true);
+
+        // when
+        PurchaseIdempotencyRecord acquired = purchaseIdempotencyService.acquire(1L, "retry-key", "fp-1");
+
+        // then
+        assertThat(acquired.isAcquired()).isTrue();
+        assertThat(acquired.isPending()).isTrue();
+        verify(valueOperations).setIfAbsent(eq(KEY), endsWith(":fp-1"), anyLong(), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("이미 구매가 끝난 멱등 키로 재시도하면 기록된 구매 ID를 반환한다")
+    void acquire_CompletedRequest() {
+        // given
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), anyLong(), eq(TimeUnit.SECONDS))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn("PURCHASE:fp-1:42");
+
+        // when
+        PurchaseIdempotencyRecord existing = purchaseIdempotencyService.acquire(1L, "retry-key", "fp-1");
+
+        // then
+        assertThat(existing.isAcquired()).isFalse();
+        assertThat(existing.isPending()).isFalse();
+        assertThat(existing.getPurchaseId()).isEqualTo(42L);
+        assertThat(existing.matches("fp-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("같은 멱등 키로 내용이 다른 요청을 보내면 처음 요청과 일치하지 않는다")
+    void acquire_DifferentRequest() {
+        // given
+        String fingerprint = purchaseIdempotencyService.fingerprint(2L, 1, null);
+        String other = purchaseIdempotencyService.fingerprint(2L, 3, null);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), anyLong(), eq(TimeUnit.SECONDS))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn("PENDING:owner-1:" + fingerprint, "TICKET:" + fingerprint + ":abc");
+
+        // when
+        PurchaseIdempotencyRecord pending = purchaseIdempotencyService.acquire(1L, "retry-key", other);
+        PurchaseIdempotencyRecord ticket = purchaseIdempotencyService.acquire(1L, "retry-key", other);
+
+        // then
+        assertThat(pending.isPending()).isTrue();
+        assertThat(pending.getOwner()).isNull();
+        assertThat(pending.matches(other)).isFalse();
+        assertThat(ticket.getTicketId()).isEqualTo("abc");
+        assertThat(ticket.matches(other)).isFalse();
+        assertThat(ticket.matches(fingerprint)).isTrue();
+    }
+
+    @Test
+    @DisplayName("기록이 계속 생겼다 지워지면 정해진 횟수만 시도하고 처리 중으로 응답한다")
+    void acquire_BoundedRetry() {
+        // given
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), anyLong(), eq(TimeUnit.SECONDS))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(null);
+
+        // when
+        PurchaseIdempotencyRecord record = purchaseIdempotencyService.acquire(1L, "retry-key", "fp-1");
+
+        // then
+        assertThat(record.isAcquired()).isFalse();
+        assertThat(record.isPending()).isTrue();
+        verify(valueOperations, times(3)).setIfAbsent(eq(KEY), anyString(), anyLong(), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("처리 중인 요청을 기다리다 결과가 기록되면 그 결과를 반환한다")
+    void await_UntilCompleted() {
+        // given
+        when(valueOperations.get(KEY)).thenReturn("PENDING", "PENDING", "TICKET:abc");
+
+        // when
+        PurchaseIdempotencyRecord record = purchaseIdempotencyService.await(1L, "retry-key");
+
+        // then
+        assertThat(record.getTicketId()).isEqualTo("abc");
+        verify(valueOperations, times(3)).get(KEY);
+    }
+
+    @Test
+    @DisplayName("구매 결과는 자신의 처리 중 기록일 때만 덮어써 저장한다")
+    @SuppressWarnings("unchecked")
+    void complete_OnlyOwnPending() {
+        // given
+        PurchaseIdempotencyRecord pending = PurchaseIdempotencyRecord.acquired("owner-1", "fp-1");
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq("PENDING:owner-1:fp-1"), eq("PURCHASE:fp-1:42"), anyString()))
+                .thenReturn(1L, 0L);
+
+        // when
+        boolean first = purchaseIdempotencyService.complete(1L, "retry-key", pending, PurchaseIdempotencyRecord.purchase(42L));
+        boolean expired = purchaseIdempotencyService.complete(1L, "retry-key", pending, PurchaseIdempotencyRecord.purchase(42L));
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(expired).isFalse();
+    }
+}
@@ -0,0 +1,141 @@
+package com.randombox.domain.purchase;
+
+import com.randombox.domain.randombox.RandomBox;
+import com.randombox.domain.randombox.RandomBoxItem;
+import com.randombox.domain.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 구매 결과 INSERT 배치 확인
+ * IDENTITY 키를 쓰는 구매(Purchase)와 시퀀스 키를 쓰는 구매 결과(PurchaseResult)를 같은 건수만큼 저장해
+ * 실행된 SQL 문 수와 처리량을 비교한다.
+ */
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.org.hibernate.type=info"
+})
+class PurchaseResultBatchInsertTest {
+
+    private static final int ROW_COUNT = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private PurchaseResultRepository purchaseResultRepository;
+
+    private User user;
+    private RandomBox randomBox;
+    private RandomBoxItem randomBoxItem;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .email("batch@example.com")
+                .password("password")
+                .nickname("배치")
+                .build();
+        randomBox = RandomBox.builder()
+                .name("테스트 랜덤박스")
+                .description("테스트용 랜덤박스입니다.")
+                .price(1000)
+                .quantity(ROW_COUNT)
+                .salesStartTime(LocalDateTime.now().minusDays(1))
+                .salesEndTime(LocalDateTime.now().plusDays(1))
+                .build();
+        randomBoxItem = RandomBoxItem.builder()
+                .randomBox(randomBox)
+                .name("테스트 아이템")
+                .description("테스트용 아이템입니다.")
+                .rarity(RandomBoxItem.Rarity.COMMON)
+                .probability(new BigDecimal("100.00"))
+                .build();
+        entityManager.persist(user);
+        entityManager.persist(randomBox);
+        entityManager.persist(randomBoxItem);
+        entityManager.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("시퀀스 키를 쓰는 구매 결과는 배치로 저장되어 IDENTITY 키보다 SQL 실행 수가 적다")
+    void saveAll_BatchesInserts() {
+        // given
+        Purchase purchase = Purchase.builder()
+                .user(user)
+                .randomBox(randomBox)
+                .quantity(ROW_COUNT)
+                .totalPrice(ROW_COUNT * 1000)
+                .build();
+
+        // when (변경 전: IDENTITY 키 엔티티를 건별 저장)
+        statistics.clear();
+        long identityStart = System.nanoTime();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            purchaseRepository.save(Purchase.builder()
+                    .user(user)
+                    .randomBox(randomBox)
+                    .quantity(1)
+                    .totalPrice(1000)
+                    .build());
+        }
+        entityManager.flush();
+        long identityNanos = System.nanoTime() - identityStart;
+        long identityStatements = statistics.getPrepareStatementCount();
+
+        // when (변경 후: 시퀀스 키 엔티티를 한 번에 저장)
+        purchaseRepository.save(purchase);
+        entityManager.flush();
+        List<PurchaseResult> results = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            results.add(PurchaseResult.builder()
+                    .purchase(purchase)
+                    .randomBoxItem(randomBoxItem)
+                    .build());
+        }
+        statistics.clear();
+        long sequenceStart = System.nanoTime();
+        purchaseResultRepository.saveAll(results);
+        entityManager.flush();
+        long sequenceNanos = System.nanoTime() - sequenceStart;
+        long sequenceStatements = statistics.getPrepareStatementCount();
+
+        log.info("{}건 저장 - IDENTITY: SQL {}회, {}건/초 / 시퀀스 + 배치: SQL {}회, {}건/초",
+                ROW_COUNT,
+                identityStatements, ROW_COUNT * 1_000_000_000L / Math.max(identityNanos, 1),
+                sequenceStatements, ROW_COUNT * 1_000_000_000L / Math.max(sequenceNanos, 1));
+
+        // then
+        assertThat(identityStatements).isGreaterThanOrEqualTo(ROW_COUNT);
+        // 시퀀스 조회(50개마다 1회) + INSERT 배치(50건마다 1회)
+        assertThat(sequenceStatements).isLessThanOrEqualTo(2L * ROW_COUNT / 50 + 2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROW_COUNT);
+    }
+}
@@ -3,7 +3,12 @@ package com.randombox.domain.purchase;
 import com.randombox.domain.coupon.Coupon;
 import com.randombox.domain.coupon.UserCoupon;
 import com.randombox.domain.coupon.UserCouponRepository;
+import com.randombox.domain.notification.NotificationService;
+import com.randombox.domain.queue.QueueService;
+import com.randombox.domain.randombox.ItemAliasTable;
+import com.randombox.domain.randombox.ItemDraws;
 import com.randombox.domain.randombox.RandomBox;
+import com.randombox.domain.randombox.RandomBoxInventoryService;
 import com.randombox.domain.randombox.RandomBoxItem;
 import com.randombox.domain.randombox.RandomBoxRepository;
 import com.randombox.domain.randombox.RandomBoxService;
@@ -17,8 +22,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +35,10 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +62,15 @@ class PurchaseServiceTest {
     @Mock
     private UserCouponRepository userCouponRepository;
 
+    @Mock
+    private RandomBoxInventoryService randomBoxInventoryService;
+
+    @Mock
+    private QueueService queueService;
+
+    @Mock
+    private NotificationService notificationService;
+
     @InjectMocks
     private PurchaseService purchaseService;
 
@@ -132,9 +153,10 @@ class PurchaseServiceTest {
         // given
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(randomBoxRepository.findById(1L)).thenReturn(Optional.of(randomBox));
+        when(randomBoxInventoryService.reserve(eq(1L), anyInt(), any(Duration.class))).thenReturn("1:1:reservation");
         when(purchaseRepository.save(any(Purchase.class))).thenReturn(purchase);
-        when(randomBoxService.drawRandomItem(1L)).thenReturn(randomBoxItem);
-        when(purchaseResultRepository.save(any(PurchaseResult.class))).thenReturn(purchaseResult);
+        when(randomBoxService.drawMany(1L, 1)).thenReturn(new ItemDraws(ItemAliasTable.of(List.of(randomBoxItem)), new int[1]));
+        when(purchaseResultRepository.saveAll(anyList())).thenReturn(List.of(purchaseResult));
 
         // when
         Purchase result = purchaseService.purchaseRandomBox(1L, 1L, 1, null);
@@ -149,8 +171,40 @@ class PurchaseServiceTest {
         
         verify(randomBoxRepository, times(1)).findById(1L);
         verify(purchaseRepository, times(1)).save(any(Purchase.class));
-        verify(randomBoxService, times(1)).drawRandomItem(1L);
-        verify(purchaseResultRepository, times(1)).save(any(PurchaseResult.class));
+        verify(randomBoxService, times(1)).drawMany(1L, 1);
+        verify(purchaseResultRepository, times(1)).saveAll(anyList());
+        verify(randomBoxInventoryService, times(1)).commit("1:1:reservation");
+    }
+
+    @Test
+    @DisplayName("랜덤박스 구매 실패 - 쿠폰 검증 실패 시 재고를 예약하지 않음")
+    void purchaseRandomBox_Failure_UsedCoupon_NoReservation() {
+        // given
+        ReflectionTestUtils.setField(userCoupon, "used", true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(randomBoxRepository.findById(1L)).thenReturn(Optional.of(randomBox));
+        when(userCouponRepository.findById(1L)).thenReturn(Optional.of(userCoupon));
+
+        // when & then
+        assertThatThrownBy(() -> purchaseService.purchaseRandomBox(1L, 1L, 1, 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("이미 사용된 쿠폰입니다.");
+        verify(randomBoxInventoryService, never()).reserve(any(), anyInt(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("랜덤박스 구매 실패 - 품절된 랜덤박스는 DB 조회 없이 거절")
+    void purchaseRandomBox_Failure_SoldOut() {
+        // given
+        when(randomBoxInventoryService.isSoldOut(1L)).thenReturn(true);
+
+        // when & then
+        assertThatThrownBy(() -> purchaseService.purchaseRandomBox(1L, 1L, 1, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("품절된 랜덤박스입니다.");
+        verify(userRepository, never()).findById(any());
+        verify(randomBoxRepository, never()).findById(any());
+        verify(randomBoxInventoryService, never()).reserve(any(), anyInt(), any(Duration.class));
     }
 
     @Test
@@ -160,9 +214,10 @@ class PurchaseServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(randomBoxRepository.findById(1L)).thenReturn(Optional.of(randomBox));
         when(userCouponRepository.findById(1L)).thenReturn(Optional.of(userCoupon));
+        when(randomBoxInventoryService.reserve(eq(1L), anyInt(), any(Duration.class))).thenReturn("1:1:reservation");
         when(purchaseRepository.save(any(Purchase.class))).thenReturn(purchase);
-        when(randomBoxService.drawRandomItem(1L)).thenReturn(randomBoxItem);
-        when(purchaseResultRepository.save(any(PurchaseResult.class))).thenReturn(purchaseResult);
+        when(randomBoxService.drawMany(1L, 1)).thenReturn(new ItemDraws(ItemAliasTable.of(List.of(randomBoxItem)), new int[1]));
+        when(purchaseResultRepository.saveAll(anyList())).thenReturn(List.of(purchaseResult));
 
         // when
         Purchase result = purchaseService.purchaseRandomBox(1L, 1L, 1, 1L);
@@ -195,12 +250,24 @@ class PurchaseServiceTest {
                 .hasMessageContaining("현재 판매 중인 랜덤박스가 아닙니다.");
     }
 
+    @Test
+    @DisplayName("예상 대기 시간은 대기 번호를 앞에 있는 인원으로 바꿔 계산")
+    void estimateWait_UsesUsersAhead() {
+        // when
+        purchaseService.estimateWait(1L, 3);
+        purchaseService.estimateWait(1L, 0);
+
+        // then
+        verify(queueService).estimateWait(1L, 2);
+        verify(queueService).estimateWait(1L, 0);
+    }
+
     @Test
     @DisplayName("구매 내역 조회 성공")
     void getUserPurchases_Success() {
         // given
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(purchaseRepository.findByUserOrderByPurchaseDateTimeDesc(user)).thenReturn(Arrays.asList(purchase));
+        when(purchaseRepository.findWithRandomBoxByUser(user)).thenReturn(Arrays.asList(purchase));
 
         // when
         List<Purchase> result = purchaseService.getUserPurchases(1L);
@@ -212,6 +279,37 @@ class PurchaseServiceTest {
         assertThat(result.get(0).getRandomBox()).isEqualTo(randomBox);
     }
 
+    @Test
+    @DisplayName("구매 내역 페이지 조회 시 한 건 더 조회해 다음 커서 생성")
+    void getUserPurchasePage_NextCursor() {
+        // given
+        Purchase olderPurchase = Purchase.builder()
+                .user(user)
+                .randomBox(randomBox)
+                .quantity(1)
+                .totalPrice(1000)
+                .build();
+        ReflectionTestUtils.setField(olderPurchase, "id", 2L);
+        ReflectionTestUtils.setField(olderPurchase, "purchaseDateTime", now.minusMinutes(1));
+        
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(purchaseRepository.findPageByUserBefore(eq(user), eq(now.plusMinutes(1)), eq(10L), any()))
+                .thenReturn(Arrays.asList(purchase, olderPurchase));
+        Purchase cursorPurchase = Purchase.builder().build();
+        ReflectionTestUtils.setField(cursorPurchase, "id", 10L);
+        ReflectionTestUtils.setField(cursorPurchase, "purchaseDateTime", now.plusMinutes(1));
+
+        // when
+        PurchasePage page = purchaseService.getUserPurchasePage(1L, PurchaseCursor.after(cursorPurchase).encode(), 1);
+
+        // then
+        assertThat(page.getPurchases()).containsExactly(purchase);
+        assertThat(page.hasNext()).isTrue();
+        PurchaseCursor next = PurchaseCursor.decode(page.getNextCursor());
+        assertThat(next.getPurchaseDateTime()).isEqualTo(now);
+        assertThat(next.getId()).isEqualTo(1L);
+    }
+
     @Test
     @DisplayName("구매 결과 조회 성공")
     void getPurchaseResults_Success() {
@@ -240,6 +338,28 @@ class PurchaseServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getStatus()).isEqualTo(Purchase.PurchaseStatus.CANCELLED);
+        verify(randomBoxInventoryService).increaseInventory(randomBox.getId(), purchase.getQuantity());
+    }
+
+    @Test
+    @DisplayName("구매 취소가 롤백되면 재고를 복구하지 않음")
+    void cancelPurchase_Rollback_NoRestock() {
+        // given
+        when(purchaseRepository.findById(1L)).thenReturn(Optional.of(purchase));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        try {
+            purchaseService.cancelPurchase(1L, 1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        verify(randomBoxInventoryService, never()).increaseInventory(anyLong(), anyInt());
+        verify(randomBoxService, never()).restoreItems(anyLong(), anyList());
     }
 
     @Test
@@ -3,6 +3,8 @@ package com.randombox.domain.purchase;
 import com.randombox.config.TestRedisConfig;
 import com.randombox.domain.notification.NotificationService;
 import com.randombox.domain.queue.QueueService;
+import com.randombox.domain.randombox.ItemAliasTable;
+import com.randombox.domain.randombox.ItemDraws;
 import com.randombox.domain.randombox.RandomBox;
 import com.randombox.domain.randombox.RandomBoxInventoryService;
 import com.randombox.domain.randombox.RandomBoxItem;
@@ -20,7 +22,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,13 +34,14 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest
+@SpringBootTest(properties = {"spring.profiles.active=test", "randombox.scheduling.enabled=false"})
 @Import(TestRedisConfig.class)
 class RedisPurchaseServiceTest {
 
@@ -71,6 +77,7 @@ class RedisPurchaseServiceTest {
 
     private static final Long TEST_USER_ID = 101L;
     private static final Long TEST_RANDOM_BOX_ID = 1L;
+    private static final String TEST_RESERVATION = "1:1:test-reservation";
     private User testUser;
     private RandomBox testRandomBox;
     private RandomBoxItem testRandomBoxItem;
@@ -93,6 +100,7 @@ class RedisPurchaseServiceTest {
                 .email("test@example.com")
                 .password("password123")
                 .build();
+        ReflectionTestUtils.setField(testUser, "id", TEST_USER_ID);
         
         testRandomBox = RandomBox.builder()
                 .name("테스트 랜덤박스")
@@ -108,6 +116,7 @@ class RedisPurchaseServiceTest {
                 .name("테스트 아이템")
                 .description("테스트용 아이템입니다.")
                 .rarity(RandomBoxItem.Rarity.RARE)
+                .probability(new BigDecimal("100.00"))
                 .build();
         
         testPurchase = Purchase.builder()
@@ -125,10 +134,11 @@ class RedisPurchaseServiceTest {
         // Mock 설정
         when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(testUser));
         when(randomBoxRepository.findById(TEST_RANDOM_BOX_ID)).thenReturn(Optional.of(testRandomBox));
-        when(randomBoxService.drawRandomItem(TEST_RANDOM_BOX_ID)).thenReturn(testRandomBoxItem);
+        when(randomBoxService.drawMany(eq(TEST_RANDOM_BOX_ID), any(Integer.class)))
+                .thenAnswer(invocation -> new ItemDraws(ItemAliasTable.of(List.of(testRandomBoxItem)), new int[invocation.<Integer>getArgument(1)]));
         when(purchaseRepository.save(any(Purchase.class))).thenReturn(testPurchase);
-        when(purchaseResultRepository.save(any(PurchaseResult.class))).thenReturn(testPurchaseResult);
-        when(randomBoxInventoryService.decreaseInventory(eq(TEST_RANDOM_BOX_ID), any(Integer.class))).thenReturn(true);
+        when(purchaseResultRepository.saveAll(anyList())).thenReturn(List.of(testPurchaseResult));
+        when(randomBoxInventoryService.reserve(eq(TEST_RANDOM_BOX_ID), any(Integer.class), any(Duration.class))).thenReturn(TEST_RESERVATION);
         when(randomBoxInventoryService.increaseInventory(eq(TEST_RANDOM_BOX_ID), any(Integer.class))).thenReturn(true);
         when(queueService.getPosition(TEST_RANDOM_BOX_ID, TEST_USER_ID)).thenReturn(0); // 대기열 첫 번째 위치
     }
@@ -144,24 +154,23 @@ class RedisPurchaseServiceTest {
         int position = purchaseService.checkQueuePosition(TEST_USER_ID, TEST_RANDOM_BOX_ID);
         
         // then
-        assertThat(position).isEqualTo(0);
+        assertThat(position).isEqualTo(1); // 입장 전에는 대기열 맨 앞이어도 대기 번호 1
         verify(queueService, times(1)).getPosition(TEST_RANDOM_BOX_ID, TEST_USER_ID);
         verify(queueService, times(1)).addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID);
     }
 
     @Test
-    @DisplayName("구매 준비 성공")
-    void prepareForPurchase_Success() {
+    @DisplayName("대기열 위치 확인 성공 - 입장한 사용자는 바로 구매 가능")
+    void checkQueuePosition_Active() {
         // given
-        when(queueService.getNextUser(TEST_RANDOM_BOX_ID)).thenReturn(TEST_USER_ID);
+        when(queueService.isActive(TEST_RANDOM_BOX_ID, TEST_USER_ID)).thenReturn(true);
         
         // when
-        Long userId = purchaseService.prepareForPurchase(TEST_RANDOM_BOX_ID);
+        int position = purchaseService.checkQueuePosition(TEST_USER_ID, TEST_RANDOM_BOX_ID);
         
         // then
-        assertThat(userId).isEqualTo(TEST_USER_ID);
-        verify(queueService, times(1)).getNextUser(TEST_RANDOM_BOX_ID);
-        verify(notificationService, times(1)).sendQueueReadyNotification(TEST_USER_ID, testRandomBox.getName());
+        assertThat(position).isEqualTo(0);
+        verify(queueService, times(0)).addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID);
     }
 
     @Test
@@ -177,13 +186,14 @@ class RedisPurchaseServiceTest {
         assertThat(purchase.getQuantity()).isEqualTo(1);
         assertThat(purchase.getTotalPrice()).isEqualTo(10000);
         
-        verify(randomBoxInventoryService, times(1)).decreaseInventory(TEST_RANDOM_BOX_ID, 1);
-        verify(randomBoxService, times(1)).drawRandomItem(TEST_RANDOM_BOX_ID);
-        verify(purchaseResultRepository, times(1)).save(any(PurchaseResult.class));
-        verify(notificationService, times(1)).sendPurchaseSuccessNotification(
+        verify(randomBoxInventoryService, times(1)).reserve(eq(TEST_RANDOM_BOX_ID), eq(1), any(Duration.class));
+        verify(randomBoxInventoryService, times(1)).commit(TEST_RESERVATION);
+        verify(randomBoxService, times(1)).drawMany(TEST_RANDOM_BOX_ID, 1);
+        verify(purchaseResultRepository, times(1)).saveAll(anyList());
+        verify(notificationService, times(1)).sendPurchaseSummaryNotification(
                 eq(TEST_USER_ID), 
                 eq(testRandomBox.getName()), 
-                eq(testRandomBoxItem.getName())
+                eq(List.of(testRandomBoxItem.getName()))
         );
     }
 
@@ -191,16 +201,16 @@ class RedisPurchaseServiceTest {
     @DisplayName("랜덤박스 구매 실패 - 재고 부족")
     void purchaseRandomBox_Failure_InsufficientInventory() {
         // given
-        when(randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 1)).thenReturn(false);
+        when(randomBoxInventoryService.reserve(eq(TEST_RANDOM_BOX_ID), eq(1), any(Duration.class))).thenReturn(null);
         
         // when & then
         assertThatThrownBy(() -> purchaseService.purchaseRandomBox(TEST_USER_ID, TEST_RANDOM_BOX_ID, 1, null))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("재고가 부족하거나 재고 감소에 실패했습니다.");
         
-        verify(randomBoxInventoryService, times(1)).decreaseInventory(TEST_RANDOM_BOX_ID, 1);
-        verify(randomBoxService, times(0)).drawRandomItem(TEST_RANDOM_BOX_ID);
-        verify(purchaseResultRepository, times(0)).save(any(PurchaseResult.class));
+        verify(randomBoxInventoryService, times(1)).reserve(eq(TEST_RANDOM_BOX_ID), eq(1), any(Duration.class));
+        verify(randomBoxService, times(0)).drawMany(eq(TEST_RANDOM_BOX_ID), any(Integer.class));
+        verify(purchaseResultRepository, times(0)).saveAll(anyList());
     }
 
     @AfterEach
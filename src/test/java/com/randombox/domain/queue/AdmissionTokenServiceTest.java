@@ -0,0 +1,158 @@
+package com.randombox.domain.queue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionTokenServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private Environment environment;
+
+    @InjectMocks
+    private AdmissionTokenService admissionTokenService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(admissionTokenService, "tokenSecret", "test-secret");
+        admissionTokenService.init();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.setIfAbsent(anyString(), any(), anyLong(), eq(TimeUnit.SECONDS)))
+                .thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("발급한 입장 토큰 검증 성공")
+    void verify_Success() {
+        // given
+        String token = admissionTokenService.issue(1L, 2L);
+
+        // when & then
+        assertThat(admissionTokenService.verify(token, 1L, 2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("입장 토큰 검증 실패 - 다른 사용자나 랜덤박스")
+    void verify_Failure_OtherUserOrBox() {
+        // given
+        String token = admissionTokenService.issue(1L, 2L);
+
+        // when & then
+        assertThat(admissionTokenService.verify(token, 3L, 2L)).isFalse();
+        assertThat(admissionTokenService.verify(token, 1L, 3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("입장 토큰 검증 실패 - 변조된 토큰")
+    void verify_Failure_Tampered() {
+        // given
+        String token = admissionTokenService.issue(1L, 2L);
+        String tampered = "3" + token.substring(1);
+
+        // when & then
+        assertThat(admissionTokenService.verify(tampered, 3L, 2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("입장 토큰 검증 실패 - 만료된 토큰")
+    void verify_Failure_Expired() {
+        // given
+        ReflectionTestUtils.setField(admissionTokenService, "tokenTtlSeconds", -1L);
+        String token = admissionTokenService.issue(1L, 2L);
+
+        // when & then
+        assertThat(admissionTokenService.verify(token, 1L, 2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("이미 발급한 입장 토큰이 있으면 같은 토큰 반환")
+    void issue_ReturnsIssuedToken() {
+        // given
+        when(valueOperations.setIfAbsent(eq("randombox:queue:admission-token:2:1"), any(), anyLong(), eq(TimeUnit.SECONDS)))
+                .thenReturn(false);
+        when(valueOperations.get("randombox:queue:admission-token:2:1")).thenReturn("issued-token");
+
+        // when
+        String token = admissionTokenService.issue(1L, 2L);
+
+        // then
+        assertThat(token).isEqualTo("issued-token");
+    }
+
+    @Test
+    @DisplayName("입장 토큰은 한 번만 사용 가능")
+    @SuppressWarnings("unchecked")
+    void consume_OnlyOnce() {
+        // given
+        String token = admissionTokenService.issue(1L, 2L);
+        String nonce = token.split("\\.")[3];
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), eq(token), anyString()))
+                .thenReturn(1L, 0L);
+
+        // when
+        boolean first = admissionTokenService.consume(token);
+        boolean second = admissionTokenService.consume(token);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class),
+                eq(Arrays.asList("randombox:queue:admission-token:2:1", "randombox:queue:token-used:" + nonce)),
+                eq(token), anyString());
+    }
+
+    @Test
+    @DisplayName("입장 해제 시 발급한 입장 토큰 회수")
+    void revoke_DeletesIssuedToken() {
+        // when
+        admissionTokenService.revoke(1L, 2L);
+
+        // then
+        verify(redisTemplate).delete("randombox:queue:admission-token:2:1");
+    }
+
+    @Test
+    @DisplayName("local/test 프로필이 아니면 서명 키 없이 시작할 수 없음")
+    void init_Failure_BlankSecret() {
+        // given
+        ReflectionTestUtils.setField(admissionTokenService, "tokenSecret", " ");
+        when(environment.acceptsProfiles(any(Profiles.class))).thenReturn(false);
+
+        // when & then
+        assertThatThrownBy(() -> admissionTokenService.init())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("token-secret");
+    }
+}
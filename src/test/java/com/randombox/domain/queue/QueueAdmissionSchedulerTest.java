@@ -0,0 +1,118 @@
+package com.randombox.domain.queue;
+
+import com.randombox.domain.notification.NotificationService;
+import com.randombox.domain.randombox.RandomBox;
+import com.randombox.domain.randombox.RandomBoxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueueAdmissionSchedulerTest {
+
+    @Mock
+    private QueueService queueService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private RandomBoxRepository randomBoxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock lock;
+
+    @InjectMocks
+    private QueueAdmissionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redissonClient.getLock(anyString())).thenReturn(lock);
+        lenient().when(lock.tryLock()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("빈 자리만큼만 입장시키고 입장한 사용자에게 알림")
+    void admit_LimitedByFreeSlots() {
+        // given
+        RandomBox randomBox = RandomBox.builder()
+                .name("테스트 랜덤박스")
+                .description("테스트용 랜덤박스입니다.")
+                .price(1000)
+                .quantity(100)
+                .salesStartTime(LocalDateTime.now().minusDays(1))
+                .salesEndTime(LocalDateTime.now().plusDays(1))
+                .build();
+        when(queueService.getQueuedRandomBoxIds()).thenReturn(List.of(1L));
+        when(queueService.getActiveCount(1L)).thenReturn(97); // 최대 100명 중 3자리 남음
+        when(queueService.admit(1L, 3)).thenReturn(Arrays.asList(101L, 102L, 103L));
+        when(randomBoxRepository.findById(1L)).thenReturn(Optional.of(randomBox));
+
+        // when
+        scheduler.admit();
+
+        // then
+        verify(queueService, times(1)).admit(1L, 3);
+        verify(notificationService, times(3)).sendQueueReadyNotification(anyLong(), anyString());
+        verify(eventPublisher, times(1)).publishEvent(any(QueueTickEvent.class));
+        verify(lock, times(1)).unlock();
+    }
+
+    @Test
+    @DisplayName("입장한 사용자가 없으면 알림을 보내지 않음")
+    void admit_NoUsers() {
+        // given
+        when(queueService.getQueuedRandomBoxIds()).thenReturn(List.of(1L));
+        when(queueService.getActiveCount(1L)).thenReturn(100);
+        when(queueService.admit(1L, 0)).thenReturn(Collections.emptyList());
+
+        // when
+        scheduler.admit();
+
+        // then
+        verify(randomBoxRepository, never()).findById(anyLong());
+        verify(notificationService, never()).sendQueueReadyNotification(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("다른 노드가 입장 처리 중이면 이번 주기는 건너뜀")
+    void admit_SkipWhenAnotherNodeAdmitting() {
+        // given
+        when(queueService.getQueuedRandomBoxIds()).thenReturn(List.of(1L));
+        when(lock.tryLock()).thenReturn(false);
+
+        // when
+        scheduler.admit();
+
+        // then
+        verify(queueService, never()).getActiveCount(anyLong());
+        verify(queueService, never()).admit(anyLong(), anyInt());
+        verify(lock, never()).unlock();
+        verify(eventPublisher, times(1)).publishEvent(any(QueueTickEvent.class));
+    }
+}
@@ -0,0 +1,54 @@
+package com.randombox.domain.queue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueueIdleSweeperTest {
+
+    @Mock
+    private QueueService queueService;
+
+    @InjectMocks
+    private QueueIdleSweeper sweeper;
+
+    @Test
+    @DisplayName("응답 없는 대기자 제거가 꺼져 있으면 아무것도 하지 않는다")
+    void sweep_Disabled() {
+        // when
+        sweeper.sweep();
+
+        // then
+        verifyNoInteractions(queueService);
+    }
+
+    @Test
+    @DisplayName("대기열이 있는 랜덤박스마다 기준 시각 이전에 응답한 사용자를 제거하고, 실패한 랜덤박스는 건너뛴다")
+    void sweep_EvictsIdleUsersPerBox() {
+        // given
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        when(queueService.getQueuedRandomBoxIds()).thenReturn(List.of(1L, 2L));
+        when(queueService.evictIdleUsers(eq(1L), anyLong(), eq(500))).thenThrow(new IllegalStateException("Redis 오류"));
+        when(queueService.evictIdleUsers(eq(2L), anyLong(), eq(500))).thenReturn(List.of(201L));
+        long before = System.currentTimeMillis();
+
+        // when
+        sweeper.sweep();
+
+        // then
+        verify(queueService, times(1)).evictIdleUsers(eq(2L), longThat(idleBefore -> idleBefore <= before - 60_000
+                && idleBefore >= before - 61_000), anyInt());
+    }
+}
@@ -11,9 +11,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
-@SpringBootTest
+@SpringBootTest(properties = {"spring.profiles.active=test", "randombox.scheduling.enabled=false"})
 @Import(TestRedisConfig.class)
 class QueueServiceTest {
 
@@ -26,6 +31,12 @@ class QueueServiceTest {
     @Autowired
     private RedissonClient redissonClient;
 
+    @Autowired
+    private QueueThroughputEstimator throughputEstimator;
+
+    @Autowired
+    private AdmissionTokenService admissionTokenService;
+
     private static final Long TEST_RANDOM_BOX_ID = 1L;
     private static final Long TEST_USER_ID_1 = 101L;
     private static final Long TEST_USER_ID_2 = 102L;
@@ -129,6 +140,106 @@ class QueueServiceTest {
         assertThat(queueService.getPosition(TEST_RANDOM_BOX_ID, TEST_USER_ID_3)).isEqualTo(1); // 위치가 한 칸 앞으로 이동
     }
 
+    @Test
+    @DisplayName("대기 중에 다시 추가하면 순번을 유지하고, 대기열에서 나간 뒤 다시 추가하면 맨 뒤로 간다")
+    void addToQueue_Rejoin() {
+        // given
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_2);
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_3);
+
+        // when
+        int again = queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        queueService.removeFromQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_2);
+        int rejoined = queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_2);
+
+        // then
+        assertThat(again).isEqualTo(0);
+        assertThat(rejoined).isEqualTo(2);
+        assertThat(queueService.getPosition(TEST_RANDOM_BOX_ID, TEST_USER_ID_3)).isEqualTo(1);
+        assertThat(queueService.getWaitingCount(TEST_RANDOM_BOX_ID)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("서로 다른 샤드에 들어간 사용자도 추가한 순서대로 대기 번호를 받고 입장한다")
+    void addToQueue_OrderAcrossShards() {
+        // given (사용자 ID가 연속이면 모든 샤드에 고르게 나뉨)
+        List<Long> userIds = List.of(1003L, 1000L, 1006L, 1001L, 1005L, 1002L, 1007L, 1004L);
+
+        // when
+        List<Integer> joinedPositions = new ArrayList<>();
+        for (Long userId : userIds) {
+            joinedPositions.add(queueService.addToQueue(TEST_RANDOM_BOX_ID, userId));
+        }
+        Map<Long, Integer> positions = queueService.getPositions(TEST_RANDOM_BOX_ID, userIds);
+        List<Long> admitted = queueService.admit(TEST_RANDOM_BOX_ID, userIds.size());
+
+        // then
+        assertThat(joinedPositions).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+        for (int i = 0; i < userIds.size(); i++) {
+            assertThat(positions.get(userIds.get(i))).isEqualTo(i);
+        }
+        assertThat(admitted).containsExactlyElementsOf(userIds);
+        assertThat(queueService.getWaitingCount(TEST_RANDOM_BOX_ID)).isZero();
+    }
+
+    @Test
+    @DisplayName("대기열 앞 사용자 입장 성공")
+    void admit_Success() {
+        // given
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_2);
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_3);
+
+        // when
+        List<Long> admitted = queueService.admit(TEST_RANDOM_BOX_ID, 2);
+
+        // then
+        assertThat(admitted).containsExactly(TEST_USER_ID_1, TEST_USER_ID_2);
+        assertThat(queueService.isActive(TEST_RANDOM_BOX_ID, TEST_USER_ID_1)).isTrue();
+        assertThat(queueService.isActive(TEST_RANDOM_BOX_ID, TEST_USER_ID_3)).isFalse();
+        assertThat(queueService.getPosition(TEST_RANDOM_BOX_ID, TEST_USER_ID_3)).isEqualTo(0);
+        assertThat(queueService.getActiveCount(TEST_RANDOM_BOX_ID)).isEqualTo(2);
+        assertThat(queueService.getWaitingCount(TEST_RANDOM_BOX_ID)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("입장 해제 시 발급한 입장 토큰 회수")
+    void deactivate_RevokesAdmissionToken() {
+        // given
+        queueService.activate(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        queueService.activate(TEST_RANDOM_BOX_ID, TEST_USER_ID_2);
+        String token = admissionTokenService.issue(TEST_USER_ID_1, TEST_RANDOM_BOX_ID);
+        String otherToken = admissionTokenService.issue(TEST_USER_ID_2, TEST_RANDOM_BOX_ID);
+        assertThat(admissionTokenService.issue(TEST_USER_ID_1, TEST_RANDOM_BOX_ID)).isEqualTo(token);
+
+        // when
+        queueService.deactivate(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+
+        // then
+        assertThat(admissionTokenService.verify(token, TEST_USER_ID_1, TEST_RANDOM_BOX_ID)).isTrue();
+        assertThat(admissionTokenService.consume(token)).isFalse();
+        assertThat(admissionTokenService.consume(otherToken)).isTrue();
+        assertThat(admissionTokenService.consume(otherToken)).isFalse();
+    }
+
+    @Test
+    @DisplayName("입장 해제 시 구매를 마친 인원으로 처리 속도 기록")
+    void deactivate_RecordsThroughput() {
+        // given
+        String key = "randombox:queue:throughput:" + TEST_RANDOM_BOX_ID;
+        queueService.activate(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_2);
+
+        // when
+        queueService.deactivate(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        queueService.deactivate(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+
+        // then
+        assertThat(redisTemplate.opsForHash().get(key, "pending")).isEqualTo("1");
+        assertThat(redisTemplate.opsForHash().get(key, "backlogged")).isEqualTo("1");
+    }
+
     @Test
     @DisplayName("예상 대기 시간 계산 성공")
     void getEstimatedWaitTime_Success() {
@@ -147,4 +258,83 @@ class QueueServiceTest {
         assertThat(waitTime2).isEqualTo(30); // 두 번째 사용자는 대기 시간 30초
         assertThat(waitTime3).isEqualTo(60); // 세 번째 사용자는 대기 시간 60초
     }
+
+    @Test
+    @DisplayName("처리 속도 측정값은 Redis에서 기록되고 만료 시간이 설정된다")
+    void recordThroughput_Expires() {
+        // given
+        String key = "randombox:queue:throughput:" + TEST_RANDOM_BOX_ID;
+
+        // when
+        throughputEstimator.record(TEST_RANDOM_BOX_ID, 3, true);
+        throughputEstimator.record(TEST_RANDOM_BOX_ID, 2, true);
+
+        // then
+        assertThat(redisTemplate.opsForHash().get(key, "pending")).isEqualTo("5");
+        assertThat(redisTemplate.opsForHash().get(key, "windowStartMicros")).isNotNull();
+        assertThat(redisTemplate.getExpire(key)).isPositive();
+        assertThat(throughputEstimator.getThroughput(TEST_RANDOM_BOX_ID)).isSameAs(QueueThroughput.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("여러 사용자를 한 번에 대기열에 추가하면 중복을 제거하고 요청 순서대로 대기 번호를 부여한다")
+    void addAllToQueue_Success() {
+        // given
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+
+        // when
+        Map<Long, Integer> positions = queueService.addAllToQueue(TEST_RANDOM_BOX_ID,
+                List.of(TEST_USER_ID_2, TEST_USER_ID_3, TEST_USER_ID_2, TEST_USER_ID_1));
+
+        // then
+        assertThat(positions).containsExactly(
+                entry(TEST_USER_ID_2, 1),
+                entry(TEST_USER_ID_3, 2),
+                entry(TEST_USER_ID_1, 0)); // 이미 대기 중인 사용자는 기존 순번 유지
+        assertThat(queueService.getWaitingCount(TEST_RANDOM_BOX_ID)).isEqualTo(3);
+        assertThat(queueService.getPosition(TEST_RANDOM_BOX_ID, TEST_USER_ID_3)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("일괄 추가한 사용자는 샤드가 달라도 요청 순서대로 입장한다")
+    void addAllToQueue_OrderAcrossShards() {
+        // given
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 240; userId > 200; userId -= 3) {
+            userIds.add(userId);
+        }
+        for (long userId = 300; userId < 340; userId += 7) {
+            userIds.add(userId);
+        }
+
+        // when
+        Map<Long, Integer> positions = queueService.addAllToQueue(TEST_RANDOM_BOX_ID, userIds);
+        List<Long> admitted = queueService.admit(TEST_RANDOM_BOX_ID, userIds.size() + 1);
+
+        // then
+        for (int i = 0; i < userIds.size(); i++) {
+            assertThat(positions.get(userIds.get(i))).isEqualTo(i + 1);
+        }
+        List<Long> expected = new ArrayList<>();
+        expected.add(TEST_USER_ID_1);
+        expected.addAll(userIds);
+        assertThat(admitted).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("예전 대기 인원 카운터는 실제 대기열과 달라도 정리되고, 대기 인원 수는 대기열에서 계산한다")
+    void removeLegacyWaitingCounters_Success() {
+        // given
+        queueService.addToQueue(TEST_RANDOM_BOX_ID, TEST_USER_ID_1);
+        redissonClient.getAtomicLong("randombox:waiting-count:" + TEST_RANDOM_BOX_ID).set(5);
+
+        // when
+        int removed = queueService.removeLegacyWaitingCounters();
+
+        // then
+        assertThat(removed).isEqualTo(1);
+        assertThat(redissonClient.getAtomicLong("randombox:waiting-count:" + TEST_RANDOM_BOX_ID).isExists()).isFalse();
+        assertThat(queueService.getWaitingCount(TEST_RANDOM_BOX_ID)).isEqualTo(1);
+    }
 }
@@ -0,0 +1,60 @@
+package com.randombox.domain.queue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueueThroughputTest {
+
+    @Test
+    @DisplayName("측정값이 없으면 한 사용자당 30초로 예상한다")
+    void estimateWithoutMeasurement() {
+        // when
+        WaitEstimate estimate = QueueThroughput.UNKNOWN.estimate(3);
+
+        // then
+        assertThat(estimate.getSeconds()).isEqualTo(90);
+        assertThat(estimate.getLowSeconds()).isEqualTo(90);
+        assertThat(estimate.getHighSeconds()).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("측정된 입장 속도와 편차로 예상 대기 시간 구간을 계산한다")
+    void estimateWithMeasurement() {
+        // given
+        QueueThroughput throughput = new QueueThroughput(2.0, 0.5);
+
+        // when
+        WaitEstimate estimate = throughput.estimate(30);
+
+        // then
+        assertThat(estimate.getSeconds()).isEqualTo(15);
+        assertThat(estimate.getLowSeconds()).isEqualTo(10);
+        assertThat(estimate.getHighSeconds()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("편차가 커도 느린 쪽 예상 시간은 평균 속도의 10분의 1을 하한으로 한다")
+    void estimateWithLargeDeviation() {
+        // given
+        QueueThroughput throughput = new QueueThroughput(1.0, 5.0);
+
+        // when
+        WaitEstimate estimate = throughput.estimate(10);
+
+        // then
+        assertThat(estimate.getSeconds()).isEqualTo(10);
+        assertThat(estimate.getHighSeconds()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("입장한 사용자의 예상 대기 시간은 0이다")
+    void estimateForAdmittedUser() {
+        // when
+        WaitEstimate estimate = new QueueThroughput(2.0, 0.5).estimate(0);
+
+        // then
+        assertThat(estimate.getSeconds()).isZero();
+    }
+}
@@ -0,0 +1,113 @@
+package com.randombox.domain.randombox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryWarmUpSchedulerTest {
+
+    @Mock
+    private RandomBoxRepository randomBoxRepository;
+
+    @Mock
+    private RandomBoxInventoryService randomBoxInventoryService;
+
+    @Mock
+    private RedisInventoryCounter inventoryCounter;
+
+    @InjectMocks
+    private InventoryWarmUpScheduler scheduler;
+
+    @Test
+    @DisplayName("판매 시작 예정 랜덤박스 중 아직 적재하지 않은 것만 적재")
+    void warmUp_SkipAlreadyWarmed() {
+        // given
+        RandomBox warmed = createRandomBox(1L);
+        RandomBox upcoming = createRandomBox(2L);
+        when(randomBoxRepository.findAllStartingBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(warmed, upcoming));
+        when(inventoryCounter.fields(anyString())).thenReturn(Set.of(warmUpField(warmed)));
+        when(randomBoxInventoryService.warmUpInventory(List.of(upcoming))).thenReturn(1);
+
+        // when
+        scheduler.warmUp();
+
+        // then
+        verify(randomBoxInventoryService, times(1)).warmUpInventory(List.of(upcoming));
+        verify(inventoryCounter, times(1)).putAll(anyString(),
+                argThat((Map<String, String> timings) -> timings.size() == 1 && timings.containsKey(warmUpField(upcoming))));
+    }
+
+    @Test
+    @DisplayName("판매 일정이 바뀐 랜덤박스는 다시 적재하고 판매가 시작된 기록은 삭제")
+    void warmUp_RescheduledAndStarted() {
+        // given
+        RandomBox rescheduled = createRandomBox(1L);
+        long previousStart = System.currentTimeMillis() - 60_000;
+        when(randomBoxRepository.findAllStartingBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(rescheduled));
+        when(inventoryCounter.fields(anyString())).thenReturn(Set.of("1:" + previousStart));
+        when(randomBoxInventoryService.warmUpInventory(List.of(rescheduled))).thenReturn(1);
+
+        // when
+        scheduler.warmUp();
+
+        // then
+        verify(inventoryCounter, times(1)).removeFields(anyString(), eq(List.of("1:" + previousStart)));
+        verify(randomBoxInventoryService, times(1)).warmUpInventory(List.of(rescheduled));
+        verify(inventoryCounter, times(1)).putAll(anyString(),
+                argThat((Map<String, String> timings) -> timings.containsKey(warmUpField(rescheduled))));
+    }
+
+    @Test
+    @DisplayName("판매 시작 예정 랜덤박스가 없으면 아무것도 하지 않음")
+    void warmUp_NoUpcoming() {
+        // given
+        when(randomBoxRepository.findAllStartingBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        // when
+        scheduler.warmUp();
+
+        // then
+        verify(randomBoxInventoryService, never()).warmUpInventory(any());
+        verify(inventoryCounter, never()).putAll(anyString(), anyMap());
+    }
+
+    private String warmUpField(RandomBox randomBox) {
+        return randomBox.getId() + ":" + randomBox.getSalesStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private RandomBox createRandomBox(Long id) {
+        RandomBox randomBox = RandomBox.builder()
+                .name("랜덤박스 " + id)
+                .description("판매 예정 랜덤박스")
+                .price(10000)
+                .quantity(100)
+                .salesStartTime(LocalDateTime.now().plusMinutes(5))
+                .salesEndTime(LocalDateTime.now().plusDays(1))
+                .build();
+        ReflectionTestUtils.setField(randomBox, "id", id);
+        return randomBox;
+    }
+}
@@ -0,0 +1,132 @@
+package com.randombox.domain.randombox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryWriteBehindFlusherTest {
+
+    @Mock
+    private RandomBoxInventoryService randomBoxInventoryService;
+
+    @Mock
+    private RandomBoxRepository randomBoxRepository;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock lock;
+
+    @Mock
+    private PrizePoolService prizePoolService;
+
+    @InjectMocks
+    private InventoryWriteBehindFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redissonClient.getLock(anyString())).thenReturn(lock);
+        lenient().when(lock.tryLock()).thenReturn(true);
+        lenient().when(lock.isHeldByCurrentThread()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("변경된 재고를 절대값으로 DB에 반영")
+    void flush_Success() {
+        // given
+        when(randomBoxInventoryService.takeSharedDirtyBoxIds()).thenReturn(Arrays.asList(1L, 2L));
+        when(randomBoxInventoryService.getPersistedInventory(1L)).thenReturn(90);
+        when(randomBoxInventoryService.getPersistedInventory(2L)).thenReturn(0);
+        when(randomBoxRepository.updateQuantity(anyLong(), anyInt(), any(LocalDateTime.class))).thenReturn(1);
+
+        // when
+        flusher.flush();
+
+        // then
+        verify(randomBoxRepository, times(1)).updateQuantity(eq(1L), eq(90), any(LocalDateTime.class));
+        verify(randomBoxRepository, times(1)).updateQuantity(eq(2L), eq(0), any(LocalDateTime.class));
+        verify(randomBoxRepository, never()).save(any(RandomBox.class));
+        verify(randomBoxInventoryService, times(1)).shareDirtyBoxIds();
+        verify(lock, times(1)).unlock();
+    }
+
+    @Test
+    @DisplayName("다른 노드가 반영 중이면 변경 목록만 공유하고 DB에 반영하지 않음")
+    void flush_SkipWhenAnotherNodeFlushing() {
+        // given
+        when(lock.tryLock()).thenReturn(false);
+
+        // when
+        flusher.flush();
+
+        // then
+        verify(randomBoxInventoryService, times(1)).shareDirtyBoxIds();
+        verify(randomBoxInventoryService, never()).takeSharedDirtyBoxIds();
+        verify(randomBoxRepository, never()).updateQuantity(anyLong(), anyInt(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("DB 반영 실패 시 다음 주기에 다시 반영하도록 표시")
+    void flush_Failure_RetryNextTick() {
+        // given
+        when(randomBoxInventoryService.takeSharedDirtyBoxIds()).thenReturn(List.of(1L));
+        when(randomBoxInventoryService.getPersistedInventory(1L)).thenReturn(90);
+        when(randomBoxRepository.updateQuantity(eq(1L), eq(90), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("DB 오류"));
+
+        // when
+        flusher.flush();
+
+        // then
+        verify(randomBoxInventoryService, times(1)).markDirty(1L);
+    }
+
+    @Test
+    @DisplayName("시작 시 보정 - 판매가 끝난 랜덤박스는 반영 후 추적 해제")
+    void reconcile_Success() {
+        // given
+        RandomBox endedBox = RandomBox.builder()
+                .name("종료된 랜덤박스")
+                .description("판매가 끝난 랜덤박스입니다.")
+                .price(1000)
+                .quantity(10)
+                .salesStartTime(LocalDateTime.now().minusDays(2))
+                .salesEndTime(LocalDateTime.now().minusDays(1))
+                .build();
+        ReflectionTestUtils.setField(endedBox, "id", 1L);
+
+        when(randomBoxInventoryService.getWriteBehindBoxIds()).thenReturn(List.of(1L));
+        when(randomBoxRepository.findAllById(List.of(1L))).thenReturn(List.of(endedBox));
+        when(randomBoxInventoryService.takeSharedDirtyBoxIds()).thenReturn(List.of(1L));
+        when(randomBoxInventoryService.getPersistedInventory(1L)).thenReturn(3);
+        when(randomBoxRepository.updateQuantity(eq(1L), eq(3), any(LocalDateTime.class))).thenReturn(1);
+
+        // when
+        flusher.reconcile();
+
+        // then
+        verify(randomBoxInventoryService, times(1)).markDirty(1L);
+        verify(randomBoxRepository, times(1)).updateQuantity(eq(1L), eq(3), any(LocalDateTime.class));
+        verify(randomBoxInventoryService, times(1)).untrackWriteBehind(1L);
+    }
+}
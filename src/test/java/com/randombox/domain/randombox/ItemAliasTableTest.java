@@ -0,0 +1,71 @@
+package com.randombox.domain.randombox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemAliasTableTest {
+
+    @Test
+    @DisplayName("모든 열과 위치를 추첨하면 아이템별 당첨 수가 확률과 정확히 일치")
+    void drawIndex_ExactDistribution() {
+        // given
+        List<RandomBoxItem> items = Arrays.asList(
+                createItem("50.00"), createItem("33.33"), createItem("16.66"), createItem("0.01"));
+        ItemAliasTable table = ItemAliasTable.of(items);
+
+        // when
+        int[] counts = countAll(table);
+
+        // then
+        assertThat(counts).containsExactly(5000 * 4, 3333 * 4, 1666 * 4, 1 * 4);
+    }
+
+    @Test
+    @DisplayName("확률 합이 100 미만이면 남은 확률은 마지막 아이템에 더해짐")
+    void drawIndex_RemainderToLastItem() {
+        // given
+        List<RandomBoxItem> items = Arrays.asList(createItem("70.0"), createItem("20.0"));
+        ItemAliasTable table = ItemAliasTable.of(items);
+
+        // when
+        int[] counts = countAll(table);
+
+        // then
+        assertThat(counts).containsExactly(7000 * 2, 3000 * 2);
+    }
+
+    @Test
+    @DisplayName("아이템이 없으면 추첨 테이블 생성 실패")
+    void of_Failure_NoItems() {
+        assertThatThrownBy(() -> ItemAliasTable.of(Collections.emptyList()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("랜덤박스에 아이템이 없습니다.");
+    }
+
+    private int[] countAll(ItemAliasTable table) {
+        int[] counts = new int[table.size()];
+        for (int column = 0; column < table.size(); column++) {
+            for (int coin = 0; coin < ItemAliasTable.TOTAL_WEIGHT; coin++) {
+                counts[table.drawIndex(column, coin)]++;
+            }
+        }
+        return counts;
+    }
+
+    private RandomBoxItem createItem(String probability) {
+        return RandomBoxItem.builder()
+                .name("아이템 " + probability)
+                .description("테스트 아이템")
+                .rarity(RandomBoxItem.Rarity.COMMON)
+                .probability(new BigDecimal(probability))
+                .build();
+    }
+}
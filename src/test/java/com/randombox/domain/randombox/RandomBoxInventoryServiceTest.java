@@ -11,7 +11,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -19,7 +21,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {"spring.profiles.active=test", "randombox.scheduling.enabled=false"})
 @Import(TestRedisConfig.class)
 class RandomBoxInventoryServiceTest {
 
@@ -33,6 +35,7 @@ class RandomBoxInventoryServiceTest {
     private RandomBoxRepository randomBoxRepository;
 
     private static final Long TEST_RANDOM_BOX_ID = 1L;
+    private static final String INVENTORY_KEY = "randombox:inventory:{" + TEST_RANDOM_BOX_ID + "}";
     private RandomBox testRandomBox;
 
     @BeforeEach
@@ -62,6 +65,10 @@ class RandomBoxInventoryServiceTest {
 
     @AfterEach
     void tearDown() {
+        randomBoxInventoryService.drainDirtyBoxIds();
+        ReflectionTestUtils.setField(randomBoxInventoryService, "leaseEnabled", false);
+        randomBoxInventoryService.returnAllLeases();
+        
         // 테스트 후 Redis 데이터 초기화
         if (redisTemplate != null && redisTemplate.getConnectionFactory() != null) {
             redisTemplate.execute(connection -> {
@@ -107,7 +114,8 @@ class RandomBoxInventoryServiceTest {
         // then
         assertThat(decreased).isTrue();
         assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(90);
-        verify(randomBoxRepository, times(1)).save(any(RandomBox.class));
+        verify(randomBoxRepository, never()).save(any(RandomBox.class)); // DB 반영은 write-behind
+        assertThat(randomBoxInventoryService.drainDirtyBoxIds()).containsExactly(TEST_RANDOM_BOX_ID);
     }
 
     @Test
@@ -125,6 +133,23 @@ class RandomBoxInventoryServiceTest {
         verify(randomBoxRepository, never()).save(any(RandomBox.class));
     }
 
+    @Test
+    @DisplayName("품절 표시 - 재고가 남아 있으면 요청 수량보다 적어도 품절로 표시하지 않음")
+    void decreaseInventory_SoldOutOnlyWhenEmpty() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        
+        // when
+        randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 101);
+        boolean soldOutWithStock = randomBoxInventoryService.isSoldOut(TEST_RANDOM_BOX_ID);
+        randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 100);
+        randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 1);
+        
+        // then
+        assertThat(soldOutWithStock).isFalse();
+        assertThat(randomBoxInventoryService.isSoldOut(TEST_RANDOM_BOX_ID)).isTrue();
+    }
+
     @Test
     @DisplayName("재고 증가 성공")
     void increaseInventory_Success() {
@@ -138,7 +163,7 @@ class RandomBoxInventoryServiceTest {
         // then
         assertThat(increased).isTrue();
         assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(70);
-        verify(randomBoxRepository, times(3)).save(any(RandomBox.class)); // 초기화 + 감소 + 증가
+        verify(randomBoxRepository, never()).save(any(RandomBox.class)); // DB 반영은 write-behind
     }
 
     @Test
@@ -154,4 +179,339 @@ class RandomBoxInventoryServiceTest {
         // then
         assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(150);
     }
+
+    @Test
+    @DisplayName("재고 감소 - 초기화되지 않은 재고는 DB 기준으로 초기화")
+    void decreaseInventory_LazyInitialize() {
+        // when
+        boolean decreased = randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 1);
+        boolean increased = randomBoxInventoryService.increaseInventory(TEST_RANDOM_BOX_ID, 5);
+        
+        // then
+        assertThat(decreased).isTrue();
+        assertThat(increased).isTrue();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(104);
+    }
+
+    @Test
+    @DisplayName("관리자 재고 변경 반영 - 판매 중인 재고에 차이만큼 반영")
+    void adjustInventory_Success() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 30);
+        
+        // when
+        randomBoxInventoryService.adjustInventory(TEST_RANDOM_BOX_ID, 50);
+        randomBoxInventoryService.adjustInventory(TEST_RANDOM_BOX_ID, -20);
+        
+        // then
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+        assertThat(randomBoxInventoryService.getPersistedInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("관리자 재고 변경 반영 - 남은 재고보다 많이 줄이면 0으로 설정")
+    void adjustInventory_BelowRemaining() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 2);
+        
+        // when
+        randomBoxInventoryService.adjustInventory(TEST_RANDOM_BOX_ID, -101);
+        
+        // then
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isZero();
+        assertThat(randomBoxInventoryService.isSoldOut(TEST_RANDOM_BOX_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("관리자 재고 변경 반영 - Redis에 재고가 없으면 DB 재고로 초기화되므로 반영하지 않음")
+    void adjustInventory_NotInitialized() {
+        // when
+        randomBoxInventoryService.adjustInventory(TEST_RANDOM_BOX_ID, 10);
+        
+        // then
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("분할 재고 초기화 성공 - 하위 카운터 합계 조회")
+    void initializeInventory_Striped_Success() {
+        // when
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 4);
+        
+        // then
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("분할 재고 감소 성공 - 하위 카운터 하나로 부족하면 여러 카운터에서 차감")
+    void decreaseInventory_Striped_SpansStripes() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 4); // 하위 카운터당 25개
+        
+        // when
+        boolean decreased = randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 60);
+        
+        // then
+        assertThat(decreased).isTrue();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("분할 재고 감소 실패 - 전체 재고 부족 시 차감분 복구")
+    void decreaseInventory_Striped_Failure_InsufficientInventory() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 4);
+        
+        // when
+        boolean decreased = randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 101);
+        
+        // then
+        assertThat(decreased).isFalse();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("분할 재고 감소 - 다른 노드가 바꾼 분할 구성을 바로 따름")
+    void decreaseInventory_Striped_LayoutChangedByAnotherNode() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        
+        // 다른 노드가 2분할로 다시 초기화한 상태
+        redisTemplate.opsForValue().set(INVENTORY_KEY + ":stripe:0", "10");
+        redisTemplate.opsForValue().set(INVENTORY_KEY + ":stripe:1", "10");
+        redisTemplate.opsForValue().set(INVENTORY_KEY + ":stripes", "2");
+        
+        // when
+        boolean decreased = randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 15);
+        
+        // then
+        assertThat(decreased).isTrue();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("분할 재고 감소 - 다른 노드가 분할 수를 줄여 없어진 하위 카운터를 고르면 구성을 다시 읽음")
+    void decreaseInventory_Striped_StripesRemovedByAnotherNode() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 4);
+        
+        // 다른 노드가 1분할로 다시 초기화한 상태
+        redisTemplate.delete(INVENTORY_KEY + ":stripe:1");
+        redisTemplate.delete(INVENTORY_KEY + ":stripe:2");
+        redisTemplate.delete(INVENTORY_KEY + ":stripe:3");
+        redisTemplate.opsForValue().set(INVENTORY_KEY + ":stripe:0", "20");
+        redisTemplate.opsForValue().set(INVENTORY_KEY + ":stripes", "1");
+        
+        // when
+        boolean decreased = randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 15);
+        
+        // then
+        assertThat(decreased).isTrue();
+        assertThat(redisTemplate.opsForValue().get(INVENTORY_KEY + ":stripe:0")).isEqualTo("5");
+    }
+
+    @Test
+    @DisplayName("분할 재고 키 - 한 랜덤박스의 모든 키가 같은 해시 태그를 가짐")
+    void initializeInventory_Striped_SharesHashTag() {
+        // when
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 2);
+        randomBoxInventoryService.reserve(TEST_RANDOM_BOX_ID, 1, Duration.ofMinutes(1));
+        
+        // then
+        assertThat(redisTemplate.keys("randombox:inventory:*"))
+                .filteredOn(key -> !key.endsWith("-boxes") && !key.endsWith("write-behind"))
+                .allMatch(key -> key.startsWith(INVENTORY_KEY + ":"))
+                .contains(INVENTORY_KEY + ":stripe:0", INVENTORY_KEY + ":stripe:1", INVENTORY_KEY + ":stripes",
+                        INVENTORY_KEY + ":reserved", INVENTORY_KEY + ":reservations");
+    }
+
+    @Test
+    @DisplayName("분할 재고 재초기화 - 이전 구성의 하위 카운터 삭제")
+    void initializeInventory_Striped_ReplacesLayout() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 4);
+        
+        // when
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 1);
+        
+        // then
+        assertThat(redisTemplate.opsForValue().get(INVENTORY_KEY + ":stripe:0")).isEqualTo("100");
+        assertThat(redisTemplate.opsForValue().get(INVENTORY_KEY + ":stripes")).isEqualTo("1");
+        assertThat(redisTemplate.hasKey(INVENTORY_KEY + ":stripe:1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("임대 재고 감소 성공 - 중앙 재고에서 임대 단위만큼 가져옴")
+    void decreaseInventory_Lease_Success() {
+        // given
+        ReflectionTestUtils.setField(randomBoxInventoryService, "leaseEnabled", true);
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        
+        // when
+        boolean decreased = randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 1);
+        
+        // then
+        assertThat(decreased).isTrue();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(99);
+        
+        // 반납 후 중앙 재고만 남음
+        randomBoxInventoryService.returnAllLeases();
+        assertThat(redisTemplate.opsForValue().get(INVENTORY_KEY + ":stripe:0")).isEqualTo("99");
+    }
+
+    @Test
+    @DisplayName("임대 재고 감소 - 메모리로 옮긴 재고는 Redis를 갱신하지 않고 차감")
+    void decreaseInventory_Lease_DecreasesInMemory() {
+        // given
+        ReflectionTestUtils.setField(randomBoxInventoryService, "leaseEnabled", true);
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 1);
+        String key = INVENTORY_KEY;
+        Object central = redisTemplate.opsForValue().get(key + ":stripe:0");
+        Object leased = redisTemplate.opsForHash().values(key + ":leases");
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            assertThat(randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 1)).isTrue();
+        }
+
+        // then
+        assertThat(redisTemplate.opsForValue().get(key + ":stripe:0")).isEqualTo(central);
+        assertThat(redisTemplate.opsForHash().values(key + ":leases")).isEqualTo(leased);
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(94);
+    }
+
+    @Test
+    @DisplayName("임대 재고 감소 실패 - 중앙 재고와 임대 재고를 합쳐도 부족")
+    void decreaseInventory_Lease_Failure_InsufficientInventory() {
+        // given
+        ReflectionTestUtils.setField(randomBoxInventoryService, "leaseEnabled", true);
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 95);
+        
+        // when
+        boolean decreased = randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 6);
+        
+        // then
+        assertThat(decreased).isFalse();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("임대 재고 조회 - 다른 노드가 임대한 재고도 포함")
+    void getInventory_Lease_IncludesOtherNodes() {
+        // given
+        ReflectionTestUtils.setField(randomBoxInventoryService, "leaseEnabled", true);
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        randomBoxInventoryService.decreaseInventory(TEST_RANDOM_BOX_ID, 1);
+        
+        // when
+        redisTemplate.opsForHash().put(INVENTORY_KEY + ":leases", "other-node", "20");
+        redisTemplate.opsForValue().decrement(INVENTORY_KEY + ":stripe:0", 20);
+        
+        // then
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("종료된 노드의 임대 재고 회수")
+    void reclaimLeases_DeadNode() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        String key = INVENTORY_KEY;
+        redisTemplate.opsForValue().set(key + ":stripe:0", "80");
+        redisTemplate.opsForHash().put(key + ":leases", "dead-node", "20");
+        redisTemplate.opsForSet().add("randombox:inventory:leased-boxes", String.valueOf(TEST_RANDOM_BOX_ID));
+        
+        // when
+        randomBoxInventoryService.reclaimLeases();
+        
+        // then
+        assertThat(redisTemplate.opsForValue().get(key + ":stripe:0")).isEqualTo("100");
+        assertThat(redisTemplate.hasKey(key + ":leases")).isFalse();
+        assertThat(redisTemplate.opsForSet().isMember("randombox:inventory:leased-boxes", String.valueOf(TEST_RANDOM_BOX_ID))).isFalse();
+    }
+
+    @Test
+    @DisplayName("재고 예약 확정 성공 - 확정된 예약은 만료되어도 복구되지 않음")
+    void reserveAndCommit_Success() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        
+        // when
+        String token = randomBoxInventoryService.reserve(TEST_RANDOM_BOX_ID, 10, Duration.ofMillis(1));
+        boolean committed = randomBoxInventoryService.commit(token);
+        randomBoxInventoryService.releaseExpiredReservations();
+        
+        // then
+        assertThat(token).isNotNull();
+        assertThat(committed).isTrue();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("만료된 재고 예약 자동 복구")
+    void releaseExpiredReservations_Success() throws InterruptedException {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        String token = randomBoxInventoryService.reserve(TEST_RANDOM_BOX_ID, 10, Duration.ofMillis(1));
+        Thread.sleep(5);
+        
+        // when
+        randomBoxInventoryService.releaseExpiredReservations();
+        
+        // then
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+        assertThat(randomBoxInventoryService.commit(token)).isFalse();
+    }
+
+    @Test
+    @DisplayName("재고 예약 취소 - 같은 예약을 여러 번 취소해도 한 번만 복구")
+    void release_RestoresOnce() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID, 4);
+        String token = randomBoxInventoryService.reserve(TEST_RANDOM_BOX_ID, 30, Duration.ofSeconds(60));
+        
+        // when
+        boolean released = randomBoxInventoryService.release(token);
+        boolean releasedAgain = randomBoxInventoryService.release(token);
+        
+        // then
+        assertThat(released).isTrue();
+        assertThat(releasedAgain).isFalse();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("DB 반영용 재고 - 확정 전인 예약 수량 포함")
+    void getPersistedInventory_IncludesPendingReservations() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        String token = randomBoxInventoryService.reserve(TEST_RANDOM_BOX_ID, 10, Duration.ofSeconds(60));
+        
+        // when
+        Integer pending = randomBoxInventoryService.getPersistedInventory(TEST_RANDOM_BOX_ID);
+        randomBoxInventoryService.commit(token);
+        Integer committed = randomBoxInventoryService.getPersistedInventory(TEST_RANDOM_BOX_ID);
+        
+        // then
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(90);
+        assertThat(pending).isEqualTo(100);
+        assertThat(committed).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("재고 예약 실패 - 재고 부족")
+    void reserve_Failure_InsufficientInventory() {
+        // given
+        randomBoxInventoryService.initializeInventory(TEST_RANDOM_BOX_ID);
+        
+        // when
+        String token = randomBoxInventoryService.reserve(TEST_RANDOM_BOX_ID, 101, Duration.ofSeconds(60));
+        
+        // then
+        assertThat(token).isNull();
+        assertThat(randomBoxInventoryService.getInventory(TEST_RANDOM_BOX_ID)).isEqualTo(100);
+    }
 }
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
@@ -18,6 +19,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +31,15 @@ class RandomBoxServiceTest {
     @Mock
     private RandomBoxItemRepository randomBoxItemRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PrizePoolService prizePoolService;
+
+    @Mock
+    private RandomBoxInventoryService randomBoxInventoryService;
+
     @InjectMocks
     private RandomBoxService randomBoxService;
 
@@ -146,6 +157,21 @@ class RandomBoxServiceTest {
                 .hasMessageContaining("존재하지 않는 랜덤박스입니다.");
     }
 
+    @Test
+    @DisplayName("랜덤박스 수정 - 변경된 수량만큼 Redis 재고에도 반영")
+    void updateRandomBox_AdjustsInventory() {
+        // given
+        when(randomBoxRepository.findById(1L)).thenReturn(Optional.of(randomBox));
+
+        // when
+        RandomBox result = randomBoxService.updateRandomBox(1L, "수정된 랜덤박스", "설명", 1000, 130,
+                now.minusDays(1), future);
+
+        // then
+        assertThat(result.getQuantity()).isEqualTo(130);
+        verify(randomBoxInventoryService, times(1)).adjustInventory(1L, 30);
+    }
+
     @Test
     @DisplayName("판매 중인 랜덤박스 목록 조회")
     void getRandomBoxesOnSale_Success() {
@@ -184,6 +210,7 @@ class RandomBoxServiceTest {
         assertThat(result.getName()).isEqualTo("일반 아이템");
         assertThat(result.getRarity()).isEqualTo(RandomBoxItem.Rarity.COMMON);
         assertThat(result.getProbability()).isEqualTo(new BigDecimal("70.0"));
+        verify(eventPublisher, times(1)).publishEvent(any(RandomBoxItemsChangedEvent.class));
     }
 
     @Test
@@ -219,6 +246,93 @@ class RandomBoxServiceTest {
         assertThat(result.getRarity()).isIn(RandomBoxItem.Rarity.COMMON, RandomBoxItem.Rarity.RARE);
     }
 
+    @Test
+    @DisplayName("랜덤 아이템 추첨 - 추첨 테이블을 재사용해 아이템을 다시 조회하지 않음")
+    void drawRandomItem_ReuseAliasTable() {
+        // given
+        when(randomBoxItemRepository.findByRandomBoxId(1L)).thenReturn(Arrays.asList(item1, item2));
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            randomBoxService.drawRandomItem(1L);
+        }
+
+        // then
+        verify(randomBoxItemRepository, times(1)).findByRandomBoxId(1L);
+    }
+
+    @Test
+    @DisplayName("랜덤 아이템 추첨 - 추첨 테이블 무효화 후 아이템을 다시 조회")
+    void drawRandomItem_AfterEvict() {
+        // given
+        when(randomBoxItemRepository.findByRandomBoxId(1L)).thenReturn(Arrays.asList(item1, item2));
+        randomBoxService.drawRandomItem(1L);
+
+        // when
+        randomBoxService.evictAliasTable(1L);
+        randomBoxService.drawRandomItem(1L);
+
+        // then
+        verify(randomBoxItemRepository, times(2)).findByRandomBoxId(1L);
+    }
+
+    @Test
+    @DisplayName("랜덤 아이템 여러 개 추첨 - 아이템은 한 번만 조회")
+    void drawMany_Success() {
+        // given
+        when(randomBoxItemRepository.findByRandomBoxId(1L)).thenReturn(Arrays.asList(item1, item2));
+
+        // when
+        ItemDraws draws = randomBoxService.drawMany(1L, 10);
+
+        // then
+        assertThat(draws.size()).isEqualTo(10);
+        for (int i = 0; i < draws.size(); i++) {
+            assertThat(draws.getItem(i)).isIn(item1, item2);
+        }
+        verify(randomBoxItemRepository, times(1)).findByRandomBoxId(1L);
+    }
+
+    @Test
+    @DisplayName("랜덤 아이템 여러 개 추첨 실패 - 추첨 개수가 1 미만")
+    void drawMany_Failure_InvalidCount() {
+        assertThatThrownBy(() -> randomBoxService.drawMany(1L, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("추첨 개수는 1 이상이어야 합니다.");
+    }
+
+    @Test
+    @DisplayName("경품 풀 방식 랜덤박스는 경품 풀에서 추첨")
+    void drawMany_PoolMode() {
+        // given
+        randomBox.changeDrawMode(RandomBox.DrawMode.POOL);
+        when(randomBoxItemRepository.findByRandomBoxId(1L)).thenReturn(Arrays.asList(item1, item2));
+        when(prizePoolService.draw(eq(1L), any(ItemAliasTable.class), any(), eq(3)))
+                .thenAnswer(invocation -> new ItemDraws(invocation.getArgument(1), new int[]{1, 1, 0}));
+
+        // when
+        ItemDraws draws = randomBoxService.drawMany(1L, 3);
+
+        // then
+        assertThat(draws.getItem(0)).isEqualTo(item2);
+        assertThat(draws.getItem(2)).isEqualTo(item1);
+        verify(prizePoolService, times(1)).draw(eq(1L), any(ItemAliasTable.class), any(), eq(3));
+    }
+
+    @Test
+    @DisplayName("확률 방식 랜덤박스는 추첨 결과를 취소해도 경품 풀에 접근하지 않음")
+    void cancelDraws_ProbabilityMode() {
+        // given
+        when(randomBoxItemRepository.findByRandomBoxId(1L)).thenReturn(Arrays.asList(item1, item2));
+        ItemDraws draws = randomBoxService.drawMany(1L, 2);
+
+        // when
+        randomBoxService.cancelDraws(1L, draws);
+
+        // then
+        verify(prizePoolService, never()).restore(any(), any());
+    }
+
     @Test
     @DisplayName("랜덤 아이템 추첨 실패 - 아이템 없음")
     void drawRandomItem_Failure_NoItems() {
@@ -0,0 +1,87 @@
+package com.randombox.domain.randombox;
+
+import com.randombox.config.TestRedisConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.profiles.active=test", "randombox.scheduling.enabled=false"})
+@Import(TestRedisConfig.class)
+class SoldOutCacheTest {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private static final Long TEST_RANDOM_BOX_ID = 1L;
+
+    // 같은 Redis를 쓰는 두 노드
+    private SoldOutCache nodeA;
+    private SoldOutCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new SoldOutCache(redissonClient);
+        nodeA.subscribe();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.unsubscribe();
+        if (nodeB != null) {
+            nodeB.unsubscribe();
+        }
+    }
+
+    @Test
+    @DisplayName("품절 해제 알림 - 재고를 복구한 노드에 품절 표시가 없어도 다른 노드의 품절 표시를 해제")
+    void markAvailable_RestockingNodeNeverMarkedSoldOut() throws InterruptedException {
+        // given
+        nodeA.markSoldOut(TEST_RANDOM_BOX_ID);
+        
+        // 품절 알림 이후에 시작해 품절 표시가 없는 노드
+        nodeB = new SoldOutCache(redissonClient);
+        nodeB.subscribe();
+        assertThat(nodeB.isSoldOut(TEST_RANDOM_BOX_ID)).isFalse();
+        
+        // when
+        nodeB.markAvailable(TEST_RANDOM_BOX_ID);
+        
+        // then
+        assertThat(await(() -> !nodeA.isSoldOut(TEST_RANDOM_BOX_ID))).isTrue();
+    }
+
+    @Test
+    @DisplayName("품절 알림 - 다른 노드에도 품절 표시")
+    void markSoldOut_NotifiesOtherNodes() throws InterruptedException {
+        // given
+        nodeB = new SoldOutCache(redissonClient);
+        nodeB.subscribe();
+        
+        // when
+        nodeA.markSoldOut(TEST_RANDOM_BOX_ID);
+        
+        // then
+        assertThat(await(() -> nodeB.isSoldOut(TEST_RANDOM_BOX_ID))).isTrue();
+        nodeA.markAvailable(TEST_RANDOM_BOX_ID);
+    }
+
+    // pub/sub 알림은 비동기로 전달되므로 조건을 만족할 때까지 잠시 기다림
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}